@@ -0,0 +1,10 @@
+package com.example.kalenderbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background maintenance (@Scheduled), kept off the request threads
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,21 +2,29 @@ package com.example.kalenderbackend.controller;
 
 import com.example.kalenderbackend.dto.AuthRequest;
 import com.example.kalenderbackend.dto.AuthResponse;
+import com.example.kalenderbackend.dto.RefreshRequest;
 import com.example.kalenderbackend.dto.RegisterRequest;
 import com.example.kalenderbackend.entity.User;
 import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.security.PasswordHashingExecutor;
+import com.example.kalenderbackend.security.TokenRevocationService;
+import com.example.kalenderbackend.security.VerifiedTokenCache;
 import com.example.kalenderbackend.util.JwtUtil;
+import com.example.kalenderbackend.util.ParsedToken;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -34,58 +42,143 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    // bcrypt runs on the hashing pool, the servlet thread is released while it works;
+    // saving the user continues on a virtual thread instead of holding a hashing thread
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
         // Check if username exists
         if (userRepository.existsByUsername(request.getUsername())) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Username already exists"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Username already exists")));
         }
 
         // Check if email exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Email already exists"));
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Email already exists")));
         }
 
-        // Create new user
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
+        try {
+            return passwordHashingExecutor.submit(() -> passwordEncoder.encode(request.getPassword()))
+                    .<ResponseEntity<?>>thenApplyAsync(encodedPassword -> {
+                        // Create new user
+                        User user = new User();
+                        user.setUsername(request.getUsername());
+                        user.setEmail(request.getEmail());
+                        user.setPassword(encodedPassword);
+                        user.setFirstName(request.getFirstName());
+                        user.setLastName(request.getLastName());
+
+                        User savedUser = userRepository.save(user);
+
+                        return ResponseEntity.status(HttpStatus.CREATED)
+                                .body(issueTokens(savedUser.getUsername(), savedUser.getId()));
+                    }, passwordHashingExecutor.continuationExecutor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busyResponse());
+        }
+    }
 
-        User savedUser = userRepository.save(user);
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody AuthRequest request) {
+        try {
+            return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    request.getUsername(),
+                                    request.getPassword()
+                            )
+                    ))
+                    .<ResponseEntity<?>>thenApplyAsync(authentication -> {
+                        Long userId = userRepository.findIdByUsername(request.getUsername())
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+
+                        return ResponseEntity.ok(issueTokens(request.getUsername(), userId));
+                    }, passwordHashingExecutor.continuationExecutor())
+                    .exceptionally(this::loginFailure);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(busyResponse());
+        }
+    }
 
-        // Generate token
-        String token = jwtUtil.generateToken(savedUser.getUsername(), savedUser.getId());
+    // Exchange a refresh token for a new access/refresh pair. The old refresh token is revoked (rotation);
+    // revoking is one atomic insert, so of two concurrent refreshes with the same token only one succeeds
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        ParsedToken refreshToken = verifyRefreshToken(request.getRefreshToken());
+        if (refreshToken == null || refreshToken.userId() == null
+                || !tokenRevocationService.revoke(refreshToken.id(), refreshToken.expiration())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ErrorResponse("Invalid refresh token"));
+        }
 
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(new AuthResponse(token, savedUser.getUsername(), savedUser.getId()));
+        return ResponseEntity.ok(issueTokens(refreshToken.subject(), refreshToken.userId()));
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody AuthRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()
-                    )
-            );
+    // Revokes the presented access token (Authorization header) and refresh token (body, optional)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+            @RequestBody(required = false) RefreshRequest request) {
+
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            String jwt = authorizationHeader.substring(7);
+            try {
+                ParsedToken accessToken = jwtUtil.verify(jwt);
+                tokenRevocationService.revoke(accessToken.id(), accessToken.expiration());
+            } catch (Exception e) {
+                // Already invalid or expired, nothing to revoke
+            }
+            tokenCache.invalidate(jwt);
+        }
+
+        if (request != null && request.getRefreshToken() != null) {
+            ParsedToken refreshToken = verifyRefreshToken(request.getRefreshToken());
+            if (refreshToken != null) {
+                tokenRevocationService.revoke(refreshToken.id(), refreshToken.expiration());
+            }
+        }
 
-            User user = userRepository.findByUsername(request.getUsername())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.noContent().build();
+    }
 
-            String token = jwtUtil.generateToken(user.getUsername(), user.getId());
+    private AuthResponse issueTokens(String username, Long userId) {
+        String token = jwtUtil.generateToken(username, userId);
+        String refreshToken = jwtUtil.generateRefreshToken(username, userId);
+        return new AuthResponse(token, refreshToken, username, userId);
+    }
 
-            return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getId()));
+    private ParsedToken verifyRefreshToken(String jwt) {
+        try {
+            ParsedToken token = jwtUtil.verify(jwt);
+            return token.isRefreshToken() ? token : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-        } catch (AuthenticationException e) {
+    private ResponseEntity<?> loginFailure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof AuthenticationException) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse("Invalid credentials"));
         }
+        throw ex instanceof CompletionException ce ? ce : new CompletionException(cause);
+    }
+
+    // Hashing pool is saturated, tell the client to back off instead of queueing forever
+    private ResponseEntity<?> busyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(new ErrorResponse("Too many authentication requests, try again shortly"));
     }
 
     // Helper class for error responses
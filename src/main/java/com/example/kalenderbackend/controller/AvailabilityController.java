@@ -0,0 +1,76 @@
+package com.example.kalenderbackend.controller;
+
+import com.example.kalenderbackend.dto.FreeSlot;
+import com.example.kalenderbackend.dto.FreeSlotRequest;
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import com.example.kalenderbackend.repository.CalendarGroupMemberRepository;
+import com.example.kalenderbackend.security.CurrentUser;
+import com.example.kalenderbackend.service.FreeSlotService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/availability")
+@CrossOrigin(origins = "http://localhost:3000")
+public class AvailabilityController {
+
+    private static final int MAX_PARTICIPANTS = 100;
+    private static final Duration MAX_WINDOW = Duration.ofDays(62);
+
+    @Autowired
+    private FreeSlotService freeSlotService;
+
+    @Autowired
+    private CalendarGroupMemberRepository memberRepository;
+
+    // Earliest common free slots of the caller and the given users. Only busy/free is used,
+    // no event details of other users are returned. Other participants must share a group with
+    // the caller and share at least free/busy there
+    @PostMapping("/free-slots")
+    public ResponseEntity<List<FreeSlot>> findFreeSlots(
+            @CurrentUser Long userId,
+            @Valid @RequestBody FreeSlotRequest request) {
+        if (!request.getTo().isAfter(request.getFrom())
+                || Duration.between(request.getFrom(), request.getTo()).compareTo(MAX_WINDOW) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must be between 1 minute and 62 days");
+        }
+        if ((request.getDayStart() == null) != (request.getDayEnd() == null)
+                || (request.getDayStart() != null && !request.getDayEnd().isAfter(request.getDayStart()))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid working hours");
+        }
+        if (request.getUsernames().size() >= MAX_PARTICIPANTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_PARTICIPANTS + " participants are supported");
+        }
+
+        Set<Long> participants = new LinkedHashSet<>();
+        participants.add(userId);
+        if (!request.getUsernames().isEmpty()) {
+            Set<String> unavailable = new HashSet<>(request.getUsernames());
+            for (Object[] row : memberRepository.findSharingCoMembers(userId, request.getUsernames(),
+                    CalendarGroupMember.Status.ACTIVE, CalendarGroupMember.Sharing.NONE)) {
+                participants.add((Long) row[0]);
+                unavailable.remove((String) row[1]);
+            }
+            // Same answer for unknown users and users who don't share, so names can't be probed
+            if (!unavailable.isEmpty()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Availability is not shared with you for some participants");
+            }
+        }
+
+        return ResponseEntity.ok(freeSlotService.findCommonFreeSlots(participants,
+                request.getFrom(), request.getTo(), request.getDurationMinutes(), request.getLimit(),
+                request.getDayStart(), request.getDayEnd()));
+    }
+}
@@ -1,23 +1,51 @@
 package com.example.kalenderbackend.controller;
 
 import com.example.kalenderbackend.dto.CreateEventRequest;
+import com.example.kalenderbackend.dto.DensityBucket;
+import com.example.kalenderbackend.dto.EventChanges;
+import com.example.kalenderbackend.dto.UpdateEventBatchItem;
 import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventInterval;
+import com.example.kalenderbackend.dto.EventPage;
+import com.example.kalenderbackend.dto.EventPatch;
 import com.example.kalenderbackend.entity.Event;
 import com.example.kalenderbackend.entity.User;
 import com.example.kalenderbackend.mapper.EventMapper;
-import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.security.AuthenticatedUser;
+import com.example.kalenderbackend.security.CurrentUser;
+import com.example.kalenderbackend.service.EventBatchService;
+import com.example.kalenderbackend.service.EventConflictService;
+import com.example.kalenderbackend.service.EventDensityService;
+import com.example.kalenderbackend.service.EventExportService;
+import com.example.kalenderbackend.service.EventImportService;
+import com.example.kalenderbackend.service.EventSearchService;
 import com.example.kalenderbackend.service.EventService;
+import com.example.kalenderbackend.service.EventSyncService;
+import com.example.kalenderbackend.service.UserVersionService;
+import com.example.kalenderbackend.util.EventCursor;
+import com.example.kalenderbackend.util.SyncToken;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -25,6 +53,12 @@ import java.util.Map;
 @CrossOrigin(origins = "http://localhost:3000")
 public class EventController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_DENSITY_DAYS = 366;
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     @Autowired
     private EventService eventService;
 
@@ -32,61 +66,157 @@ public class EventController {
     private EventMapper eventMapper;
 
     @Autowired
-    private UserRepository userRepository;
+    private EventExportService eventExportService;
+
+    @Autowired
+    private EventImportService eventImportService;
+
+    @Autowired
+    private EventBatchService eventBatchService;
+
+    @Autowired
+    private EventConflictService eventConflictService;
+
+    @Autowired
+    private EventDensityService eventDensityService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private EventSyncService eventSyncService;
 
-    // Get all events for authenticated user
+    @Autowired
+    private EventSearchService eventSearchService;
+
+    // Get all events for authenticated user, one keyset page at a time.
+    // A matching If-None-Match is answered with 304 before the page query runs
     @GetMapping
-    public ResponseEntity<List<EventDTO>> getUserEvents(Authentication auth) {
-        User user = getUserFromAuth(auth);
-        List<Event> events = eventService.getUserEvents(user.getId());
-        return ResponseEntity.ok(eventMapper.toDTOList(events));
+    public ResponseEntity<EventPage> getUserEvents(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest webRequest) {
+        int pageSize = clampPageSize(limit);
+        EventCursor after = parseCursor(cursor);
+        String etag = userVersionService.eventsETag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<EventDTO> events = eventService.getUserEventsPage(userId, after, pageSize);
+        return ResponseEntity.ok().eTag(etag).body(eventMapper.toDTOPage(events, pageSize));
     }
 
     // Get events by date
     @GetMapping("/date/{date}")
     public ResponseEntity<List<EventDTO>> getEventsByDate(
-            Authentication auth,
+            @CurrentUser Long userId,
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        User user = getUserFromAuth(auth);
-        List<Event> events = eventService.getEventsByDate(user.getId(), date);
-        return ResponseEntity.ok(eventMapper.toDTOList(events));
+        return ResponseEntity.ok(eventService.getEventsByDate(userId, date));
     }
 
     // Get events by date range
     @GetMapping("/range")
     public ResponseEntity<List<EventDTO>> getEventsByDateRange(
-            Authentication auth,
+            @CurrentUser Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        User user = getUserFromAuth(auth);
-        List<Event> events = eventService.getEventsByDateRange(user.getId(), start, end);
-        return ResponseEntity.ok(eventMapper.toDTOList(events));
+        return ResponseEntity.ok(eventService.getEventsByDateRange(userId, start, end));
+    }
+
+    // Full-text search over title, location and description; words match as prefixes, best first
+    @GetMapping("/search")
+    public ResponseEntity<List<EventDTO>> searchEvents(
+            @CurrentUser Long userId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + DEFAULT_SEARCH_RESULTS) int limit) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be empty");
+        }
+        return ResponseEntity.ok(eventSearchService.search(userId, q, clampPageSize(limit)));
+    }
+
+    // Delta sync for offline clients: events created, updated or deleted after ?since= (omit it for
+    // a full sync). Page while hasMore, keep nextToken for the next sync; resetRequired means start over
+    @GetMapping("/changes")
+    public ResponseEntity<EventChanges> getChanges(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(eventSyncService.getChanges(userId, parseSyncToken(since), clampPageSize(limit)));
+    }
+
+    // Events and completed events per day or week in [from, to] (inclusive), for month views
+    @GetMapping("/density")
+    public ResponseEntity<List<DensityBucket>> getDensity(
+            @CurrentUser Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_DENSITY_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range must be 1-" + MAX_DENSITY_DAYS + " days");
+        }
+        EventDensityService.Granularity bucket;
+        try {
+            bucket = EventDensityService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularity must be day or week");
+        }
+        return ResponseEntity.ok(eventDensityService.getDensity(userId, from, to, bucket));
     }
 
     // Get upcoming events
     @GetMapping("/upcoming")
-    public ResponseEntity<List<EventDTO>> getUpcomingEvents(Authentication auth) {
-        User user = getUserFromAuth(auth);
-        List<Event> events = eventService.getUpcomingEvents(user.getId());
-        return ResponseEntity.ok(eventMapper.toDTOList(events));
+    public ResponseEntity<EventPage> getUpcomingEvents(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = clampPageSize(limit);
+        List<EventDTO> events = eventService.getUpcomingEventsPage(userId, parseCursor(cursor), pageSize);
+        return ResponseEntity.ok(eventMapper.toDTOPage(events, pageSize));
     }
 
     // Get events by category
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<EventDTO>> getEventsByCategory(
-            Authentication auth,
-            @PathVariable String category) {
-        User user = getUserFromAuth(auth);
-        List<Event> events = eventService.getEventsByCategory(user.getId(), category);
-        return ResponseEntity.ok(eventMapper.toDTOList(events));
+    public ResponseEntity<EventPage> getEventsByCategory(
+            @CurrentUser Long userId,
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = clampPageSize(limit);
+        List<EventDTO> events = eventService.getEventsByCategoryPage(userId, category, parseCursor(cursor), pageSize);
+        return ResponseEntity.ok(eventMapper.toDTOPage(events, pageSize));
+    }
+
+    // Events that overlap [start, end), e.g. to warn before scheduling something
+    @GetMapping("/conflicts")
+    public ResponseEntity<List<EventInterval>> getConflicts(
+            @CurrentUser Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Long excludeId) {
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must be after start");
+        }
+        return ResponseEntity.ok(eventConflictService.findConflicts(userId, start, end, excludeId));
     }
 
-    // Create new event
+    // Create new event. With checkConflicts=true nothing is created if it overlaps
+    // existing events (first occurrence for a series); 409 lists the conflicts instead
     @PostMapping
-    public ResponseEntity<EventDTO> createEvent(
-            Authentication auth,
-            @Valid @RequestBody CreateEventRequest request) {
-        User user = getUserFromAuth(auth);
+    public ResponseEntity<?> createEvent(
+            @CurrentUser User user,
+            @Valid @RequestBody CreateEventRequest request,
+            @RequestParam(defaultValue = "false") boolean checkConflicts) {
+        if (checkConflicts) {
+            List<EventInterval> conflicts = eventConflictService.findConflicts(
+                    user.getId(), request.getStartTime(), request.getEndTime(), null);
+            if (!conflicts.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Event overlaps existing events", "conflicts", conflicts));
+            }
+        }
         Event event = eventMapper.toEntity(request, user);
         Event savedEvent = eventService.createEvent(event);
         return ResponseEntity.status(HttpStatus.CREATED).body(eventMapper.toDTO(savedEvent));
@@ -95,47 +225,157 @@ public class EventController {
     // Update event
     @PutMapping("/{id}")
     public ResponseEntity<EventDTO> updateEvent(
-            Authentication auth,
+            @CurrentUser User user,
             @PathVariable Long id,
             @Valid @RequestBody CreateEventRequest request) {
-        User user = getUserFromAuth(auth);
         Event event = eventMapper.toEntity(request, user);
-        Event updatedEvent = eventService.updateEvent(id, event);
+        Event updatedEvent = eventService.updateEvent(id, user.getId(), event);
         return ResponseEntity.ok(eventMapper.toDTO(updatedEvent));
     }
 
+    // Partial update with JSON Merge Patch semantics: absent fields stay, null clears, values replace.
+    // Sending only startTime and endTime (drag to reschedule) is a single narrow UPDATE
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<EventDTO> patchEvent(
+            @CurrentUser Long userId,
+            @PathVariable Long id,
+            @Valid @RequestBody EventPatch patch) {
+        Event patchedEvent = eventService.patchEvent(id, userId, patch);
+        return ResponseEntity.ok(eventMapper.toDTO(patchedEvent));
+    }
+
+    // Create many events in one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<EventBatchService.BatchResult> createEvents(
+            @CurrentUser AuthenticatedUser user,
+            @RequestBody List<CreateEventRequest> requests) {
+        checkBatchSize(requests);
+        EventBatchService.BatchResult result = eventBatchService.createEvents(user.userId(), user.username(), requests);
+        return ResponseEntity.status(result.applied() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST)
+                .body(result);
+    }
+
+    // Update many events in one transaction
+    @PutMapping("/batch")
+    public ResponseEntity<EventBatchService.BatchResult> updateEvents(
+            @CurrentUser Long userId,
+            @RequestBody List<UpdateEventBatchItem> items) {
+        checkBatchSize(items);
+        EventBatchService.BatchResult result = eventBatchService.updateEvents(userId, items);
+        return ResponseEntity.status(result.applied() ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+                .body(result);
+    }
+
     // Complete event (award XP)
     @PostMapping("/{id}/complete")
     public ResponseEntity<EventDTO> completeEvent(
-            Authentication auth,
+            @CurrentUser Long userId,
             @PathVariable Long id) {
-        User user = getUserFromAuth(auth);
-        Event completedEvent = eventService.completeEvent(id, user.getId());
+        Event completedEvent = eventService.completeEvent(id, userId);
         return ResponseEntity.ok(eventMapper.toDTO(completedEvent));
     }
 
+    // Complete one occurrence of a recurring event, identified by its start time
+    @PostMapping("/{id}/occurrences/complete")
+    public ResponseEntity<EventDTO> completeOccurrence(
+            @CurrentUser Long userId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start) {
+        Event occurrence = eventService.completeOccurrence(id, userId, start);
+        return ResponseEntity.ok(eventMapper.toDTO(occurrence));
+    }
+
+    // Cancel one occurrence of a recurring event (the rest of the series stays)
+    @DeleteMapping("/{id}/occurrences")
+    public ResponseEntity<Void> cancelOccurrence(
+            @CurrentUser Long userId,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start) {
+        eventService.cancelOccurrence(id, userId, start);
+        return ResponseEntity.noContent().build();
+    }
+
     // Delete event
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEvent(
-            Authentication auth,
+            @CurrentUser Long userId,
             @PathVariable Long id) {
-        User user = getUserFromAuth(auth);
-        eventService.deleteEvent(id, user.getId());
+        eventService.deleteEvent(id, userId);
         return ResponseEntity.noContent().build();
     }
 
     // Get user statistics
     @GetMapping("/stats")
-    public ResponseEntity<EventService.EventStats> getUserStats(Authentication auth) {
-        User user = getUserFromAuth(auth);
-        EventService.EventStats stats = eventService.getUserStats(user.getId());
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<EventService.EventStats> getUserStats(@CurrentUser Long userId, WebRequest webRequest) {
+        String etag = userVersionService.statsETag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        EventService.EventStats stats = eventService.getUserStats(userId);
+        return ResponseEntity.ok().eTag(etag).body(stats);
+    }
+
+    // Export the whole calendar as NDJSON or iCalendar, streamed row by row
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if ("ics".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"kalender.ics\"")
+                    .body(out -> eventExportService.exportICalendar(userId, out));
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"kalender.ndjson\"")
+                    .body(out -> eventExportService.exportNdjson(userId, out));
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+    }
+
+    // Import an .ics file. Parsed as a stream and written in batched chunks
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<EventImportService.ImportResult> importEvents(
+            @CurrentUser Long userId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(eventImportService.importICalendar(userId, reader));
+        }
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > EventBatchService.MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch must contain 1-" + EventBatchService.MAX_BATCH_SIZE + " events");
+        }
+    }
+
+    // Helper methods for keyset paging
+    private int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private EventCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return EventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
 
-    // Helper method to get user from authentication
-    private User getUserFromAuth(Authentication auth) {
-        String username = auth.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private SyncToken parseSyncToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return SyncToken.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token");
+        }
     }
 }
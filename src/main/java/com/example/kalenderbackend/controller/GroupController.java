@@ -0,0 +1,137 @@
+package com.example.kalenderbackend.controller;
+
+import com.example.kalenderbackend.dto.AddGroupMemberRequest;
+import com.example.kalenderbackend.dto.CreateGroupRequest;
+import com.example.kalenderbackend.dto.EventPage;
+import com.example.kalenderbackend.dto.GroupDTO;
+import com.example.kalenderbackend.dto.GroupMemberDTO;
+import com.example.kalenderbackend.dto.GroupSharingRequest;
+import com.example.kalenderbackend.security.CurrentUser;
+import com.example.kalenderbackend.service.GroupCalendarService;
+import com.example.kalenderbackend.util.EventCursor;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/groups")
+@CrossOrigin(origins = "http://localhost:3000")
+public class GroupController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    @Autowired
+    private GroupCalendarService groupCalendarService;
+
+    // Groups the current user is a member of
+    @GetMapping
+    public ResponseEntity<List<GroupDTO>> getGroups(@CurrentUser Long userId) {
+        return ResponseEntity.ok(groupCalendarService.getGroups(userId));
+    }
+
+    @PostMapping
+    public ResponseEntity<GroupDTO> createGroup(
+            @CurrentUser Long userId,
+            @Valid @RequestBody CreateGroupRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(groupCalendarService.createGroup(userId, request.getName()));
+    }
+
+    @GetMapping("/{groupId}/members")
+    public ResponseEntity<List<GroupMemberDTO>> getMembers(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId) {
+        return ResponseEntity.ok(groupCalendarService.getMembers(groupId, userId));
+    }
+
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<GroupMemberDTO> addMember(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId,
+            @Valid @RequestBody AddGroupMemberRequest request) {
+        try {
+            GroupMemberDTO member = groupCalendarService.addMember(
+                    groupId, userId, request.getUsername(), request.getRole());
+            return ResponseEntity.status(HttpStatus.CREATED).body(member);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{groupId}/members/{memberUserId}")
+    public ResponseEntity<Void> removeMember(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId,
+            @PathVariable Long memberUserId) {
+        try {
+            groupCalendarService.removeMember(groupId, userId, memberUserId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // What the current user shares with this group: DETAILS, FREE_BUSY or NONE
+    @PutMapping("/{groupId}/sharing")
+    public ResponseEntity<GroupDTO> updateSharing(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId,
+            @Valid @RequestBody GroupSharingRequest request) {
+        return ResponseEntity.ok(groupCalendarService.updateSharing(groupId, userId, request.getSharing()));
+    }
+
+    // Accept a pending invitation, choosing what to share: DETAILS, FREE_BUSY or NONE
+    @PutMapping("/{groupId}/invitation")
+    public ResponseEntity<GroupDTO> acceptInvitation(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId,
+            @Valid @RequestBody GroupSharingRequest request) {
+        return ResponseEntity.ok(groupCalendarService.acceptInvitation(groupId, userId, request.getSharing()));
+    }
+
+    @DeleteMapping("/{groupId}/invitation")
+    public ResponseEntity<Void> declineInvitation(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId) {
+        groupCalendarService.declineInvitation(groupId, userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Merged timeline of all sharing members in [from, to), one keyset page at a time
+    @GetMapping("/{groupId}/events")
+    public ResponseEntity<EventPage> getGroupEvents(
+            @CurrentUser Long userId,
+            @PathVariable Long groupId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (!to.isAfter(from) || Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Window must be positive and at most a year");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(groupCalendarService.getGroupEvents(
+                groupId, userId, from, to, parseCursor(cursor), pageSize));
+    }
+
+    private EventCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return EventCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
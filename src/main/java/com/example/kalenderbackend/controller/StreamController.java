@@ -0,0 +1,24 @@
+package com.example.kalenderbackend.controller;
+
+import com.example.kalenderbackend.security.CurrentUser;
+import com.example.kalenderbackend.service.ChangeStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "http://localhost:3000")
+public class StreamController {
+
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    // Push channel for event and achievement changes (Server-Sent Events), instead of polling.
+    // After a reconnect, call /api/events/changes for anything sent while disconnected
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@CurrentUser Long userId) {
+        return changeStreamService.connect(userId);
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.kalenderbackend.controller;
 
 import com.example.kalenderbackend.entity.User;
-import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.security.CurrentUser;
 import com.example.kalenderbackend.service.UserService;
+import com.example.kalenderbackend.service.UserVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Map;
 
@@ -19,30 +20,31 @@ public class UserController {
     private UserService userService;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserVersionService userVersionService;
 
-    // Get current user profile
+    // Get current user profile. The user row is only loaded when the client's ETag is stale
     @GetMapping("/me")
-    public ResponseEntity<UserProfileDTO> getCurrentUser(Authentication auth) {
-        User user = getUserFromAuth(auth);
-        return ResponseEntity.ok(mapToProfileDTO(user));
+    public ResponseEntity<UserProfileDTO> getCurrentUser(@CurrentUser Long userId, WebRequest webRequest) {
+        String etag = userVersionService.profileETag(userId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        User user = userService.getUserById(userId);
+        return ResponseEntity.ok().eTag(etag).body(mapToProfileDTO(user));
     }
 
     // Get user statistics
     @GetMapping("/me/stats")
-    public ResponseEntity<UserService.UserStats> getUserStats(Authentication auth) {
-        User user = getUserFromAuth(auth);
-        UserService.UserStats stats = userService.getUserStats(user.getId());
+    public ResponseEntity<UserService.UserStats> getUserStats(@CurrentUser Long userId) {
+        UserService.UserStats stats = userService.getUserStats(userId);
         return ResponseEntity.ok(stats);
     }
 
     // Get XP progress
     @GetMapping("/me/progress")
-    public ResponseEntity<XPProgress> getXPProgress(Authentication auth) {
-        User user = getUserFromAuth(auth);
-
+    public ResponseEntity<XPProgress> getXPProgress(@CurrentUser User user) {
         XPProgress progress = new XPProgress();
-        progress.setCurrentXP(user.getExperiencePoints());
+        progress.setCurrentXP(user.getTotalXP());
         progress.setCurrentLevel(user.getLevel());
         progress.setXpForNextLevel(userService.getXPForNextLevel(user.getId()));
         progress.setLevelProgress(userService.getLevelProgress(user.getId()));
@@ -55,12 +57,10 @@ public class UserController {
     // Update profile
     @PutMapping("/me")
     public ResponseEntity<UserProfileDTO> updateProfile(
-            Authentication auth,
+            @CurrentUser Long userId,
             @RequestBody UpdateProfileRequest request) {
-        User user = getUserFromAuth(auth);
-
         User updatedUser = userService.updateUserProfile(
-                user.getId(),
+                userId,
                 request.getFirstName(),
                 request.getLastName(),
                 request.getEmail()
@@ -71,9 +71,7 @@ public class UserController {
 
     // Get streak info
     @GetMapping("/me/streak")
-    public ResponseEntity<StreakInfo> getStreakInfo(Authentication auth) {
-        User user = getUserFromAuth(auth);
-
+    public ResponseEntity<StreakInfo> getStreakInfo(@CurrentUser User user) {
         StreakInfo streak = new StreakInfo();
         streak.setCurrentStreak(user.getStreak());
         streak.setLongestStreak(user.getLongestStreak());
@@ -83,12 +81,6 @@ public class UserController {
     }
 
     // Helper methods
-    private User getUserFromAuth(Authentication auth) {
-        String username = auth.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-    }
-
     private UserProfileDTO mapToProfileDTO(User user) {
         UserProfileDTO dto = new UserProfileDTO();
         dto.setId(user.getId());
@@ -97,10 +89,10 @@ public class UserController {
         dto.setFirstName(user.getFirstName());
         dto.setLastName(user.getLastName());
         dto.setLevel(user.getLevel());
-        dto.setExperiencePoints(user.getExperiencePoints());
+        dto.setExperiencePoints(user.getTotalXP());
         dto.setStreak(user.getStreak());
-        dto.setTotalEventsCompleted(user.getTotalEventsCompleted());
-        dto.setChallengesCompleted(user.getChallengesCompleted());
+        dto.setTotalEventsCompleted(user.getEventsCompleted());
+        dto.setChallengesCompleted(user.getAchievementsUnlocked());
         return dto;
     }
 
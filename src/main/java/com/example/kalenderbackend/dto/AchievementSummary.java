@@ -0,0 +1,10 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.entity.Achievement;
+
+import java.time.LocalDateTime;
+
+// Read-only view of an achievement row, projected without touching the owning user
+public record AchievementSummary(Long id, Achievement.AchievementType type, String title, String description,
+                                 int rewardXP, boolean unlocked, LocalDateTime unlockedAt) {
+}
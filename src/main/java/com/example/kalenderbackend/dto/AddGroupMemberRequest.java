@@ -0,0 +1,17 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class AddGroupMemberRequest {
+
+    @NotBlank(message = "Username is required")
+    private String username;
+
+    // OWNER can't be granted, there is one owner per group
+    private CalendarGroupMember.Role role = CalendarGroupMember.Role.MEMBER;
+}
@@ -0,0 +1,17 @@
+package com.example.kalenderbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    // Position in the request list
+    private int index;
+    // CREATED, UPDATED, INVALID, NOT_FOUND or SKIPPED (valid, but batch was rejected)
+    private String status;
+    private String error;
+    private EventDTO event;
+}
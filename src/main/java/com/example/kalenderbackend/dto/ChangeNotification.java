@@ -0,0 +1,33 @@
+package com.example.kalenderbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+// Pushed on /api/stream. Carries ids, not the changed data: clients refetch, or call
+// /api/events/changes, which also covers anything missed while disconnected.
+// version is the owner's events_version the change was written with
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeNotification(String type, Long eventId, LocalDateTime occurrenceStart, Long version,
+                                 AchievementSummary achievement) {
+
+    public static final String EVENT_CREATED = "event.created";
+    public static final String EVENT_UPDATED = "event.updated";
+    public static final String EVENT_COMPLETED = "event.completed";
+    public static final String EVENT_DELETED = "event.deleted";
+    public static final String OCCURRENCE_COMPLETED = "occurrence.completed";
+    public static final String OCCURRENCE_CANCELLED = "occurrence.cancelled";
+    public static final String ACHIEVEMENT_UNLOCKED = "achievement.unlocked";
+
+    public static ChangeNotification event(String type, Long eventId, long version) {
+        return new ChangeNotification(type, eventId, null, version, null);
+    }
+
+    public static ChangeNotification occurrence(String type, Long eventId, LocalDateTime occurrenceStart, long version) {
+        return new ChangeNotification(type, eventId, occurrenceStart, version, null);
+    }
+
+    public static ChangeNotification achievement(AchievementSummary achievement) {
+        return new ChangeNotification(ACHIEVEMENT_UNLOCKED, null, null, null, achievement);
+    }
+}
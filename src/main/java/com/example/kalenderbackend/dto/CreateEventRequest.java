@@ -1,5 +1,8 @@
 package com.example.kalenderbackend.dto;
 
+import com.example.kalenderbackend.util.RecurrenceRule;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
@@ -23,6 +26,7 @@ public class CreateEventRequest {
     private Integer xpReward;
     private Boolean reminder = true;
     private Integer reminderMinutes = 15;
+    private String recurrencePattern; // RRULE subset, null for a single event
 
     // Constructors
     public CreateEventRequest() {}
@@ -57,4 +61,13 @@ public class CreateEventRequest {
 
     public Integer getReminderMinutes() { return reminderMinutes; }
     public void setReminderMinutes(Integer reminderMinutes) { this.reminderMinutes = reminderMinutes; }
+
+    public String getRecurrencePattern() { return recurrencePattern; }
+    public void setRecurrencePattern(String recurrencePattern) { this.recurrencePattern = recurrencePattern; }
+
+    @JsonIgnore
+    @AssertTrue(message = "Unsupported recurrence pattern")
+    public boolean isRecurrencePatternValid() {
+        return recurrencePattern == null || recurrencePattern.isBlank() || RecurrenceRule.isValid(recurrencePattern);
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.kalenderbackend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CreateGroupRequest {
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name is too long")
+    private String name;
+}
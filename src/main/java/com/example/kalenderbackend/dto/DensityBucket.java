@@ -0,0 +1,7 @@
+package com.example.kalenderbackend.dto;
+
+import java.time.LocalDate;
+
+// Event counts of one day or week (start = the day, or the Monday of the week)
+public record DensityBucket(LocalDate start, long events, long completed) {
+}
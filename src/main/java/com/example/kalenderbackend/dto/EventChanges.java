@@ -0,0 +1,23 @@
+package com.example.kalenderbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventChanges {
+    // Created or updated since the token, in change order (an event appears once, at its last write)
+    private List<EventDTO> changed;
+    // Ids of events deleted since the token
+    private List<Long> deleted;
+    // Pass back as ?since= for the next page or the next sync; null when resetRequired
+    private String nextToken;
+    private boolean hasMore;
+    // The token is older than the kept tombstones (or not from this calendar): drop local
+    // events and sync again without ?since=
+    private boolean resetRequired;
+}
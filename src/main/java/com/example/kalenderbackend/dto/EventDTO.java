@@ -15,6 +15,8 @@ public class EventDTO {
     private Integer xpReward;
     private Boolean reminder;
     private Integer reminderMinutes;
+    private boolean recurring;
+    private String recurrencePattern;
     private Long userId;
     private String userName;
     private LocalDateTime createdAt;
@@ -47,6 +49,18 @@ public class EventDTO {
         this.updatedAt = updatedAt;
     }
 
+    // Projection constructor, used by the JPQL "SELECT new EventDTO(...)" queries in EventRepository
+    public EventDTO(Long id, String title, String description, LocalDateTime startTime,
+                    LocalDateTime endTime, String location, String category, String color,
+                    Boolean completed, Integer xpReward, Boolean reminder,
+                    Integer reminderMinutes, boolean recurring, String recurrencePattern,
+                    Long userId, String userName, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, description, startTime, endTime, location, category, color, completed, xpReward,
+                reminder, reminderMinutes, userId, userName, createdAt, updatedAt);
+        this.recurring = recurring;
+        this.recurrencePattern = recurrencePattern;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -84,6 +98,12 @@ public class EventDTO {
     public Integer getReminderMinutes() { return reminderMinutes; }
     public void setReminderMinutes(Integer reminderMinutes) { this.reminderMinutes = reminderMinutes; }
 
+    public boolean isRecurring() { return recurring; }
+    public void setRecurring(boolean recurring) { this.recurring = recurring; }
+
+    public String getRecurrencePattern() { return recurrencePattern; }
+    public void setRecurrencePattern(String recurrencePattern) { this.recurrencePattern = recurrencePattern; }
+
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
 
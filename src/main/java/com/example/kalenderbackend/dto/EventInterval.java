@@ -0,0 +1,10 @@
+package com.example.kalenderbackend.dto;
+
+import java.time.LocalDateTime;
+
+// Just enough of an event to place it on a timeline. For an occurrence of a recurring
+// event, startTime/endTime are the occurrence's and recurrencePattern is the series rule.
+// recurrenceEnd is the start of the series' last occurrence (null = open-ended or not recurring).
+public record EventInterval(Long id, String title, LocalDateTime startTime, LocalDateTime endTime,
+                            boolean recurring, String recurrencePattern, LocalDateTime recurrenceEnd) {
+}
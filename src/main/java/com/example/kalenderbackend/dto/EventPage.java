@@ -0,0 +1,17 @@
+package com.example.kalenderbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventPage {
+    private List<EventDTO> events;
+    // Pass back as ?cursor= to get the next page, null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,118 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.util.RecurrenceRule;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+// Body of PATCH /api/events/{id} (JSON Merge Patch, RFC 7396): a member that is absent leaves the
+// field alone, null clears it, any other value replaces it. Jackson only calls the setters of
+// members that are present, so the setters record which ones were sent.
+public class EventPatch {
+
+    public static final String TITLE = "title";
+    public static final String DESCRIPTION = "description";
+    public static final String START_TIME = "startTime";
+    public static final String END_TIME = "endTime";
+    public static final String LOCATION = "location";
+    public static final String CATEGORY = "category";
+    public static final String COLOR = "color";
+    public static final String XP_REWARD = "xpReward";
+    public static final String REMINDER = "reminder";
+    public static final String REMINDER_MINUTES = "reminderMinutes";
+    public static final String RECURRENCE_PATTERN = "recurrencePattern";
+
+    private final Set<String> present = new HashSet<>();
+
+    private String title;
+    private String description;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String location;
+    private String category;
+    private String color;
+    private Integer xpReward;
+    private Boolean reminder;
+    private Integer reminderMinutes;
+    private String recurrencePattern;
+
+    public EventPatch() {}
+
+    public boolean has(String field) { return present.contains(field); }
+
+    @JsonIgnore
+    public boolean isEmpty() { return present.isEmpty(); }
+
+    // Only the times: drag-to-reschedule in the UI
+    @JsonIgnore
+    public boolean isReschedule() {
+        return present.size() == 2 && has(START_TIME) && has(END_TIME);
+    }
+
+    // Getters and Setters
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; present.add(TITLE); }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; present.add(DESCRIPTION); }
+
+    public LocalDateTime getStartTime() { return startTime; }
+    public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; present.add(START_TIME); }
+
+    public LocalDateTime getEndTime() { return endTime; }
+    public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; present.add(END_TIME); }
+
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; present.add(LOCATION); }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; present.add(CATEGORY); }
+
+    public String getColor() { return color; }
+    public void setColor(String color) { this.color = color; present.add(COLOR); }
+
+    public Integer getXpReward() { return xpReward; }
+    public void setXpReward(Integer xpReward) { this.xpReward = xpReward; present.add(XP_REWARD); }
+
+    public Boolean getReminder() { return reminder; }
+    public void setReminder(Boolean reminder) { this.reminder = reminder; present.add(REMINDER); }
+
+    public Integer getReminderMinutes() { return reminderMinutes; }
+    public void setReminderMinutes(Integer reminderMinutes) { this.reminderMinutes = reminderMinutes; present.add(REMINDER_MINUTES); }
+
+    public String getRecurrencePattern() { return recurrencePattern; }
+    public void setRecurrencePattern(String recurrencePattern) { this.recurrencePattern = recurrencePattern; present.add(RECURRENCE_PATTERN); }
+
+    // Required fields may be replaced but not removed
+    @JsonIgnore
+    @AssertTrue(message = "Title is required")
+    public boolean isTitleValid() {
+        return !has(TITLE) || (title != null && !title.isBlank());
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Start time is required")
+    public boolean isStartTimeValid() {
+        return !has(START_TIME) || startTime != null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "End time is required")
+    public boolean isEndTimeValid() {
+        return !has(END_TIME) || endTime != null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Reminder must not be null")
+    public boolean isReminderValid() {
+        return !has(REMINDER) || reminder != null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Unsupported recurrence pattern")
+    public boolean isRecurrencePatternValid() {
+        return recurrencePattern == null || recurrencePattern.isBlank() || RecurrenceRule.isValid(recurrencePattern);
+    }
+}
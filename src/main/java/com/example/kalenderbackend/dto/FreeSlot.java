@@ -0,0 +1,6 @@
+package com.example.kalenderbackend.dto;
+
+import java.time.LocalDateTime;
+
+public record FreeSlot(LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,38 @@
+package com.example.kalenderbackend.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class FreeSlotRequest {
+
+    // Other participants; the caller is always included
+    private List<String> usernames = new ArrayList<>();
+
+    @NotNull(message = "From is required")
+    private LocalDateTime from;
+
+    @NotNull(message = "To is required")
+    private LocalDateTime to;
+
+    @Min(value = 1, message = "Duration must be at least one minute")
+    @Max(value = 1440, message = "Duration must be at most one day")
+    private int durationMinutes = 30;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private int limit = 5;
+
+    // Optional working hours, e.g. 09:00 - 17:00 on every day
+    private LocalTime dayStart;
+    private LocalTime dayEnd;
+}
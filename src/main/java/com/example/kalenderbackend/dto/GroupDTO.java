@@ -0,0 +1,21 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A group as seen by one member (role, status and sharing are the caller's)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupDTO {
+    private Long id;
+    private String name;
+    private CalendarGroupMember.Role role;
+    private CalendarGroupMember.Status status;
+    private CalendarGroupMember.Sharing sharing;
+    private LocalDateTime createdAt;
+}
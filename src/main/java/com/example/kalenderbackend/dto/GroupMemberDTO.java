@@ -0,0 +1,17 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupMemberDTO {
+    private Long userId;
+    private String username;
+    private CalendarGroupMember.Role role;
+    private CalendarGroupMember.Status status;
+    private CalendarGroupMember.Sharing sharing;
+}
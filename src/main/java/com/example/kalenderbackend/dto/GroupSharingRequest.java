@@ -0,0 +1,14 @@
+package com.example.kalenderbackend.dto;
+
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class GroupSharingRequest {
+
+    @NotNull(message = "Sharing is required")
+    private CalendarGroupMember.Sharing sharing;
+}
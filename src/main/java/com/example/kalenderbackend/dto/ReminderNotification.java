@@ -0,0 +1,10 @@
+package com.example.kalenderbackend.dto;
+
+import java.time.LocalDateTime;
+
+// What a reminder sink gets. For an occurrence of a recurring event startTime/endTime are the
+// occurrence's; (eventId, startTime) identifies the reminder.
+public record ReminderNotification(Long eventId, String title, String location,
+                                   LocalDateTime startTime, LocalDateTime endTime, LocalDateTime remindAt,
+                                   Long userId, String username, String email) {
+}
@@ -0,0 +1,15 @@
+package com.example.kalenderbackend.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+// One entry of PUT /api/events/batch: the event id plus the full set of fields
+public class UpdateEventBatchItem extends CreateEventRequest {
+
+    @NotNull(message = "Event id is required")
+    private Long id;
+
+    public UpdateEventBatchItem() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+}
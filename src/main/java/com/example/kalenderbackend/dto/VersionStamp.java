@@ -0,0 +1,8 @@
+package com.example.kalenderbackend.dto;
+
+import java.time.LocalDateTime;
+
+// A user's version stamps: events_version for their events, updatedAt for the user row.
+// tombstoneFloor is the highest version of a compacted-away tombstone (see EventSyncService)
+public record VersionStamp(long eventsVersion, long tombstoneFloor, LocalDateTime updatedAt) {
+}
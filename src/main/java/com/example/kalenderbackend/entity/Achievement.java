@@ -5,14 +5,15 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "achievements")
+@Table(name = "achievements",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "achievement_type"}))
 @Data
 public class Achievement {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -25,7 +26,8 @@ public class Achievement {
     @Column(nullable = false)
     private AchievementType achievementType;
 
-    @Column(nullable = false)
+    // Explicit: the naming strategy would map "rewardXP" to rewardxp, V1 has reward_xp
+    @Column(name = "reward_xp", nullable = false)
     private int rewardXP;
 
     @Column(nullable = false)
@@ -0,0 +1,64 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "calendar_group_members",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "user_id"}))
+@Data
+public class CalendarGroupMember {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private CalendarGroup group;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // OWNER and ADMIN can manage members
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role = Role.MEMBER;
+
+    // Added members are invited; they only see the group once they accept
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.INVITED;
+
+    // What this member shows the rest of the group, chosen by the member (nothing until then)
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Sharing sharing = Sharing.NONE;
+
+    @Column(nullable = false)
+    private LocalDateTime joinedAt = LocalDateTime.now();
+
+    public boolean canManageMembers() {
+        return role == Role.OWNER || role == Role.ADMIN;
+    }
+
+    public boolean isActive() {
+        return status == Status.ACTIVE;
+    }
+
+    public enum Role {
+        OWNER, ADMIN, MEMBER
+    }
+
+    public enum Status {
+        INVITED, // added by an owner/admin, waiting for the user to accept
+        ACTIVE
+    }
+
+    public enum Sharing {
+        DETAILS,   // full events
+        FREE_BUSY, // only times, shown as "Busy"
+        NONE       // nothing, the member only reads the group calendar
+    }
+}
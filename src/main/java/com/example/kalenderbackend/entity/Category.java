@@ -0,0 +1,33 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Dictionary entry for event categories; events store the id. user_id NULL = global default.
+// Rows are never changed once written, CategoryService caches them without invalidation
+@Entity
+@Table(name = "categories",
+        uniqueConstraints = @UniqueConstraint(name = "uk_categories_user_name", columnNames = {"user_id", "name_key"}))
+@Data
+public class Category {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Lowercased name, what lookups match on
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+
+    // Default color of the category's events
+    private String color;
+
+    // Extra XP for completing an event of this category
+    @Column(name = "xp_bonus", nullable = false)
+    private int xpBonus;
+}
@@ -1,13 +1,20 @@
 package com.example.kalenderbackend.entity;
 
+import com.example.kalenderbackend.util.RecurrenceRule;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "events")
+// UPDATEs only list the changed columns, so a partial update doesn't rewrite the description
+@DynamicUpdate
 public class Event {
+    // Pooled sequence (not IDENTITY) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_seq")
+    @SequenceGenerator(name = "events_seq", sequenceName = "events_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -24,9 +31,11 @@ public class Event {
 
     private String location;
 
-    private String category; // "Work", "Personal", "Fitness", etc
+    // Id in the categories dictionary ("Work", "Personal", "Fitness", etc), see CategoryService
+    @Column(name = "category_id")
+    private Integer categoryId;
 
-    private String color; // Hex color for UI
+    private String color; // Hex color for UI, null = the category's color
 
     @Column(nullable = false)
     private Boolean completed = false;
@@ -38,6 +47,25 @@ public class Event {
 
     private Integer reminderMinutes = 15; // Minutes before event
 
+    // A recurring event is the master of a series; occurrences are expanded on read
+    @Column(nullable = false)
+    private boolean recurring = false;
+
+    private String recurrencePattern; // RRULE, e.g. "FREQ=WEEKLY;BYDAY=MO,WE"
+
+    // Start of the last occurrence (null = open-ended), kept so range reads can skip ended series
+    @Column(name = "recurrence_end")
+    private LocalDateTime recurrenceEnd;
+
+    // When the reminder of a single, open event is due (null = nothing to remind); the
+    // reminder scheduler reads due reminders by range on this column. Series are expanded instead
+    @Column(name = "remind_at")
+    private LocalDateTime remindAt;
+
+    // The owner's events_version of the last write (delta sync reads changes by range on this)
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -52,11 +80,29 @@ public class Event {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        updateRecurrenceEnd();
+        updateRemindAt();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateRecurrenceEnd();
+        updateRemindAt();
+    }
+
+    private void updateRecurrenceEnd() {
+        recurrenceEnd = recurring && recurrencePattern != null
+                ? RecurrenceRule.parse(recurrencePattern).seriesEnd(startTime)
+                : null;
+    }
+
+    // Whole seconds, so the value in memory is exactly what the column holds
+    private void updateRemindAt() {
+        remindAt = !recurring && Boolean.TRUE.equals(reminder) && !Boolean.TRUE.equals(completed)
+                && reminderMinutes != null
+                ? startTime.minusMinutes(reminderMinutes).truncatedTo(ChronoUnit.SECONDS)
+                : null;
     }
 
     // Constructors
@@ -88,8 +134,8 @@ public class Event {
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
 
-    public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public Integer getCategoryId() { return categoryId; }
+    public void setCategoryId(Integer categoryId) { this.categoryId = categoryId; }
 
     public String getColor() { return color; }
     public void setColor(String color) { this.color = color; }
@@ -106,6 +152,19 @@ public class Event {
     public Integer getReminderMinutes() { return reminderMinutes; }
     public void setReminderMinutes(Integer reminderMinutes) { this.reminderMinutes = reminderMinutes; }
 
+    public boolean isRecurring() { return recurring; }
+    public void setRecurring(boolean recurring) { this.recurring = recurring; }
+
+    public String getRecurrencePattern() { return recurrencePattern; }
+    public void setRecurrencePattern(String recurrencePattern) { this.recurrencePattern = recurrencePattern; }
+
+    public LocalDateTime getRecurrenceEnd() { return recurrenceEnd; }
+
+    public LocalDateTime getRemindAt() { return remindAt; }
+
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
 
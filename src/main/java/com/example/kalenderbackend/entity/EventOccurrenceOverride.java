@@ -0,0 +1,35 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Per-occurrence state of a recurring event: a cancelled occurrence (exception)
+// or a completed one. Occurrences without a row are plain expansions of the rule.
+@Entity
+@Table(name = "event_occurrence_overrides",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "occurrence_start"}))
+@Data
+public class EventOccurrenceOverride {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private Event event;
+
+    // Start of the occurrence as generated by the rule, identifies it within the series
+    @Column(name = "occurrence_start", nullable = false)
+    private LocalDateTime occurrenceStart;
+
+    @Column(nullable = false)
+    private boolean cancelled = false;
+
+    @Column(nullable = false)
+    private boolean completed = false;
+
+    private LocalDateTime completedAt;
+
+    private Integer xpReward;
+}
@@ -0,0 +1,29 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// What is left of a deleted event, so delta sync clients learn about the delete.
+// Old tombstones are compacted away (see EventSyncService)
+@Entity
+@Table(name = "event_tombstones", indexes = {
+        @Index(name = "idx_event_tombstones_user_change", columnList = "user_id, change_version, event_id"),
+        @Index(name = "idx_event_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+public class EventTombstone {
+    // Event ids come from a sequence and are never reused
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_version", nullable = false)
+    private long changeVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
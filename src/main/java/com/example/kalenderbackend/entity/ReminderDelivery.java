@@ -0,0 +1,52 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// A reminder that has been claimed for sending. The row is inserted (claimed) before the sink
+// is called and (event_id, occurrence_start) is unique, so only one sender has it at a time.
+// A FAILED row, or a CLAIMED one whose sender died, is claimed again by an atomic update.
+@Entity
+@Table(name = "reminder_deliveries",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"event_id", "occurrence_start"}),
+        indexes = @Index(name = "idx_reminder_deliveries_claimed", columnList = "claimed_at"))
+@Data
+public class ReminderDelivery {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column, deliveries are written and read without touching the event
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    // Start of the (occurrence of the) event the reminder was for
+    @Column(name = "occurrence_start", nullable = false)
+    private LocalDateTime occurrenceStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+
+    // When the reminder was due, retries stop once it is further back than the grace period
+    @Column(name = "remind_at")
+    private LocalDateTime remindAt;
+
+    // Sends started, including the first
+    @Column(nullable = false)
+    private int attempts = 1;
+
+    private LocalDateTime finishedAt;
+
+    private String error;
+
+    public enum Status {
+        CLAIMED,    // Taken, sink not done yet (or the process died while sending, then retried)
+        SENT,
+        FAILED      // Retried within the grace period, up to reminders.max-attempts
+    }
+}
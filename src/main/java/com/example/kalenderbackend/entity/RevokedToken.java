@@ -0,0 +1,25 @@
+package com.example.kalenderbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // jti claim of the revoked token
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenId;
+
+    // Row can be compacted away once the token would have expired anyway
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt = LocalDateTime.now();
+}
@@ -15,25 +15,42 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
-    @Column(nullable = false)
+    @Column(unique = true, nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
+    private String firstName;
+    private String lastName;
+
     private Integer level = 1;
     private Integer xp = 0;
     private Integer streak = 0;
     private Integer achievementsUnlocked = 0;
+    // Explicit: the naming strategy would map "totalXP" to totalxp, V1 has total_xp
+    @Column(name = "total_xp")
     private Integer totalXP = 0;
     private Integer eventsCompleted = 0;
     private LocalDateTime lastEventDate;
     private Integer currentStreakDays = 0;
     private LocalDateTime streakStartDate;
+    private Integer longestStreak = 0;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Only ever bumped by UserRepository.incrementEventsVersion, never written from the entity
+    @Column(name = "events_version", insertable = false, updatable = false)
+    private long eventsVersion;
+
+    // Only written by tombstone compaction (UserRepository.raiseTombstoneFloors)
+    @Column(name = "tombstone_floor", insertable = false, updatable = false)
+    private long tombstoneFloor;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Event> events = new ArrayList<>();
 
@@ -53,6 +70,12 @@ public class User {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
     public Integer getLevel() { return level; }
     public void setLevel(Integer level) { this.level = level; }
 
@@ -80,9 +103,24 @@ public class User {
     public LocalDateTime getStreakStartDate() { return streakStartDate; }
     public void setStreakStartDate(LocalDateTime streakStartDate) { this.streakStartDate = streakStartDate; }
 
+    public Integer getLongestStreak() { return longestStreak; }
+    public void setLongestStreak(Integer longestStreak) { this.longestStreak = longestStreak; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public long getEventsVersion() { return eventsVersion; }
+
+    public long getTombstoneFloor() { return tombstoneFloor; }
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public List<Event> getEvents() { return events; }
     public void setEvents(List<Event> events) { this.events = events; }
 
@@ -2,8 +2,13 @@ package com.example.kalenderbackend.mapper;
 
 import com.example.kalenderbackend.dto.CreateEventRequest;
 import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventPage;
+import com.example.kalenderbackend.dto.EventPatch;
 import com.example.kalenderbackend.entity.Event;
 import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.service.CategoryService;
+import com.example.kalenderbackend.util.EventCursor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -12,12 +17,21 @@ import java.util.stream.Collectors;
 @Component
 public class EventMapper {
 
+    @Autowired
+    private CategoryService categoryService;
+
     // Convert Event entity to EventDTO
     public EventDTO toDTO(Event event) {
         if (event == null) {
             return null;
         }
+        User user = event.getUser();
+        return user != null ? toDTO(event, user.getId(), user.getUsername()) : toDTO(event, null, null);
+    }
 
+    // For events whose owner is only a reference: the caller passes the owner's id and username,
+    // so the reference is never initialized
+    public EventDTO toDTO(Event event, Long userId, String userName) {
         EventDTO dto = new EventDTO();
         dto.setId(event.getId());
         dto.setTitle(event.getTitle());
@@ -25,17 +39,17 @@ public class EventMapper {
         dto.setStartTime(event.getStartTime());
         dto.setEndTime(event.getEndTime());
         dto.setLocation(event.getLocation());
-        dto.setCategory(event.getCategory());
-        dto.setColor(event.getColor());
+        dto.setCategory(categoryService.name(event.getCategoryId()));
+        dto.setColor(categoryService.color(event.getCategoryId(), event.getColor()));
         dto.setCompleted(event.getCompleted());
         dto.setXpReward(event.getXpReward());
         dto.setReminder(event.getReminder());
         dto.setReminderMinutes(event.getReminderMinutes());
+        dto.setRecurring(event.isRecurring());
+        dto.setRecurrencePattern(event.getRecurrencePattern());
 
-        if (event.getUser() != null) {
-            dto.setUserId(event.getUser().getId());
-            dto.setUserName(event.getUser().getUsername());
-        }
+        dto.setUserId(userId);
+        dto.setUserName(userName);
 
         dto.setCreatedAt(event.getCreatedAt());
         dto.setUpdatedAt(event.getUpdatedAt());
@@ -50,6 +64,25 @@ public class EventMapper {
                 .collect(Collectors.toList());
     }
 
+    // Build a keyset page from up to limit + 1 rows ordered by (startTime, id)
+    public EventPage toPage(List<Event> rows, int limit) {
+        return toDTOPage(toDTOList(rows), limit);
+    }
+
+    // Same for rows that were projected straight into DTOs
+    public EventPage toDTOPage(List<EventDTO> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<EventDTO> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            EventDTO last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new EventCursor(last.getStartTime(), last.getId()).encode();
+        }
+
+        return new EventPage(pageRows, nextCursor, hasMore);
+    }
+
     // Convert CreateEventRequest to Event entity
     public Event toEntity(CreateEventRequest request, User user) {
         if (request == null) {
@@ -62,11 +95,11 @@ public class EventMapper {
         event.setStartTime(request.getStartTime());
         event.setEndTime(request.getEndTime());
         event.setLocation(request.getLocation());
-        event.setCategory(request.getCategory());
-        event.setColor(request.getColor());
+        setCategory(event, user.getId(), request);
         event.setXpReward(request.getXpReward());
         event.setReminder(request.getReminder());
         event.setReminderMinutes(request.getReminderMinutes());
+        setRecurrence(event, request.getRecurrencePattern());
         event.setUser(user);
         event.setCompleted(false);
 
@@ -80,10 +113,63 @@ public class EventMapper {
         event.setStartTime(request.getStartTime());
         event.setEndTime(request.getEndTime());
         event.setLocation(request.getLocation());
-        event.setCategory(request.getCategory());
-        event.setColor(request.getColor());
+        setCategory(event, event.getUser().getId(), request);
         event.setXpReward(request.getXpReward());
         event.setReminder(request.getReminder());
         event.setReminderMinutes(request.getReminderMinutes());
+        setRecurrence(event, request.getRecurrencePattern());
+    }
+
+    // Apply the fields present in a merge patch; setting an unchanged value leaves the column out of
+    // the UPDATE (Event is @DynamicUpdate)
+    public void applyPatch(Event event, EventPatch patch) {
+        if (patch.has(EventPatch.TITLE)) {
+            event.setTitle(patch.getTitle());
+        }
+        if (patch.has(EventPatch.DESCRIPTION)) {
+            event.setDescription(patch.getDescription());
+        }
+        if (patch.has(EventPatch.START_TIME)) {
+            event.setStartTime(patch.getStartTime());
+        }
+        if (patch.has(EventPatch.END_TIME)) {
+            event.setEndTime(patch.getEndTime());
+        }
+        if (patch.has(EventPatch.LOCATION)) {
+            event.setLocation(patch.getLocation());
+        }
+        if (patch.has(EventPatch.CATEGORY)) {
+            event.setCategoryId(categoryService.resolve(event.getUser().getId(), patch.getCategory()));
+        }
+        // A new category with no color sent keeps an own color; one equal to the category's is dropped
+        if (patch.has(EventPatch.CATEGORY) || patch.has(EventPatch.COLOR)) {
+            String color = patch.has(EventPatch.COLOR) ? patch.getColor() : event.getColor();
+            event.setColor(categoryService.ownColor(event.getCategoryId(), color));
+        }
+        if (patch.has(EventPatch.XP_REWARD)) {
+            event.setXpReward(patch.getXpReward());
+        }
+        if (patch.has(EventPatch.REMINDER)) {
+            event.setReminder(patch.getReminder());
+        }
+        if (patch.has(EventPatch.REMINDER_MINUTES)) {
+            event.setReminderMinutes(patch.getReminderMinutes());
+        }
+        if (patch.has(EventPatch.RECURRENCE_PATTERN)) {
+            setRecurrence(event, patch.getRecurrencePattern());
+        }
+    }
+
+    // Category name -> dictionary id; the color is only stored when it isn't the category's
+    private void setCategory(Event event, Long userId, CreateEventRequest request) {
+        Integer categoryId = categoryService.resolve(userId, request.getCategory());
+        event.setCategoryId(categoryId);
+        event.setColor(categoryService.ownColor(categoryId, request.getColor()));
+    }
+
+    private void setRecurrence(Event event, String pattern) {
+        boolean recurring = pattern != null && !pattern.isBlank();
+        event.setRecurring(recurring);
+        event.setRecurrencePattern(recurring ? pattern.trim() : null);
     }
 }
@@ -1,7 +1,11 @@
 package com.example.kalenderbackend.repository;
 
+import com.example.kalenderbackend.dto.AchievementSummary;
 import com.example.kalenderbackend.entity.Achievement;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +13,29 @@ import java.util.Optional;
 
 @Repository
 public interface AchievementRepository extends JpaRepository<Achievement, Long> {
+
+    // List endpoints read summaries; a.user.id is the FK column, so the user row is never joined
+    String SUMMARY_SELECT = "SELECT new com.example.kalenderbackend.dto.AchievementSummary(" +
+            "a.id, a.achievementType, a.title, a.description, a.rewardXP, a.unlocked, a.unlockedAt) " +
+            "FROM Achievement a ";
+
     List<Achievement> findByUserId(Long userId);
     List<Achievement> findByUserIdAndUnlocked(Long userId, boolean unlocked);
     Optional<Achievement> findByUserIdAndAchievementType(Long userId, Achievement.AchievementType type);
     boolean existsByUserIdAndAchievementType(Long userId, Achievement.AchievementType type);
+    long countByUserIdAndUnlocked(Long userId, boolean unlocked);
+
+    @Query(SUMMARY_SELECT + "WHERE a.user.id = :userId ORDER BY a.id")
+    List<AchievementSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query(SUMMARY_SELECT + "WHERE a.user.id = :userId AND a.unlocked = :unlocked ORDER BY a.id")
+    List<AchievementSummary> findSummariesByUserIdAndUnlocked(@Param("userId") Long userId,
+                                                              @Param("unlocked") boolean unlocked);
+
+    @Query(SUMMARY_SELECT + "WHERE a.user.id = :userId AND a.unlocked = true ORDER BY a.unlockedAt DESC")
+    List<AchievementSummary> findRecentUnlocked(@Param("userId") Long userId, Pageable pageable);
+
+    // Types the user already has a row for (one row per type, see uk_achievements_user_type)
+    @Query("SELECT a.achievementType FROM Achievement a WHERE a.user.id = :userId")
+    List<Achievement.AchievementType> findTypesByUserId(@Param("userId") Long userId);
 }
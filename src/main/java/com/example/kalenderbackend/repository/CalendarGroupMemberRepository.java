@@ -0,0 +1,38 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CalendarGroupMemberRepository extends JpaRepository<CalendarGroupMember, Long> {
+
+    Optional<CalendarGroupMember> findByGroupIdAndUserId(Long groupId, Long userId);
+
+    // Members with their users in one query (group timeline, member list)
+    @Query("SELECT m FROM CalendarGroupMember m JOIN FETCH m.user WHERE m.group.id = :groupId ORDER BY m.joinedAt")
+    List<CalendarGroupMember> findByGroupIdWithUser(@Param("groupId") Long groupId);
+
+    // The caller's memberships with their groups
+    @Query("SELECT m FROM CalendarGroupMember m JOIN FETCH m.group WHERE m.user.id = :userId ORDER BY m.group.name")
+    List<CalendarGroupMember> findByUserIdWithGroup(@Param("userId") Long userId);
+
+    long countByGroupId(Long groupId);
+
+    // (id, username) of those users who are active members of a group the caller is active in
+    // and share at least free/busy with it
+    @Query("SELECT DISTINCT u.id, u.username FROM CalendarGroupMember me " +
+            "JOIN CalendarGroupMember m ON m.group = me.group JOIN m.user u " +
+            "WHERE me.user.id = :userId AND me.status = :active AND m.status = :active " +
+            "AND m.sharing <> :none AND u.username IN :usernames")
+    List<Object[]> findSharingCoMembers(@Param("userId") Long userId,
+                                        @Param("usernames") Collection<String> usernames,
+                                        @Param("active") CalendarGroupMember.Status active,
+                                        @Param("none") CalendarGroupMember.Sharing none);
+}
@@ -0,0 +1,9 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.CalendarGroup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CalendarGroupRepository extends JpaRepository<CalendarGroup, Long> {
+}
@@ -0,0 +1,33 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryRepository extends JpaRepository<Category, Integer> {
+
+    List<Category> findByUserIdIsNull();
+
+    // The global default first, then the user's own
+    @Query("SELECT c.id FROM Category c WHERE c.nameKey = :nameKey AND (c.userId IS NULL OR c.userId = :userId) " +
+            "ORDER BY c.userId ASC NULLS FIRST")
+    List<Integer> findIdsByNameKey(@Param("userId") Long userId, @Param("nameKey") String nameKey);
+
+    Optional<Category> findByUserIdIsNullAndNameKey(String nameKey);
+
+    // No-op if the user already has the name (the unique key backs this up)
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "INSERT INTO categories (user_id, name, name_key, xp_bonus) " +
+            "SELECT :userId, :name, :nameKey, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM categories WHERE user_id = :userId AND name_key = :nameKey)")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("name") String name, @Param("nameKey") String nameKey);
+}
@@ -0,0 +1,33 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.EventOccurrenceOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventOccurrenceOverrideRepository extends JpaRepository<EventOccurrenceOverride, Long> {
+
+    Optional<EventOccurrenceOverride> findByEventIdAndOccurrenceStart(Long eventId, LocalDateTime occurrenceStart);
+
+    // All overrides of the given series inside a window, one query per range read
+    @Query("SELECT o FROM EventOccurrenceOverride o WHERE o.event.id IN :eventIds " +
+            "AND o.occurrenceStart >= :from AND o.occurrenceStart < :to")
+    List<EventOccurrenceOverride> findInWindow(@Param("eventIds") Collection<Long> eventIds,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    // (eventId, occurrenceStart) of every cancelled occurrence of the user's series
+    @Query("SELECT o.event.id, o.occurrenceStart FROM EventOccurrenceOverride o " +
+            "WHERE o.event.user.id = :userId AND o.cancelled = true")
+    List<Object[]> findCancelledByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT o FROM EventOccurrenceOverride o WHERE o.event.id = :eventId AND o.completed = true")
+    List<EventOccurrenceOverride> findCompletedByEventId(@Param("eventId") Long eventId);
+}
@@ -1,32 +1,146 @@
 package com.example.kalenderbackend.repository;
 
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventInterval;
 import com.example.kalenderbackend.entity.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
 
+    // Read endpoints project straight into EventDTO: no managed entities to dirty-check,
+    // and the owner's username comes from the same join instead of a lazy load per row.
+    // The category name and default color come from the (small) categories dictionary
+    String DTO_SELECT = "SELECT new com.example.kalenderbackend.dto.EventDTO(" +
+            "e.id, e.title, e.description, e.startTime, e.endTime, e.location, c.name, COALESCE(e.color, c.color), " +
+            "e.completed, e.xpReward, e.reminder, e.reminderMinutes, e.recurring, e.recurrencePattern, " +
+            "u.id, u.username, e.createdAt, e.updatedAt) FROM Event e JOIN e.user u " +
+            "LEFT JOIN Category c ON c.id = e.categoryId ";
+
     // Find events for a specific user
     List<Event> findByUserId(Long userId);
 
     // Find events for a user within a date range
     List<Event> findByUserIdAndStartTimeBetween(Long userId, LocalDateTime start, LocalDateTime end);
 
+    // Single (non-recurring) events in an inclusive range; recurring masters are expanded separately
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND e.recurring = false " +
+            "AND e.startTime >= :start AND e.startTime <= :end ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findDTOsByUserIdInRange(@Param("userId") Long userId,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end);
+
+    // Delta sync: (id, changeVersion) after the keyset position, read off idx_events_user_change
+    @Query("SELECT e.id, e.changeVersion FROM Event e WHERE e.user.id = :userId " +
+            "AND (e.changeVersion > :version OR (e.changeVersion = :version AND e.id > :id)) " +
+            "ORDER BY e.changeVersion ASC, e.id ASC")
+    List<Object[]> findChangeKeysAfter(@Param("userId") Long userId,
+                                       @Param("version") long version,
+                                       @Param("id") long id,
+                                       Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE e.id IN :ids")
+    List<EventDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Recurring masters that can have an occurrence starting in [from, to), with their owner
+    @Query("SELECT e FROM Event e JOIN FETCH e.user WHERE e.user.id = :userId AND e.recurring = true " +
+            "AND e.startTime < :to AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd >= :from)")
+    List<Event> findRecurringInWindow(@Param("userId") Long userId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to);
+
+    // Timeline of all of a user's events (conflict index), without loading entities
+    @Query("SELECT new com.example.kalenderbackend.dto.EventInterval(" +
+            "e.id, e.title, e.startTime, e.endTime, e.recurring, e.recurrencePattern, e.recurrenceEnd) " +
+            "FROM Event e WHERE e.user.id = :userId")
+    List<EventInterval> findIntervalsByUserId(@Param("userId") Long userId);
+
+    // (id, title, location, description) of all the user's events, to build the search index
+    @Query("SELECT e.id, e.title, e.location, e.description FROM Event e WHERE e.user.id = :userId")
+    List<Object[]> findSearchFieldsByUserId(@Param("userId") Long userId);
+
+    // (userId, startTime, endTime) of single events overlapping [from, to), several users in one query
+    @Query("SELECT e.user.id, e.startTime, e.endTime FROM Event e WHERE e.user.id IN :userIds " +
+            "AND e.recurring = false AND e.startTime < :to AND e.endTime > :from")
+    List<Object[]> findBusyIntervals(@Param("userIds") Collection<Long> userIds,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    // (day, events, completed) of the user's single events starting in [from, to), one row per
+    // non-empty day. Runs off the (user_id, recurring, start_time) index; series are expanded separately
+    @Query("SELECT CAST(e.startTime AS LocalDate), COUNT(e), " +
+            "SUM(CASE WHEN e.completed = true THEN 1 ELSE 0 END) FROM Event e " +
+            "WHERE e.user.id = :userId AND e.recurring = false " +
+            "AND e.startTime >= :from AND e.startTime < :to " +
+            "GROUP BY CAST(e.startTime AS LocalDate)")
+    List<Object[]> countPerDay(@Param("userId") Long userId,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT e FROM Event e JOIN FETCH e.user WHERE e.user.id IN :userIds AND e.recurring = true " +
+            "AND e.startTime < :to AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd >= :from)")
+    List<Event> findRecurringInWindowForUsers(@Param("userIds") Collection<Long> userIds,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
     // Find upcoming events for a user
     List<Event> findByUserIdAndStartTimeAfterOrderByStartTimeAsc(Long userId, LocalDateTime after);
 
+    // The event if it belongs to the user
+    Optional<Event> findByIdAndUserId(Long id, Long userId);
+
+    // Drag-to-reschedule: only the times and what derives from them are written, and ownership is
+    // part of the same statement. remind_at is computed as in Event.updateRemindAt (remindBase is the
+    // new start in whole seconds). Series are left out (0 rows): their recurrence_end comes from the rule
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Event e SET e.startTime = :start, e.endTime = :end, " +
+            "e.remindAt = CASE WHEN e.reminder = true AND e.completed = false AND e.reminderMinutes IS NOT NULL " +
+            "THEN cast(:remindBase as LocalDateTime) - (e.reminderMinutes) minute ELSE NULL END, " +
+            "e.changeVersion = :version, e.updatedAt = :now " +
+            "WHERE e.id = :id AND e.user.id = :userId AND e.recurring = false")
+    int reschedule(@Param("id") Long id,
+                   @Param("userId") Long userId,
+                   @Param("start") LocalDateTime start,
+                   @Param("end") LocalDateTime end,
+                   @Param("remindBase") LocalDateTime remindBase,
+                   @Param("version") long version,
+                   @Param("now") LocalDateTime now);
+
+    // Owned subset of the given ids (batch update ownership check)
+    List<Event> findByIdInAndUserId(Collection<Long> ids, Long userId);
+
     // Find events by category for a user
-    List<Event> findByUserIdAndCategory(Long userId, String category);
+    List<Event> findByUserIdAndCategoryId(Long userId, Integer categoryId);
 
     // Find completed events for a user
     List<Event> findByUserIdAndCompleted(Long userId, Boolean completed);
 
+    // Reminders of single events due in [from, to): one range scan on idx_events_remind_at for all users.
+    // (eventId, userId, title, location, startTime, endTime, remindAt)
+    @Query("SELECT e.id, e.user.id, e.title, e.location, e.startTime, e.endTime, e.remindAt FROM Event e " +
+            "WHERE e.remindAt >= :from AND e.remindAt < :to")
+    List<Object[]> findRemindersDue(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Series with reminders that can have an occurrence starting in [from, to)
+    @Query("SELECT e FROM Event e WHERE e.recurring = true AND e.reminder = true AND e.completed = false " +
+            "AND e.startTime < :to AND (e.recurrenceEnd IS NULL OR e.recurrenceEnd >= :from)")
+    List<Event> findRecurringWithReminders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     // Custom query for events that need reminders
     @Query("SELECT e FROM Event e WHERE e.reminder = true AND e.completed = false " +
             "AND e.startTime BETWEEN :now AND :reminderTime")
@@ -36,9 +150,72 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     // Count events for statistics
     Long countByUserIdAndCompleted(Long userId, Boolean completed);
 
-    // Find events for a specific date
-    @Query("SELECT e FROM Event e WHERE e.user.id = :userId " +
-            "AND DATE(e.startTime) = DATE(:date)")
-    List<Event> findByUserIdAndDate(@Param("userId") Long userId,
-                                    @Param("date") LocalDateTime date);
+    // Find single events for a specific date. Half-open range on the raw column so
+    // the (user_id, recurring, start_time) index can be used (DATE(e.startTime) = ... could not)
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND e.recurring = false " +
+            "AND e.startTime >= :dayStart AND e.startTime < :nextDayStart " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findDTOsByUserIdAndDay(@Param("userId") Long userId,
+                                          @Param("dayStart") LocalDateTime dayStart,
+                                          @Param("nextDayStart") LocalDateTime nextDayStart);
+
+    default List<EventDTO> findDTOsByUserIdAndDate(Long userId, LocalDate date) {
+        return findDTOsByUserIdAndDay(userId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // Keyset pagination on (startTime, id). Pageable only carries the limit,
+    // ordering is fixed so the cursor condition stays index-friendly.
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId " +
+            "AND (e.startTime > :startTime OR (e.startTime = :startTime AND e.id > :id)) " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findPageByUserIdAfter(@Param("userId") Long userId,
+                                         @Param("startTime") LocalDateTime startTime,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND e.startTime > :after " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findUpcomingPageByUserId(@Param("userId") Long userId,
+                                            @Param("after") LocalDateTime after,
+                                            Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND e.categoryId = :categoryId " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findPageByUserIdAndCategory(@Param("userId") Long userId,
+                                               @Param("categoryId") Integer categoryId,
+                                               Pageable pageable);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND e.categoryId = :categoryId " +
+            "AND (e.startTime > :startTime OR (e.startTime = :startTime AND e.id > :id)) " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<EventDTO> findPageByUserIdAndCategoryAfter(@Param("userId") Long userId,
+                                                 @Param("categoryId") Integer categoryId,
+                                                 @Param("startTime") LocalDateTime startTime,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    // One member's single events in [from, to), keyset-paged after (afterStart, afterId).
+    // Group calendars read one of these per member and merge them.
+    @Query("SELECT e FROM Event e WHERE e.user.id = :userId AND e.recurring = false " +
+            "AND e.startTime >= :from AND e.startTime < :to " +
+            "AND (e.startTime > :afterStart OR (e.startTime = :afterStart AND e.id > :afterId)) " +
+            "ORDER BY e.startTime ASC, e.id ASC")
+    List<Event> findRangePageByUserIdAfter(@Param("userId") Long userId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("afterStart") LocalDateTime afterStart,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    // Cursor over all of a user's events for export. Must be consumed inside a transaction
+    // and closed; rows are fetched from the driver in chunks instead of all at once.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Event e WHERE e.user.id = :userId ORDER BY e.startTime ASC, e.id ASC")
+    Stream<Event> streamByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,31 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.EventTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, Long> {
+
+    // Keyset on (changeVersion, eventId), same order as EventRepository.findChangeKeysAfter
+    @Query("SELECT t FROM EventTombstone t WHERE t.userId = :userId " +
+            "AND (t.changeVersion > :version OR (t.changeVersion = :version AND t.eventId > :id)) " +
+            "ORDER BY t.changeVersion ASC, t.eventId ASC")
+    List<EventTombstone> findChangesAfter(@Param("userId") Long userId,
+                                          @Param("version") long version,
+                                          @Param("id") long id,
+                                          Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
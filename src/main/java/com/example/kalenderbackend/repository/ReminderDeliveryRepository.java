@@ -0,0 +1,82 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.ReminderDelivery;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReminderDeliveryRepository extends JpaRepository<ReminderDelivery, Long> {
+
+    Optional<ReminderDelivery> findByEventIdAndOccurrenceStart(Long eventId, LocalDateTime occurrenceStart);
+
+    // Claims a reminder right before it is sent: 1 if this caller may send it, 0 if it was already
+    // claimed, or the event is gone, completed, no longer has a reminder, was moved (remind_at of a
+    // single event differs) or the occurrence was cancelled/completed meanwhile.
+    // A concurrent claim of the same key fails on the unique key.
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "INSERT INTO reminder_deliveries " +
+            "(event_id, occurrence_start, status, claimed_at, remind_at) " +
+            "SELECT e.id, :occurrenceStart, 'CLAIMED', :now, :remindAt FROM events e " +
+            "WHERE e.id = :eventId AND e.reminder = TRUE AND e.completed = FALSE " +
+            "AND (e.recurring = TRUE OR e.remind_at = :remindAt) " +
+            "AND NOT EXISTS (SELECT 1 FROM event_occurrence_overrides o WHERE o.event_id = e.id " +
+            "AND o.occurrence_start = :occurrenceStart AND (o.cancelled = TRUE OR o.completed = TRUE)) " +
+            "AND NOT EXISTS (SELECT 1 FROM reminder_deliveries d WHERE d.event_id = e.id " +
+            "AND d.occurrence_start = :occurrenceStart)")
+    int claim(@Param("eventId") Long eventId,
+              @Param("occurrenceStart") LocalDateTime occurrenceStart,
+              @Param("remindAt") LocalDateTime remindAt,
+              @Param("now") LocalDateTime now);
+
+    // Deliveries worth another attempt: left CLAIMED since before staleBefore (the sender died) or
+    // FAILED, with the reminder due at or after notBefore and fewer than maxAttempts sends so far
+    @Query("SELECT d FROM ReminderDelivery d WHERE d.remindAt >= :notBefore AND d.attempts < :maxAttempts " +
+            "AND ((d.status = com.example.kalenderbackend.entity.ReminderDelivery.Status.CLAIMED " +
+            "AND d.claimedAt < :staleBefore) " +
+            "OR d.status = com.example.kalenderbackend.entity.ReminderDelivery.Status.FAILED)")
+    List<ReminderDelivery> findRetryable(@Param("staleBefore") LocalDateTime staleBefore,
+                                         @Param("notBefore") LocalDateTime notBefore,
+                                         @Param("maxAttempts") int maxAttempts);
+
+    // Claims a delivery found by findRetryable again: 1 if this caller may send it. Rechecks that
+    // row and event are still in that state in the same statement, so of several instances
+    // only one wins, and a reminder that went stale (see claim) is not sent.
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE reminder_deliveries d " +
+            "SET status = 'CLAIMED', claimed_at = :now, finished_at = NULL, attempts = attempts + 1 " +
+            "WHERE d.id = :id AND d.attempts < :maxAttempts " +
+            "AND ((d.status = 'CLAIMED' AND d.claimed_at < :staleBefore) OR d.status = 'FAILED') " +
+            "AND EXISTS (SELECT 1 FROM events e WHERE e.id = d.event_id AND e.reminder = TRUE " +
+            "AND e.completed = FALSE AND (e.recurring = TRUE OR e.remind_at = d.remind_at)) " +
+            "AND NOT EXISTS (SELECT 1 FROM event_occurrence_overrides o WHERE o.event_id = d.event_id " +
+            "AND o.occurrence_start = d.occurrence_start AND (o.cancelled = TRUE OR o.completed = TRUE))")
+    int reclaim(@Param("id") Long id,
+                @Param("staleBefore") LocalDateTime staleBefore,
+                @Param("maxAttempts") int maxAttempts,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReminderDelivery d SET d.status = :status, d.finishedAt = :now, d.error = :error " +
+            "WHERE d.eventId = :eventId AND d.occurrenceStart = :occurrenceStart")
+    int finish(@Param("eventId") Long eventId,
+               @Param("occurrenceStart") LocalDateTime occurrenceStart,
+               @Param("status") ReminderDelivery.Status status,
+               @Param("now") LocalDateTime now,
+               @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReminderDelivery d WHERE d.claimedAt < :before")
+    int deleteClaimedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,40 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    boolean existsByTokenId(String tokenId);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") LocalDateTime now);
+
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<String> findTokenIdsRevokedSince(@Param("since") LocalDateTime since,
+                                          @Param("now") LocalDateTime now);
+
+    // One statement per revocation: nothing is inserted if the jti is already there, and a concurrent
+    // insert of the same jti fails on the unique key. Either way only one caller gets 1
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) " +
+            "SELECT :tokenId, :expiresAt, :now " +
+            "WHERE NOT EXISTS (SELECT 1 FROM revoked_tokens WHERE token_id = :tokenId)")
+    int insertIfAbsent(@Param("tokenId") String tokenId,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,9 +1,17 @@
 package com.example.kalenderbackend.repository;
 
+import com.example.kalenderbackend.dto.VersionStamp;
 import com.example.kalenderbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,5 +20,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-}
+    boolean existsByIdAndUsername(Long id, String username);
+
+    // Id only, so we don't pull the whole row (incl. password hash)
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    // (id, username) pairs for the names that exist
+    @Query("SELECT u.id, u.username FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    // (id, username, email) for reminder delivery
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id IN :ids")
+    List<Object[]> findContactsByIdIn(@Param("ids") Collection<Long> ids);
 
+    // Primary-key lookup of the two stamps, for If-None-Match checks
+    @Query("SELECT new com.example.kalenderbackend.dto.VersionStamp(u.eventsVersion, u.tombstoneFloor, u.updatedAt) " +
+           "FROM User u WHERE u.id = :userId")
+    Optional<VersionStamp> findVersionStamp(@Param("userId") Long userId);
+
+    // Native so it never meets the (read-only) mapped field; runs in the caller's write transaction
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE users SET events_version = events_version + 1 WHERE id = :userId")
+    int incrementEventsVersion(@Param("userId") Long userId);
+
+    // Scalar read, so it sees the bump above even when the user entity is already loaded
+    @Query("SELECT u.eventsVersion FROM User u WHERE u.id = :userId")
+    long findEventsVersion(@Param("userId") Long userId);
+
+    // Compaction: remember the highest tombstone version about to be deleted for each affected user
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "UPDATE users u SET tombstone_floor = " +
+            "(SELECT MAX(t.change_version) FROM event_tombstones t WHERE t.user_id = u.id AND t.deleted_at < :cutoff) " +
+            "WHERE u.id IN (SELECT t.user_id FROM event_tombstones t WHERE t.deleted_at < :cutoff)")
+    int raiseTombstoneFloors(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,13 @@
+package com.example.kalenderbackend.security;
+
+import java.security.Principal;
+
+// Lightweight principal built straight from verified JWT claims.
+// Implements Principal so Authentication.getName() still returns the username.
+public record AuthenticatedUser(Long userId, String username) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.kalenderbackend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Injects the authenticated user into a controller method parameter.
+// Supported types: Long (user id, no query), AuthenticatedUser (no query) and User (loads the entity).
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,66 @@
+package com.example.kalenderbackend.security;
+
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        if (!parameter.hasParameterAnnotation(CurrentUser.class)) {
+            return false;
+        }
+        Class<?> type = parameter.getParameterType();
+        return type == Long.class || type == AuthenticatedUser.class || type == User.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        AuthenticatedUser principal = currentPrincipal();
+        Class<?> type = parameter.getParameterType();
+
+        if (type == Long.class) {
+            return principal.userId();
+        }
+        if (type == AuthenticatedUser.class) {
+            return principal;
+        }
+
+        // Lazy reference: handlers that only attach the user to new rows (creating events) never
+        // SELECT it; reading a field loads it within the request's session (open-in-view)
+        return userRepository.getReferenceById(principal.userId());
+    }
+
+    private AuthenticatedUser currentPrincipal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            throw new RuntimeException("User not found");
+        }
+
+        if (auth.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+
+        // Authenticated some other way (e.g. tests with a plain UserDetails principal)
+        String username = auth.getName();
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return new AuthenticatedUser(userId, username);
+    }
+}
@@ -1,20 +1,22 @@
 package com.example.kalenderbackend.security;
 
+import com.example.kalenderbackend.repository.UserRepository;
 import com.example.kalenderbackend.util.JwtUtil;
+import com.example.kalenderbackend.util.ParsedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,7 +25,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // Stateless by default. Turn on to check the user still exists on every request (e.g. for revocation)
+    @Value("${jwt.verify-user-on-request:false}")
+    private boolean verifyUserOnRequest;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,30 +44,75 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            AuthenticatedUser principal = authenticate(jwt);
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            if (principal != null) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                principal, null, Collections.emptyList());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private AuthenticatedUser authenticate(String jwt) {
+        VerifiedTokenCache.CachedToken cached = tokenCache.get(jwt);
+
+        if (cached == null) {
+            ParsedToken token;
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // One signature check; expiry is enforced by the parser
+                token = jwtUtil.verify(jwt);
             } catch (Exception e) {
                 // Invalid token, will be handled by Spring Security
+                return null;
             }
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Refresh tokens are only accepted by /api/auth/refresh
+            if (!token.isAccessToken()) {
+                return null;
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            AuthenticatedUser principal = resolvePrincipal(token);
+            if (principal == null) {
+                return null;
             }
+            cached = new VerifiedTokenCache.CachedToken(principal, token.id());
+            tokenCache.put(jwt, cached, token.expiration());
         }
 
-        filterChain.doFilter(request, response);
+        // Bloom filter lookup, only queries the table on a (rare) hit
+        if (tokenRevocationService.isRevoked(cached.tokenId())) {
+            return null;
+        }
+
+        AuthenticatedUser principal = cached.principal();
+        if (verifyUserOnRequest
+                && !userRepository.existsByIdAndUsername(principal.userId(), principal.username())) {
+            return null;
+        }
+
+        return principal;
+    }
+
+    private AuthenticatedUser resolvePrincipal(ParsedToken token) {
+        if (token.subject() == null) {
+            return null;
+        }
+
+        if (token.userId() == null) {
+            // Older tokens without the userId claim need one lookup
+            return userRepository.findIdByUsername(token.subject())
+                    .map(id -> new AuthenticatedUser(id, token.subject()))
+                    .orElse(null);
+        }
+
+        return new AuthenticatedUser(token.userId(), token.subject());
     }
 }
@@ -0,0 +1,69 @@
+package com.example.kalenderbackend.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Dedicated, bounded pool for CPU-heavy bcrypt work (login/register).
+// Keeps a login burst from eating every servlet thread; when the queue is full
+// submit() fails fast with RejectedExecutionException instead of piling up.
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    // Blocking work after the hash (saving the user, lookups) continues on virtual threads,
+    // so the few hashing threads never wait on the database
+    private final ExecutorService continuations = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PasswordHashingExecutor(@Value("${security.password.hashing-threads:0}") int threads,
+                                   @Value("${security.password.queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    // For thenApplyAsync and friends on the futures returned by submit()
+    public Executor continuationExecutor() {
+        return continuations;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        continuations.shutdown();
+    }
+}
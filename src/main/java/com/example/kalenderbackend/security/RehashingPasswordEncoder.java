@@ -0,0 +1,50 @@
+package com.example.kalenderbackend.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Delegates to bcrypt with the configured cost, but reports a stored hash as needing
+// an upgrade whenever its cost differs from the configured one (up *or* down).
+// DaoAuthenticationProvider then rehashes on the next successful login.
+public class RehashingPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+
+    public RehashingPasswordEncoder(int strength) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = extractCost(encodedPassword);
+        return cost != -1 && cost != strength;
+    }
+
+    // Hash format: $2a$10$<salt+hash>
+    private static int extractCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        if (costStart == 0 || costStart + 2 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(costStart, costStart + 2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
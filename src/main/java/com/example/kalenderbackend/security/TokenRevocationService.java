@@ -0,0 +1,122 @@
+package com.example.kalenderbackend.security;
+
+import com.example.kalenderbackend.repository.RevokedTokenRepository;
+import com.example.kalenderbackend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Revocation check for JWTs (by jti).
+// The hot path only touches an in-memory Bloom filter; a query is only made on a Bloom hit.
+// New rows from other nodes are pulled in incrementally, and the filter is rebuilt
+// after expired rows are compacted away (Bloom filters can't remove entries). Both run on
+// the scheduler, never on a request.
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // revoked_at is stamped before the insert commits, so a row can become visible after a sync
+    // already read past its timestamp. Each sync re-reads this far back; putting an id twice is harmless
+    @Value("${jwt.revocation.sync-overlap-ms:60000}")
+    private long syncOverlapMillis;
+
+    private volatile BloomFilter bloomFilter;
+    private volatile LocalDateTime lastSync;
+
+    // Ids revoked on this node while a rebuild runs, added to the new filter before it is used
+    private volatile Set<String> revokedDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (!bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        // Possible false positive, confirm with the table
+        return revokedTokenRepository.existsByTokenId(tokenId);
+    }
+
+    // True only for the call that actually revoked the token, so it can double as a
+    // one-time claim (refresh token rotation)
+    public boolean revoke(String tokenId, Date expiration) {
+        if (tokenId == null) {
+            return false;
+        }
+
+        LocalDateTime expiresAt = expiration != null
+                ? LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now();
+        boolean inserted;
+        try {
+            inserted = revokedTokenRepository.insertIfAbsent(tokenId, expiresAt, LocalDateTime.now()) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against a concurrent revoke of the same token
+            inserted = false;
+        }
+
+        // Pending set first, then the current filter: if the set was already drained, the
+        // filter read afterwards is the new one
+        Set<String> pending = revokedDuringRebuild;
+        if (pending != null) {
+            pending.add(tokenId);
+        }
+        bloomFilter.put(tokenId);
+        return inserted;
+    }
+
+    // Rows revoked on other nodes since the last sync
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        BloomFilter filter = bloomFilter;
+        revokedTokenRepository.findTokenIdsRevokedSince(lastSync.minusNanos(syncOverlapMillis * 1_000_000), syncStart)
+                .forEach(filter::put);
+        lastSync = syncStart;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.compact-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.compact-interval-ms:3600000}")
+    public void compact() {
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        revokedDuringRebuild = pending;
+
+        LocalDateTime now = LocalDateTime.now();
+        BloomFilter filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        revokedTokenRepository.findActiveTokenIds(now).forEach(filter::put);
+
+        // Anything revoked after the query was put into the old filter; carry it over
+        bloomFilter = filter;
+        pending.forEach(filter::put);
+        revokedDuringRebuild = null;
+        lastSync = now;
+    }
+}
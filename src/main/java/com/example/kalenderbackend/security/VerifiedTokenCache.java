@@ -0,0 +1,188 @@
+package com.example.kalenderbackend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache: SHA-256(token) -> principal (and jti) that was already verified.
+// Entries live until the token's own expiry or the configured TTL, whichever is first.
+// Values are soft references so the GC can drop them under memory pressure.
+// Every request goes through here, so the cache is split into independently locked LRU stripes
+// by key hash; eviction is least recently used within a stripe.
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final int MAX_STRIPES = 16;
+
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Stripe[] stripes;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.cache.ttl-ms:300000}") long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        // Each stripe holds an equal share, so together they never exceed maxSize
+        int stripeCount = Math.max(1, Math.min(MAX_STRIPES, maxSize));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxSize / stripeCount));
+        }
+    }
+
+    public CachedToken get(String token) {
+        if (maxSize <= 0) {
+            return null;
+        }
+
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+
+        Stripe entries = stripe(key);
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            CachedToken cached = entry.token.get();
+            if (cached == null || entry.expiresAt <= now) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+
+            hits.incrementAndGet();
+            return cached;
+        }
+    }
+
+    public void put(String token, CachedToken cached, Date tokenExpiration) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMillis;
+        if (tokenExpiration != null) {
+            expiresAt = Math.min(expiresAt, tokenExpiration.getTime());
+        }
+        if (expiresAt <= now) {
+            return;
+        }
+
+        String key = digest(token);
+        Stripe entries = stripe(key);
+        synchronized (entries) {
+            entries.put(key, new Entry(new SoftReference<>(cached), expiresAt));
+        }
+    }
+
+    public void invalidate(String token) {
+        String key = digest(token);
+        Stripe entries = stripe(key);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Stripe entries : stripes) {
+            synchronized (entries) {
+                entries.clear();
+            }
+        }
+    }
+
+    public CacheStats getStats() {
+        int size = 0;
+        for (Stripe entries : stripes) {
+            synchronized (entries) {
+                size += entries.size();
+            }
+        }
+        return new CacheStats(size, maxSize, hits.get(), misses.get(), evictions.get());
+    }
+
+    // Counters are cumulative since startup
+    @Scheduled(fixedDelayString = "${jwt.cache.stats-interval-ms:300000}",
+            initialDelayString = "${jwt.cache.stats-interval-ms:300000}")
+    public void logStats() {
+        if (maxSize <= 0) {
+            return;
+        }
+        CacheStats stats = getStats();
+        long lookups = stats.hits() + stats.misses();
+        log.info("Verified-token cache: {}/{} entries, {} hits, {} misses ({}% hit rate), {} evictions",
+                stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                lookups == 0 ? 0 : stats.hits() * 100 / lookups, stats.evictions());
+    }
+
+    private Stripe stripe(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    // Never keep the raw bearer token in memory longer than needed
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(SoftReference<CachedToken> token, long expiresAt) {
+    }
+
+    // Never serialized, the id only keeps -Xlint:serial quiet about the inherited Serializable
+    private final class Stripe extends LinkedHashMap<String, Entry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // tokenId is kept so revocation can still be checked on a cache hit
+    public record CachedToken(AuthenticatedUser principal, String tokenId) {
+    }
+
+    public record CacheStats(int size, int maxSize, long hits, long misses, long evictions) {
+    }
+}
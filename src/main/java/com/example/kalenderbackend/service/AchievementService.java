@@ -1,17 +1,23 @@
 package com.example.kalenderbackend.service;
 
+import com.example.kalenderbackend.dto.AchievementSummary;
+import com.example.kalenderbackend.dto.ChangeNotification;
 import com.example.kalenderbackend.entity.Achievement;
 import com.example.kalenderbackend.entity.User;
 import com.example.kalenderbackend.repository.AchievementRepository;
 import com.example.kalenderbackend.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -23,48 +29,72 @@ public class AchievementService {
     @Autowired
     private UserRepository userRepository;
 
-    // Achievement definitions med XP-belöningar
-    private static final Map<Achievement.AchievementType, AchievementDefinition> ACHIEVEMENT_DEFINITIONS = new HashMap<>();
+    @Autowired
+    private ChangeStreamService changeStreamService;
+
+    // Achievement definitions med XP-belöningar: the static catalog, built once.
+    // description is shown once unlocked, goal while the achievement is still available
+    private static final Map<Achievement.AchievementType, AchievementDefinition> ACHIEVEMENT_DEFINITIONS =
+            new EnumMap<>(Achievement.AchievementType.class);
 
     static {
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.FIRST_EVENT,
-                new AchievementDefinition("Första steget!", "Du har slutfört ditt första event", 50));
+                new AchievementDefinition("Första steget!", "Du har slutfört ditt första event", 50,
+                        "Slutför ditt första event"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EVENTS_5,
-                new AchievementDefinition("På god väg", "5 events slutförda", 100));
+                new AchievementDefinition("På god väg", "5 events slutförda", 100,
+                        "Slutför 5 events"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EVENTS_10,
-                new AchievementDefinition("Produktiv!", "10 events slutförda", 150));
+                new AchievementDefinition("Produktiv!", "10 events slutförda", 150,
+                        "Slutför 10 events"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EVENTS_25,
-                new AchievementDefinition("Effektivitetsmästare", "25 events slutförda", 300));
+                new AchievementDefinition("Effektivitetsmästare", "25 events slutförda", 300,
+                        "Slutför 25 events"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EVENTS_50,
-                new AchievementDefinition("Halvvägs till 100", "50 events slutförda", 500));
+                new AchievementDefinition("Halvvägs till 100", "50 events slutförda", 500,
+                        "Slutför 50 events"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EVENTS_100,
-                new AchievementDefinition("Centurion", "100 events slutförda!", 1000));
+                new AchievementDefinition("Centurion", "100 events slutförda!", 1000,
+                        "Slutför 100 events"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.STREAK_3,
-                new AchievementDefinition("Tre i rad", "3 dagars streak", 75));
+                new AchievementDefinition("Tre i rad", "3 dagars streak", 75,
+                        "Håll en 3-dagars streak"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.STREAK_7,
-                new AchievementDefinition("Veckokrigare", "7 dagars streak", 200));
+                new AchievementDefinition("Veckokrigare", "7 dagars streak", 200,
+                        "Håll en 7-dagars streak"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.STREAK_14,
-                new AchievementDefinition("Två veckor stark", "14 dagars streak", 400));
+                new AchievementDefinition("Två veckor stark", "14 dagars streak", 400,
+                        "Håll en 14-dagars streak"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.STREAK_30,
-                new AchievementDefinition("Månadshjälte", "30 dagars streak!", 800));
+                new AchievementDefinition("Månadshjälte", "30 dagars streak!", 800,
+                        "Håll en 30-dagars streak"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.LEVEL_5,
-                new AchievementDefinition("Nybörjare", "Nått level 5", 100));
+                new AchievementDefinition("Nybörjare", "Nått level 5", 100,
+                        "Nå level 5"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.LEVEL_10,
-                new AchievementDefinition("Erfaren", "Nått level 10", 250));
+                new AchievementDefinition("Erfaren", "Nått level 10", 250,
+                        "Nå level 10"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.LEVEL_25,
-                new AchievementDefinition("Veteran", "Nått level 25", 500));
+                new AchievementDefinition("Veteran", "Nått level 25", 500,
+                        "Nå level 25"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.PRODUCTIVE_WEEK,
-                new AchievementDefinition("Produktiv vecka", "7+ events på en vecka", 150));
+                new AchievementDefinition("Produktiv vecka", "7+ events på en vecka", 150,
+                        "Slutför 7+ events på en vecka"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.PRODUCTIVE_MONTH,
-                new AchievementDefinition("Produktiv månad", "20+ events på en månad", 400));
+                new AchievementDefinition("Produktiv månad", "20+ events på en månad", 400,
+                        "Slutför 20+ events på en månad"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.EARLY_BIRD,
-                new AchievementDefinition("Tidigt uppe", "5 events före kl 9", 100));
+                new AchievementDefinition("Tidigt uppe", "5 events före kl 9", 100,
+                        "Slutför 5 events före kl 9"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.NIGHT_OWL,
-                new AchievementDefinition("Nattuggla", "5 events efter kl 20", 100));
+                new AchievementDefinition("Nattuggla", "5 events efter kl 20", 100,
+                        "Slutför 5 events efter kl 20"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.WEEKEND_WARRIOR,
-                new AchievementDefinition("Helgkrigare", "10 events på helger", 150));
+                new AchievementDefinition("Helgkrigare", "10 events på helger", 150,
+                        "Slutför 10 events på helger"));
         ACHIEVEMENT_DEFINITIONS.put(Achievement.AchievementType.CATEGORY_MASTER,
-                new AchievementDefinition("Kategorimästare", "10 events i samma kategori", 125));
+                new AchievementDefinition("Kategorimästare", "10 events i samma kategori", 125,
+                        "Slutför 10 events i samma kategori"));
     }
 
     // Check och unlock achievements baserat på användarens statistik
@@ -72,73 +102,77 @@ public class AchievementService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        // Load what the user already has once instead of an exists query per candidate
+        Set<Achievement.AchievementType> owned = EnumSet.noneOf(Achievement.AchievementType.class);
+        owned.addAll(achievementRepository.findTypesByUserId(userId));
+
         // Check event-based achievements
-        checkEventAchievements(user);
+        checkEventAchievements(user, owned);
 
         // Check streak achievements
-        checkStreakAchievements(user);
+        checkStreakAchievements(user, owned);
 
         // Check level achievements
-        checkLevelAchievements(user);
+        checkLevelAchievements(user, owned);
     }
 
-    private void checkEventAchievements(User user) {
+    private void checkEventAchievements(User user, Set<Achievement.AchievementType> owned) {
         int eventsCompleted = user.getEventsCompleted();
 
         if (eventsCompleted >= 1) {
-            unlockAchievement(user, Achievement.AchievementType.FIRST_EVENT);
+            unlockAchievement(user, owned, Achievement.AchievementType.FIRST_EVENT);
         }
         if (eventsCompleted >= 5) {
-            unlockAchievement(user, Achievement.AchievementType.EVENTS_5);
+            unlockAchievement(user, owned, Achievement.AchievementType.EVENTS_5);
         }
         if (eventsCompleted >= 10) {
-            unlockAchievement(user, Achievement.AchievementType.EVENTS_10);
+            unlockAchievement(user, owned, Achievement.AchievementType.EVENTS_10);
         }
         if (eventsCompleted >= 25) {
-            unlockAchievement(user, Achievement.AchievementType.EVENTS_25);
+            unlockAchievement(user, owned, Achievement.AchievementType.EVENTS_25);
         }
         if (eventsCompleted >= 50) {
-            unlockAchievement(user, Achievement.AchievementType.EVENTS_50);
+            unlockAchievement(user, owned, Achievement.AchievementType.EVENTS_50);
         }
         if (eventsCompleted >= 100) {
-            unlockAchievement(user, Achievement.AchievementType.EVENTS_100);
+            unlockAchievement(user, owned, Achievement.AchievementType.EVENTS_100);
         }
     }
 
-    private void checkStreakAchievements(User user) {
+    private void checkStreakAchievements(User user, Set<Achievement.AchievementType> owned) {
         int streak = user.getCurrentStreakDays();
 
         if (streak >= 3) {
-            unlockAchievement(user, Achievement.AchievementType.STREAK_3);
+            unlockAchievement(user, owned, Achievement.AchievementType.STREAK_3);
         }
         if (streak >= 7) {
-            unlockAchievement(user, Achievement.AchievementType.STREAK_7);
+            unlockAchievement(user, owned, Achievement.AchievementType.STREAK_7);
         }
         if (streak >= 14) {
-            unlockAchievement(user, Achievement.AchievementType.STREAK_14);
+            unlockAchievement(user, owned, Achievement.AchievementType.STREAK_14);
         }
         if (streak >= 30) {
-            unlockAchievement(user, Achievement.AchievementType.STREAK_30);
+            unlockAchievement(user, owned, Achievement.AchievementType.STREAK_30);
         }
     }
 
-    private void checkLevelAchievements(User user) {
+    private void checkLevelAchievements(User user, Set<Achievement.AchievementType> owned) {
         int level = user.getLevel();
 
         if (level >= 5) {
-            unlockAchievement(user, Achievement.AchievementType.LEVEL_5);
+            unlockAchievement(user, owned, Achievement.AchievementType.LEVEL_5);
         }
         if (level >= 10) {
-            unlockAchievement(user, Achievement.AchievementType.LEVEL_10);
+            unlockAchievement(user, owned, Achievement.AchievementType.LEVEL_10);
         }
         if (level >= 25) {
-            unlockAchievement(user, Achievement.AchievementType.LEVEL_25);
+            unlockAchievement(user, owned, Achievement.AchievementType.LEVEL_25);
         }
     }
 
-    private void unlockAchievement(User user, Achievement.AchievementType type) {
+    private void unlockAchievement(User user, Set<Achievement.AchievementType> owned, Achievement.AchievementType type) {
         // Check om achievement redan är unlocked
-        if (achievementRepository.existsByUserIdAndAchievementType(user.getId(), type)) {
+        if (!owned.add(type)) {
             return;
         }
 
@@ -154,6 +188,9 @@ public class AchievementService {
         achievement.setUnlockedAt(LocalDateTime.now());
 
         achievementRepository.save(achievement);
+        changeStreamService.publish(user.getId(), ChangeNotification.achievement(new AchievementSummary(
+                achievement.getId(), type, definition.title, definition.description, definition.rewardXP,
+                true, achievement.getUnlockedAt())));
 
         // Ge XP till användaren
         user.setXp(user.getXp() + definition.rewardXP);
@@ -182,16 +219,46 @@ public class AchievementService {
     }
 
     // Get user's achievements
-    public List<Achievement> getUserAchievements(Long userId) {
-        return achievementRepository.findByUserId(userId);
+    @Transactional(readOnly = true)
+    public List<AchievementSummary> getUserAchievements(Long userId) {
+        return achievementRepository.findSummariesByUserId(userId);
     }
 
-    public List<Achievement> getUnlockedAchievements(Long userId) {
-        return achievementRepository.findByUserIdAndUnlocked(userId, true);
+    @Transactional(readOnly = true)
+    public List<AchievementSummary> getUnlockedAchievements(Long userId) {
+        return achievementRepository.findSummariesByUserIdAndUnlocked(userId, true);
     }
 
-    public List<Achievement> getLockedAchievements(Long userId) {
-        return achievementRepository.findByUserIdAndUnlocked(userId, false);
+    @Transactional(readOnly = true)
+    public List<AchievementSummary> getLockedAchievements(Long userId) {
+        return achievementRepository.findSummariesByUserIdAndUnlocked(userId, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AchievementSummary> getRecentAchievements(Long userId, int limit) {
+        return achievementRepository.findRecentUnlocked(userId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnlockedAchievements(Long userId) {
+        return achievementRepository.countByUserIdAndUnlocked(userId, true);
+    }
+
+    // The whole catalog with the user's progress: one query for the unlocked rows, merged in memory
+    @Transactional(readOnly = true)
+    public List<AchievementSummary> getAvailableAchievements(Long userId) {
+        Map<Achievement.AchievementType, AchievementSummary> unlocked = new EnumMap<>(Achievement.AchievementType.class);
+        for (AchievementSummary achievement : achievementRepository.findSummariesByUserIdAndUnlocked(userId, true)) {
+            unlocked.put(achievement.type(), achievement);
+        }
+
+        List<AchievementSummary> available = new ArrayList<>(ACHIEVEMENT_DEFINITIONS.size());
+        ACHIEVEMENT_DEFINITIONS.forEach((type, definition) -> {
+            AchievementSummary row = unlocked.get(type);
+            available.add(new AchievementSummary(null, type, definition.title, definition.goal,
+                    definition.rewardXP, row != null, row != null ? row.unlockedAt() : null));
+        });
+        return available;
     }
 
     // Helper class for achievement definitions
@@ -199,11 +266,13 @@ public class AchievementService {
         final String title;
         final String description;
         final int rewardXP;
+        final String goal;
 
-        AchievementDefinition(String title, String description, int rewardXP) {
+        AchievementDefinition(String title, String description, int rewardXP, String goal) {
             this.title = title;
             this.description = description;
             this.rewardXP = rewardXP;
+            this.goal = goal;
         }
     }
 }
@@ -0,0 +1,139 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.Category;
+import com.example.kalenderbackend.repository.CategoryRepository;
+import com.example.kalenderbackend.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Category dictionary. Events store a small integer id; names, default colors and XP bonuses live
+// in the categories table. Rows never change once written, so id -> category and name -> id are
+// cached (LRU) without invalidation; hot paths (XP, DTO mapping, export) never query.
+// No class-level transaction: a cache hit shouldn't cost one.
+@Service
+public class CategoryService {
+
+    public record CategoryInfo(Integer id, String name, String color, int xpBonus) {
+    }
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private final int cacheSize;
+    private final Map<Integer, CategoryInfo> byId;
+    // "userId|name_key"; a global default is cached under each user that resolved it
+    private final Map<String, Integer> byName;
+
+    public CategoryService(@Value("${events.categories.cache-size:10000}") int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.byId = lru();
+        this.byName = lru();
+    }
+
+    public CategoryInfo get(Integer id) {
+        if (id == null) {
+            return null;
+        }
+        synchronized (byId) {
+            CategoryInfo cached = byId.get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CategoryInfo info = categoryRepository.findById(id).map(CategoryService::toInfo).orElse(null);
+        if (info != null) {
+            synchronized (byId) {
+                byId.put(id, info);
+            }
+        }
+        return info;
+    }
+
+    public String name(Integer id) {
+        CategoryInfo info = get(id);
+        return info != null ? info.name() : null;
+    }
+
+    // The event's own color, else the category's
+    public String color(Integer id, String ownColor) {
+        if (ownColor != null) {
+            return ownColor;
+        }
+        CategoryInfo info = get(id);
+        return info != null ? info.color() : null;
+    }
+
+    // Only keep a color on the event when it differs from its category's
+    public String ownColor(Integer id, String color) {
+        CategoryInfo info = get(id);
+        return info != null && color != null && color.equalsIgnoreCase(info.color()) ? null : color;
+    }
+
+    // Id for a name the user filters by, null if there is no such category
+    @Transactional(readOnly = true)
+    public Integer findId(Long userId, String name) {
+        String key = key(name);
+        if (key == null) {
+            return null;
+        }
+        String cacheKey = userId + "|" + key;
+        synchronized (byName) {
+            Integer cached = byName.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<Integer> ids = categoryRepository.findIdsByNameKey(userId, key);
+        if (ids.isEmpty()) {
+            return null;
+        }
+        Integer id = ids.get(0);
+        // Only committed rows are cached, a rolled back insert must not leave its id behind
+        AfterCommit.run(() -> {
+            synchronized (byName) {
+                byName.put(cacheKey, id);
+            }
+        });
+        return id;
+    }
+
+    // Id for a name on an event being written; a name that isn't a global default or one of the
+    // user's categories yet becomes a new category of the user
+    @Transactional
+    public Integer resolve(Long userId, String name) {
+        Integer id = findId(userId, name);
+        if (id != null || key(name) == null) {
+            return id;
+        }
+        String trimmed = name.trim();
+        categoryRepository.insertIfAbsent(userId, trimmed, key(trimmed));
+        return findId(userId, trimmed);
+    }
+
+    private static String key(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static CategoryInfo toInfo(Category category) {
+        return new CategoryInfo(category.getId(), category.getName(), category.getColor(), category.getXpBonus());
+    }
+
+    private <K, V> Map<K, V> lru() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ChangeNotification;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Server-Sent Events push of event and achievement changes (/api/stream).
+// An idle connection is an async request plus an empty queue, no thread. Publishing only enqueues;
+// a virtual thread per connection drains its queue while there is something to send, so a slow
+// client never blocks the committing request. A client that falls max-queued messages behind is
+// disconnected and catches up through /api/events/changes when it reconnects.
+@Service
+public class ChangeStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    @Value("${stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${stream.heartbeat-ms:25000}")
+    private long heartbeatMillis;
+
+    @Value("${stream.max-queued:64}")
+    private int maxQueued;
+
+    @Value("${stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        connections.values().forEach(set -> set.forEach(Connection::close));
+        senders.shutdownNow();
+    }
+
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+        connections.compute(userId, (id, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            } else if (set.size() >= maxConnectionsPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open streams");
+            }
+            set.add(connection);
+            return set;
+        });
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        // Sent as soon as the response starts; the client knows it is connected and how fast to retry
+        connection.offer(SseEmitter.event().name("ready").reconnectTime(3000).build());
+        return emitter;
+    }
+
+    // Delivered after the surrounding transaction commits, never for rolled back changes
+    public void publish(Long userId, ChangeNotification notification) {
+        AfterCommit.run(() -> send(userId, notification));
+    }
+
+    // Imports have no notification: they can be thousands of events, clients resync through the changes API
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventsChanged(EventsChanged change) {
+        String type = switch (change.kind()) {
+            case CREATED -> ChangeNotification.EVENT_CREATED;
+            case UPDATED -> ChangeNotification.EVENT_UPDATED;
+            case COMPLETED -> ChangeNotification.EVENT_COMPLETED;
+            case DELETED -> ChangeNotification.EVENT_DELETED;
+            case OCCURRENCE_COMPLETED -> ChangeNotification.OCCURRENCE_COMPLETED;
+            case OCCURRENCE_CANCELLED -> ChangeNotification.OCCURRENCE_CANCELLED;
+            case IMPORTED -> null;
+        };
+        if (type == null || !connections.containsKey(change.userId())) {
+            return;
+        }
+        if (change.occurrenceStart() != null) {
+            send(change.userId(), ChangeNotification.occurrence(type, change.eventId(), change.occurrenceStart(),
+                    change.version()));
+        } else if (change.events().isEmpty()) {
+            send(change.userId(), ChangeNotification.event(type, change.eventId(), change.version()));
+        } else {
+            for (Event event : change.events()) {
+                send(change.userId(), ChangeNotification.event(type, event.getId(), change.version()));
+            }
+        }
+    }
+
+    private void send(Long userId, ChangeNotification notification) {
+        Set<Connection> open = connections.get(userId);
+        if (open == null) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .name(notification.type())
+                .data(notification, MediaType.APPLICATION_JSON)
+                .build();
+        open.forEach(connection -> connection.offer(frame));
+    }
+
+    public int connectionCount(Long userId) {
+        Set<Connection> open = connections.get(userId);
+        return open != null ? open.size() : 0;
+    }
+
+    // Keeps proxies from closing idle connections and finds dead ones
+    private void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        connections.values().forEach(set -> set.forEach(connection -> connection.offer(frame)));
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new LinkedBlockingQueue<>(maxQueued);
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                log.debug("Stream of user {} is {} messages behind, disconnecting", userId, maxQueued);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // One drainer at a time, so frames go out in order
+        private void drain() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away, or the emitter already completed
+                        close();
+                    }
+                }
+                draining.set(false);
+            } while (!closed && !queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            remove(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+    }
+}
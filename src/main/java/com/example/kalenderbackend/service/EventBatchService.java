@@ -0,0 +1,145 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.BatchItemResult;
+import com.example.kalenderbackend.dto.CreateEventRequest;
+import com.example.kalenderbackend.dto.UpdateEventBatchItem;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Create/update many events in one transaction. All items are validated (and, for updates,
+// ownership-checked with one query) before anything is written: either the whole batch is
+// applied with JDBC batching, or nothing is and every item says why.
+@Service
+@Transactional
+public class EventBatchService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private EventRequestValidator requestValidator;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // username is the caller's, so the DTOs don't need to load the owner row
+    public BatchResult createEvents(Long userId, String username, List<CreateEventRequest> requests) {
+        List<String> errors = new ArrayList<>(requests.size());
+        for (CreateEventRequest request : requests) {
+            errors.add(requestValidator.validate(request));
+        }
+        if (hasErrors(errors)) {
+            return rejected(errors, "INVALID");
+        }
+
+        // Reference only: nothing below reads the owner's fields, so there is no SELECT for it
+        User user = userRepository.getReferenceById(userId);
+        long version = userVersionService.eventsChanged(userId);
+        List<Event> events = new ArrayList<>(requests.size());
+        for (CreateEventRequest request : requests) {
+            Event event = eventMapper.toEntity(request, user);
+            event.setChangeVersion(version);
+            events.add(event);
+        }
+        List<Event> saved = eventRepository.saveAll(events);
+
+        eventPublisher.publishEvent(EventsChanged.created(userId, version, saved));
+
+        List<BatchItemResult> results = new ArrayList<>(saved.size());
+        for (int i = 0; i < saved.size(); i++) {
+            results.add(new BatchItemResult(i, "CREATED", null, eventMapper.toDTO(saved.get(i), userId, username)));
+        }
+        return new BatchResult(true, results);
+    }
+
+    public BatchResult updateEvents(Long userId, List<UpdateEventBatchItem> items) {
+        List<String> errors = new ArrayList<>(items.size());
+        Set<Long> seenIds = new HashSet<>();
+        for (UpdateEventBatchItem item : items) {
+            String error = requestValidator.validate(item);
+            if (error == null && !seenIds.add(item.getId())) {
+                error = "Duplicate event id in batch";
+            }
+            errors.add(error);
+        }
+        if (hasErrors(errors)) {
+            return rejected(errors, "INVALID");
+        }
+
+        // One query for ownership of the whole batch
+        Map<Long, Event> owned = new HashMap<>();
+        for (Event event : eventRepository.findByIdInAndUserId(seenIds, userId)) {
+            owned.put(event.getId(), event);
+        }
+        boolean missing = false;
+        for (int i = 0; i < items.size(); i++) {
+            if (!owned.containsKey(items.get(i).getId())) {
+                errors.set(i, "Event not found or unauthorized");
+                missing = true;
+            }
+        }
+        if (missing) {
+            return rejected(errors, "NOT_FOUND");
+        }
+
+        // Managed entities; the flush sends them as batched UPDATEs (and runs @PreUpdate)
+        long version = userVersionService.eventsChanged(userId);
+        for (UpdateEventBatchItem item : items) {
+            Event event = owned.get(item.getId());
+            eventMapper.updateEntityFromRequest(event, item);
+            event.setChangeVersion(version);
+        }
+        eventRepository.flush();
+
+        List<Event> updated = new ArrayList<>(items.size());
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Event event = owned.get(items.get(i).getId());
+            updated.add(event);
+            results.add(new BatchItemResult(i, "UPDATED", null, eventMapper.toDTO(event)));
+        }
+        eventPublisher.publishEvent(EventsChanged.updated(userId, version, updated, true));
+        return new BatchResult(true, results);
+    }
+
+    private static boolean hasErrors(List<String> errors) {
+        return errors.stream().anyMatch(e -> e != null);
+    }
+
+    private static BatchResult rejected(List<String> errors, String failureStatus) {
+        List<BatchItemResult> results = new ArrayList<>(errors.size());
+        for (int i = 0; i < errors.size(); i++) {
+            String error = errors.get(i);
+            results.add(new BatchItemResult(i, error != null ? failureStatus : "SKIPPED", error, null));
+        }
+        return new BatchResult(false, results);
+    }
+
+    public record BatchResult(boolean applied, List<BatchItemResult> results) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventInterval;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.repository.EventOccurrenceOverrideRepository;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.IntervalTree;
+import com.example.kalenderbackend.util.UserIndexCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Overlap lookups against an in-memory per-user interval index instead of the events table.
+// A user's index is loaded on first use (one projection query) and then kept current from the
+// EventsChanged the write paths publish, applied after commit (see UserIndexCache).
+// Single events live in an interval tree. Recurring series live in a second tree keyed by the span
+// from their start to the end of their last occurrence, and only the series whose span overlaps
+// the query are expanded.
+@Service
+public class EventConflictService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final UserIndexCache<UserIndex> indexes;
+
+    public EventConflictService(@Value("${events.conflicts.max-users:1000}") int maxUsers) {
+        this.indexes = new UserIndexCache<>(maxUsers, UserIndex::new, this::load,
+                userId -> userRepository.findEventsVersion(userId));
+    }
+
+    // Events and occurrences of the user that overlap [start, end), ordered by start.
+    // excludeId leaves out one event (e.g. the one being edited).
+    public List<EventInterval> findConflicts(Long userId, LocalDateTime start, LocalDateTime end, Long excludeId) {
+        List<EventInterval> conflicts = new ArrayList<>();
+
+        indexes.read(userId, index -> {
+            for (EventInterval interval : index.singles.overlapping(start, end)) {
+                if (!Objects.equals(interval.id(), excludeId)) {
+                    conflicts.add(interval);
+                }
+            }
+
+            for (EventInterval series : index.series.overlapping(start, end)) {
+                if (series.id().equals(excludeId)) {
+                    continue;
+                }
+                // An occurrence overlaps if it starts before end and ends after start
+                Duration length = Duration.between(series.startTime(), series.endTime());
+                LocalDateTime from = start.minus(length).plusNanos(1);
+                Set<LocalDateTime> cancelled = index.cancelled.getOrDefault(series.id(), Set.of());
+                for (LocalDateTime occurrence : recurrenceExpansionService.occurrences(
+                        series.id(), series.recurrencePattern(), series.startTime(), from, end)) {
+                    if (!cancelled.contains(occurrence)) {
+                        conflicts.add(new EventInterval(series.id(), series.title(), occurrence,
+                                occurrence.plus(length), true, series.recurrencePattern(), series.recurrenceEnd()));
+                    }
+                }
+            }
+            return null;
+        });
+
+        conflicts.sort(Comparator.comparing(EventInterval::startTime).thenComparing(EventInterval::id));
+        return conflicts;
+    }
+
+    // Applied once the write has committed, so the index never holds rolled back changes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventsChanged(EventsChanged change) {
+        Long userId = change.userId();
+        switch (change.kind()) {
+            case CREATED, UPDATED -> {
+                List<EventInterval> intervals = new ArrayList<>(change.events().size());
+                for (Event event : change.events()) {
+                    intervals.add(new EventInterval(event.getId(), event.getTitle(), event.getStartTime(),
+                            event.getEndTime(), event.isRecurring(), event.getRecurrencePattern(),
+                            event.getRecurrenceEnd()));
+                }
+                indexes.apply(userId, change.version(), index -> intervals.forEach(index::put));
+            }
+            case DELETED -> indexes.apply(userId, change.version(), index -> {
+                index.remove(change.eventId());
+                index.cancelled.remove(change.eventId());
+            });
+            case OCCURRENCE_CANCELLED -> indexes.apply(userId, change.version(), index ->
+                    index.cancelled.computeIfAbsent(change.eventId(), id -> new HashSet<>()).add(change.occurrenceStart()));
+            // Nothing indexed here changed, the index only keeps up with the version
+            case COMPLETED, OCCURRENCE_COMPLETED -> indexes.apply(userId, change.version(), index -> {});
+            // Cheaper to rebuild on next use than to apply thousands of inserts
+            case IMPORTED -> indexes.invalidate(userId);
+        }
+    }
+
+    private void load(Long userId, UserIndex index) {
+        for (EventInterval interval : eventRepository.findIntervalsByUserId(userId)) {
+            index.put(interval);
+        }
+        for (Object[] row : occurrenceOverrideRepository.findCancelledByUserId(userId)) {
+            index.cancelled.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((LocalDateTime) row[1]);
+        }
+    }
+
+    private static final class UserIndex {
+        final IntervalTree<EventInterval> singles = new IntervalTree<>();
+        final IntervalTree<EventInterval> series = new IntervalTree<>();
+        final Map<Long, EventInterval> byId = new HashMap<>();
+        final Map<Long, Set<LocalDateTime>> cancelled = new HashMap<>();
+
+        void put(EventInterval interval) {
+            remove(interval.id());
+            byId.put(interval.id(), interval);
+            if (interval.recurring()) {
+                series.insert(interval.id(), interval.startTime(), seriesSpanEnd(interval), interval);
+            } else {
+                singles.insert(interval.id(), interval.startTime(), interval.endTime(), interval);
+            }
+        }
+
+        void remove(Long id) {
+            EventInterval old = byId.remove(id);
+            if (old == null) {
+                return;
+            }
+            if (old.recurring()) {
+                series.remove(id, old.startTime());
+            } else {
+                singles.remove(id, old.startTime());
+            }
+        }
+
+        // End of the series' last occurrence; open-ended series span everything after their start
+        private static LocalDateTime seriesSpanEnd(EventInterval series) {
+            if (series.recurrenceEnd() == null) {
+                return LocalDateTime.MAX;
+            }
+            return series.recurrenceEnd().plus(Duration.between(series.startTime(), series.endTime()));
+        }
+    }
+}
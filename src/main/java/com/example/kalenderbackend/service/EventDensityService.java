@@ -0,0 +1,178 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.DensityBucket;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.EventOccurrenceOverride;
+import com.example.kalenderbackend.repository.EventOccurrenceOverrideRepository;
+import com.example.kalenderbackend.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-day/per-week event counts for month views. Single events are counted by one GROUP BY,
+// recurring series by expanding their occurrences. Days are computed a calendar month at a time
+// and months that lie completely in the past are cached per user until the user's events change.
+@Service
+public class EventDensityService {
+
+    public enum Granularity { DAY, WEEK }
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    private final int maxUsers;
+
+    // LRU over users: closed month -> (day -> {events, completed}); days without events are absent
+    private final Map<Long, Map<YearMonth, Map<LocalDate, long[]>>> closedMonths;
+
+    public EventDensityService(@Value("${events.density.max-users:1000}") int maxUsers) {
+        this.maxUsers = maxUsers;
+        this.closedMonths = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Map<YearMonth, Map<LocalDate, long[]>>> eldest) {
+                return size() > EventDensityService.this.maxUsers;
+            }
+        };
+    }
+
+    // One bucket per day or ISO week of [from, to] (inclusive), empty buckets included
+    @Transactional(readOnly = true)
+    public List<DensityBucket> getDensity(Long userId, LocalDate from, LocalDate to, Granularity granularity) {
+        Map<LocalDate, long[]> days = countDays(userId, from, to);
+
+        List<DensityBucket> buckets = new ArrayList<>();
+        long events = 0;
+        long completed = 0;
+        LocalDate bucketStart = bucketStart(from, granularity);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate start = bucketStart(day, granularity);
+            if (!start.equals(bucketStart)) {
+                buckets.add(new DensityBucket(bucketStart, events, completed));
+                bucketStart = start;
+                events = 0;
+                completed = 0;
+            }
+            long[] counts = days.get(day);
+            if (counts != null) {
+                events += counts[0];
+                completed += counts[1];
+            }
+        }
+        buckets.add(new DensityBucket(bucketStart, events, completed));
+        return buckets;
+    }
+
+    // Any committed write drops the user's cached months
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventsChanged(EventsChanged change) {
+        synchronized (closedMonths) {
+            closedMonths.remove(change.userId());
+        }
+    }
+
+    private Map<LocalDate, long[]> countDays(Long userId, LocalDate from, LocalDate to) {
+        Map<YearMonth, Map<LocalDate, long[]>> cache;
+        synchronized (closedMonths) {
+            cache = closedMonths.computeIfAbsent(userId, id -> new HashMap<>());
+        }
+
+        Map<LocalDate, long[]> days = new HashMap<>();
+        List<YearMonth> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+                Map<LocalDate, long[]> cached = cache.get(month);
+                if (cached != null) {
+                    days.putAll(cached);
+                } else {
+                    missing.add(month);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return days;
+        }
+
+        // Whole months from the first to the last missing one, so the closed ones can be cached
+        LocalDateTime queryFrom = missing.get(0).atDay(1).atStartOfDay();
+        LocalDateTime queryTo = missing.get(missing.size() - 1).plusMonths(1).atDay(1).atStartOfDay();
+        Map<LocalDate, long[]> counted = queryDays(userId, queryFrom, queryTo);
+        days.putAll(counted);
+
+        // An invalidation that commits meanwhile replaces the user's map, this write then goes nowhere
+        YearMonth current = YearMonth.now();
+        synchronized (cache) {
+            for (YearMonth month : missing) {
+                if (month.isBefore(current)) {
+                    Map<LocalDate, long[]> monthDays = new HashMap<>();
+                    counted.forEach((day, counts) -> {
+                        if (YearMonth.from(day).equals(month)) {
+                            monthDays.put(day, counts);
+                        }
+                    });
+                    cache.put(month, monthDays);
+                }
+            }
+        }
+        return days;
+    }
+
+    // One aggregate for single events, plus masters and overrides when the user has series in the window
+    private Map<LocalDate, long[]> queryDays(Long userId, LocalDateTime from, LocalDateTime to) {
+        Map<LocalDate, long[]> days = new HashMap<>();
+        for (Object[] row : eventRepository.countPerDay(userId, from, to)) {
+            days.put((LocalDate) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+
+        List<Event> masters = eventRepository.findRecurringInWindow(userId, from, to);
+        if (masters.isEmpty()) {
+            return days;
+        }
+
+        Map<String, EventOccurrenceOverride> overrides = new HashMap<>();
+        List<Long> masterIds = masters.stream().map(Event::getId).toList();
+        for (EventOccurrenceOverride override : occurrenceOverrideRepository.findInWindow(masterIds, from, to)) {
+            overrides.put(override.getEvent().getId() + "@" + override.getOccurrenceStart(), override);
+        }
+
+        for (Event master : masters) {
+            for (LocalDateTime start : recurrenceExpansionService.occurrences(master, from, to)) {
+                EventOccurrenceOverride override = overrides.get(master.getId() + "@" + start);
+                if (override != null && override.isCancelled()) {
+                    continue;
+                }
+                long[] counts = days.computeIfAbsent(start.toLocalDate(), day -> new long[2]);
+                counts[0]++;
+                if (override != null && override.isCompleted()) {
+                    counts[1]++;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static LocalDate bucketStart(LocalDate day, Granularity granularity) {
+        return granularity == Granularity.WEEK
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day;
+    }
+}
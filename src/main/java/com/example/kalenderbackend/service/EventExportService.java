@@ -0,0 +1,84 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.util.ICalendarWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Streams a user's whole calendar straight from a DB cursor to the response.
+// Each row is detached after it is written, so memory stays flat regardless of history size.
+@Service
+@Transactional(readOnly = true)
+public class EventExportService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // One JSON object per line (application/x-ndjson)
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        try (Stream<Event> events = eventRepository.streamByUserId(userId);
+             SequenceWriter writer = objectMapper.writer()
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET) // container owns the response stream
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Iterator<Event> it = events.iterator();
+            while (it.hasNext()) {
+                Event event = it.next();
+                writer.write(eventMapper.toDTO(event));
+                entityManager.detach(event);
+            }
+            writer.flush();
+        }
+    }
+
+    // RFC 5545 text/calendar
+    public void exportICalendar(Long userId, OutputStream out) throws IOException {
+        BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ICalendarWriter calendar = new ICalendarWriter(bufferedWriter);
+
+        calendar.writeHeader();
+        try (Stream<Event> events = eventRepository.streamByUserId(userId)) {
+            events.forEach(event -> {
+                try {
+                    calendar.writeEvent(event, categoryService.name(event.getCategoryId()),
+                            categoryService.color(event.getCategoryId(), event.getColor()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(event);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        calendar.writeFooter();
+    }
+}
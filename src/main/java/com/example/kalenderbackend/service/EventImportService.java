@@ -0,0 +1,152 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.CreateEventRequest;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.ICalendarReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bulk .ics import. Events are parsed one at a time and written in chunks,
+// each chunk in its own transaction with JDBC batching, so a bad chunk
+// doesn't roll back the whole import.
+@Service
+public class EventImportService {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private EventRequestValidator requestValidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${events.import.chunk-size:500}")
+    private int chunkSize;
+
+    // Cap on how many per-item errors we echo back
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    public EventImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportResult importICalendar(Long userId, Reader source) throws IOException {
+        ImportResult result = new ImportResult();
+        ICalendarReader reader = new ICalendarReader(source);
+        List<CreateEventRequest> chunk = new ArrayList<>(chunkSize);
+
+        while (true) {
+            CreateEventRequest request;
+            try {
+                request = reader.next();
+            } catch (IllegalArgumentException | DateTimeException e) {
+                result.addError(reader.getEventCount(), e.getMessage());
+                continue;
+            }
+            if (request == null) {
+                break;
+            }
+
+            String error = requestValidator.validate(request);
+            if (error != null) {
+                result.addError(reader.getEventCount(), error);
+                continue;
+            }
+
+            chunk.add(request);
+            if (chunk.size() >= chunkSize) {
+                writeChunk(userId, chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(userId, chunk, result);
+        }
+        result.setTotalEvents(reader.getEventCount());
+        return result;
+    }
+
+    private void writeChunk(Long userId, List<CreateEventRequest> requests, ImportResult result) {
+        int chunkNumber = result.getChunks().size() + 1;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Reference only, no SELECT for the owner
+                User user = userRepository.getReferenceById(userId);
+                long version = userVersionService.eventsChanged(userId);
+                List<Event> events = new ArrayList<>(requests.size());
+                for (CreateEventRequest request : requests) {
+                    Event event = eventMapper.toEntity(request, user);
+                    event.setChangeVersion(version);
+                    if (event.getXpReward() == null) {
+                        event.setXpReward(10);
+                    }
+                    events.add(event);
+                }
+                eventRepository.saveAll(events);
+                entityManager.flush();
+                eventPublisher.publishEvent(EventsChanged.imported(userId, version, events));
+                // Keep the persistence context from growing across chunks
+                entityManager.clear();
+            });
+            result.getChunks().add(new ChunkResult(chunkNumber, requests.size(), true, null));
+            result.setImported(result.getImported() + requests.size());
+        } catch (RuntimeException e) {
+            result.getChunks().add(new ChunkResult(chunkNumber, requests.size(), false, e.getMessage()));
+            result.setFailed(result.getFailed() + requests.size());
+        }
+    }
+
+    @lombok.Data
+    public static class ImportResult {
+        private int totalEvents;
+        private int imported;
+        private int failed;
+        private List<ChunkResult> chunks = new ArrayList<>();
+        private List<ItemError> errors = new ArrayList<>();
+
+        void addError(int eventNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ItemError(eventNumber, message));
+            }
+        }
+    }
+
+    public record ChunkResult(int chunk, int events, boolean committed, String error) {
+    }
+
+    // eventNumber is the 1-based position of the VEVENT in the file
+    public record ItemError(int eventNumber, String message) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.CreateEventRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Per-item checks for bulk writes (batch API, .ics import), where one bad item must be reported
+// instead of failing the request: bean validation plus the time order @Valid doesn't cover
+@Component
+public class EventRequestValidator {
+
+    @Autowired
+    private Validator validator;
+
+    // The first problem found, or null if the request is fine
+    public String validate(CreateEventRequest request) {
+        if (request == null) {
+            return "Item is required";
+        }
+        Set<ConstraintViolation<CreateEventRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getEndTime().isBefore(request.getStartTime())) {
+            return "End time is before start time";
+        }
+        return null;
+    }
+}
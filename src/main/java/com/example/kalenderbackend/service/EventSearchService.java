@@ -0,0 +1,107 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.InvertedIndex;
+import com.example.kalenderbackend.util.UserIndexCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Full-text search over title, location and description against an in-memory inverted index per
+// user. Like the conflict index, a user's index is loaded on first use (one projection query) and
+// then kept current from the EventsChanged the write paths publish, applied after commit (see UserIndexCache).
+// A search is a version check and a lookup in the index plus one query for the DTOs of the hits.
+@Service
+public class EventSearchService {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final UserIndexCache<InvertedIndex> indexes;
+
+    public EventSearchService(@Value("${events.search.max-users:1000}") int maxUsers) {
+        this.indexes = new UserIndexCache<>(maxUsers, InvertedIndex::new, this::load,
+                userId -> userRepository.findEventsVersion(userId));
+    }
+
+    // Best matches first; every word of the query has to match (as a word prefix)
+    @Transactional(readOnly = true)
+    public List<EventDTO> search(Long userId, String query, int limit) {
+        List<InvertedIndex.Hit> hits = indexes.read(userId, index -> index.search(query, limit));
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(hits.size());
+        hits.forEach(hit -> ids.add(hit.id()));
+        Map<Long, EventDTO> byId = new HashMap<>();
+        for (EventDTO dto : eventRepository.findDTOsByIdIn(ids)) {
+            byId.put(dto.getId(), dto);
+        }
+        List<EventDTO> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // Missing if deleted after the lookup
+            EventDTO dto = byId.get(id);
+            if (dto != null) {
+                results.add(dto);
+            }
+        }
+        return results;
+    }
+
+    // Applied once the write has committed, so the index never holds rolled back changes
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventsChanged(EventsChanged change) {
+        Long userId = change.userId();
+        switch (change.kind()) {
+            case CREATED, UPDATED -> {
+                if (!change.textChanged()) {
+                    indexes.apply(userId, change.version(), index -> {});
+                    return;
+                }
+                Map<Long, InvertedIndex.Field[]> written = new HashMap<>();
+                for (Event event : change.events()) {
+                    written.put(event.getId(), fields(event.getTitle(), event.getLocation(), event.getDescription()));
+                }
+                indexes.apply(userId, change.version(), index -> written.forEach(index::put));
+            }
+            case DELETED -> indexes.apply(userId, change.version(), index -> index.remove(change.eventId()));
+            // Bulk import: drop the index, it is rebuilt on next use
+            case IMPORTED -> indexes.invalidate(userId);
+            // Nothing indexed here changed, the index only keeps up with the version
+            default -> indexes.apply(userId, change.version(), index -> {});
+        }
+    }
+
+    private void load(Long userId, InvertedIndex index) {
+        for (Object[] row : eventRepository.findSearchFieldsByUserId(userId)) {
+            index.put((Long) row[0], fields((String) row[1], (String) row[2], (String) row[3]));
+        }
+    }
+
+    private static InvertedIndex.Field[] fields(String title, String location, String description) {
+        return new InvertedIndex.Field[] {
+                new InvertedIndex.Field(title, TITLE_WEIGHT),
+                new InvertedIndex.Field(location, LOCATION_WEIGHT),
+                new InvertedIndex.Field(description, DESCRIPTION_WEIGHT)
+        };
+    }
+}
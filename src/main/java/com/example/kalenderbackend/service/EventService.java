@@ -1,17 +1,32 @@
 package com.example.kalenderbackend.service;
 
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventPatch;
 import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.EventOccurrenceOverride;
 import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventOccurrenceOverrideRepository;
 import com.example.kalenderbackend.repository.EventRepository;
 import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.EventCursor;
+import com.example.kalenderbackend.util.RecurrenceRule;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -26,55 +41,215 @@ public class EventService {
     @Autowired
     private AchievementService achievementService;
 
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private EventSyncService eventSyncService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private static final Comparator<EventDTO> BY_START =
+            Comparator.comparing(EventDTO::getStartTime).thenComparing(EventDTO::getId);
+
     // Create new event
     public Event createEvent(Event event) {
         event.setCreatedAt(LocalDateTime.now());
-        return eventRepository.save(event);
+        event.setChangeVersion(userVersionService.eventsChanged(event.getUser().getId()));
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(EventsChanged.created(saved.getUser().getId(), saved.getChangeVersion(),
+                List.of(saved)));
+        return saved;
     }
 
     // Get all events for user
+    @Transactional(readOnly = true)
     public List<Event> getUserEvents(Long userId) {
         return eventRepository.findByUserId(userId);
     }
 
-    // Get events by date
-    public List<Event> getEventsByDate(Long userId, LocalDate date) {
-        LocalDateTime startOfDay = date.atStartOfDay();
-        LocalDateTime endOfDay = date.atTime(23, 59, 59);
-        return eventRepository.findByUserIdAndStartTimeBetween(userId, startOfDay, endOfDay);
+    // Keyset pages. One extra row is fetched so the caller can tell whether there is a next page.
+    // Reads project into DTOs in read-only transactions: one statement per page, no dirty checking
+    @Transactional(readOnly = true)
+    public List<EventDTO> getUserEventsPage(Long userId, EventCursor cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return eventRepository.findPageByUserId(userId, pageable);
+        }
+        return eventRepository.findPageByUserIdAfter(userId, cursor.startTime(), cursor.id(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventDTO> getUpcomingEventsPage(Long userId, EventCursor cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return eventRepository.findUpcomingPageByUserId(userId, LocalDateTime.now(), pageable);
+        }
+        // The cursor is already past "now" of the first page, continue from it
+        return eventRepository.findPageByUserIdAfter(userId, cursor.startTime(), cursor.id(), pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public List<EventDTO> getEventsByCategoryPage(Long userId, String category, EventCursor cursor, int limit) {
+        // Name -> dictionary id once, the page query then compares integers
+        Integer categoryId = categoryService.findId(userId, category);
+        if (categoryId == null) {
+            return List.of();
+        }
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        if (cursor == null) {
+            return eventRepository.findPageByUserIdAndCategory(userId, categoryId, pageable);
+        }
+        return eventRepository.findPageByUserIdAndCategoryAfter(
+                userId, categoryId, cursor.startTime(), cursor.id(), pageable);
+    }
+
+    // Get events by date, recurring events expanded into that day's occurrences
+    @Transactional(readOnly = true)
+    public List<EventDTO> getEventsByDate(Long userId, LocalDate date) {
+        List<EventDTO> events = new ArrayList<>(eventRepository.findDTOsByUserIdAndDate(userId, date));
+        events.addAll(eventMapper.toDTOList(
+                expandOccurrences(userId, date.atStartOfDay(), date.plusDays(1).atStartOfDay())));
+        events.sort(BY_START);
+        return events;
     }
 
-    // Get events by date range
-    public List<Event> getEventsByDateRange(Long userId, LocalDateTime start, LocalDateTime end) {
-        return eventRepository.findByUserIdAndStartTimeBetween(userId, start, end);
+    // Get events by date range (inclusive), recurring events expanded into occurrences
+    @Transactional(readOnly = true)
+    public List<EventDTO> getEventsByDateRange(Long userId, LocalDateTime start, LocalDateTime end) {
+        List<EventDTO> events = new ArrayList<>(eventRepository.findDTOsByUserIdInRange(userId, start, end));
+        events.addAll(eventMapper.toDTOList(expandOccurrences(userId, start, end.plusNanos(1))));
+        events.sort(BY_START);
+        return events;
+    }
+
+    // Occurrences starting in [from, to) of all the users' series, minus cancelled ones
+    @Transactional(readOnly = true)
+    public List<Event> getOccurrences(Collection<Long> userIds, LocalDateTime from, LocalDateTime to) {
+        return expandOccurrences(eventRepository.findRecurringInWindowForUsers(userIds, from, to), from, to);
+    }
+
+    private List<Event> expandOccurrences(Long userId, LocalDateTime from, LocalDateTime to) {
+        return expandOccurrences(eventRepository.findRecurringInWindow(userId, from, to), from, to);
+    }
+
+    // Two queries regardless of how many occurrences there are: masters and their overrides
+    private List<Event> expandOccurrences(List<Event> masters, LocalDateTime from, LocalDateTime to) {
+        if (masters.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Map<LocalDateTime, EventOccurrenceOverride>> overrides = new HashMap<>();
+        List<Long> masterIds = masters.stream().map(Event::getId).toList();
+        for (EventOccurrenceOverride override : occurrenceOverrideRepository.findInWindow(masterIds, from, to)) {
+            overrides.computeIfAbsent(override.getEvent().getId(), id -> new HashMap<>())
+                    .put(override.getOccurrenceStart(), override);
+        }
+
+        List<Event> occurrences = new ArrayList<>();
+        for (Event master : masters) {
+            Map<LocalDateTime, EventOccurrenceOverride> seriesOverrides = overrides.getOrDefault(master.getId(), Map.of());
+            for (LocalDateTime start : recurrenceExpansionService.occurrences(master, from, to)) {
+                EventOccurrenceOverride override = seriesOverrides.get(start);
+                if (override != null && override.isCancelled()) {
+                    continue;
+                }
+                occurrences.add(recurrenceExpansionService.toOccurrence(master, start, override));
+            }
+        }
+        return occurrences;
     }
 
     // Get upcoming events
+    @Transactional(readOnly = true)
     public List<Event> getUpcomingEvents(Long userId) {
         return eventRepository.findByUserIdAndStartTimeAfterOrderByStartTimeAsc(userId, LocalDateTime.now());
     }
 
     // Get events by category
+    @Transactional(readOnly = true)
     public List<Event> getEventsByCategory(Long userId, String category) {
-        return eventRepository.findByUserIdAndCategory(userId, category);
+        Integer categoryId = categoryService.findId(userId, category);
+        return categoryId != null ? eventRepository.findByUserIdAndCategoryId(userId, categoryId) : List.of();
     }
 
-    // Update event
-    public Event updateEvent(Long eventId, Event updatedEvent) {
-        Event existingEvent = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+    // Update event (full replace of the editable fields)
+    public Event updateEvent(Long eventId, Long userId, Event updatedEvent) {
+        Event existingEvent = eventRepository.findByIdAndUserId(eventId, userId)
+                .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
 
         existingEvent.setTitle(updatedEvent.getTitle());
         existingEvent.setDescription(updatedEvent.getDescription());
-        existingEvent.setCategory(updatedEvent.getCategory());
+        existingEvent.setCategoryId(updatedEvent.getCategoryId());
         existingEvent.setStartTime(updatedEvent.getStartTime());
         existingEvent.setEndTime(updatedEvent.getEndTime());
-        existingEvent.setAllDay(updatedEvent.isAllDay());
-        existingEvent.setPriority(updatedEvent.getPriority());
+        existingEvent.setLocation(updatedEvent.getLocation());
+        existingEvent.setColor(updatedEvent.getColor());
+        existingEvent.setReminder(updatedEvent.getReminder());
+        existingEvent.setReminderMinutes(updatedEvent.getReminderMinutes());
         existingEvent.setRecurring(updatedEvent.isRecurring());
         existingEvent.setRecurrencePattern(updatedEvent.getRecurrencePattern());
 
-        return eventRepository.save(existingEvent);
+        existingEvent.setChangeVersion(userVersionService.eventsChanged(existingEvent.getUser().getId()));
+
+        Event saved = eventRepository.save(existingEvent);
+        eventPublisher.publishEvent(EventsChanged.updated(userId, saved.getChangeVersion(), List.of(saved), true));
+        return saved;
+    }
+
+    // Partial update (JSON Merge Patch): only the fields in the patch change, and only changed columns
+    // are written. Moving a single event is one narrow UPDATE that also checks ownership
+    public Event patchEvent(Long eventId, Long userId, EventPatch patch) {
+        if (patch.isEmpty()) {
+            return eventRepository.findByIdAndUserId(eventId, userId)
+                    .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
+        }
+
+        long version = userVersionService.eventsChanged(userId);
+        if (patch.isReschedule()) {
+            LocalDateTime start = patch.getStartTime();
+            checkTimes(start, patch.getEndTime());
+            int updated = eventRepository.reschedule(eventId, userId, start, patch.getEndTime(),
+                    start.truncatedTo(ChronoUnit.SECONDS), version, LocalDateTime.now());
+            if (updated == 1) {
+                // Read back for the response and the subscribers; title and text are unchanged
+                Event saved = eventRepository.findByIdAndUserId(eventId, userId)
+                        .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
+                eventPublisher.publishEvent(EventsChanged.updated(userId, version, List.of(saved), false));
+                return saved;
+            }
+            // Not found, not the user's, or a series: the general path sorts it out
+        }
+
+        Event event = eventRepository.findByIdAndUserId(eventId, userId)
+                .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
+        eventMapper.applyPatch(event, patch);
+        checkTimes(event.getStartTime(), event.getEndTime());
+        event.setChangeVersion(version);
+
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(EventsChanged.updated(userId, version, List.of(saved),
+                patch.has(EventPatch.TITLE) || patch.has(EventPatch.LOCATION) || patch.has(EventPatch.DESCRIPTION)));
+        return saved;
+    }
+
+    private static void checkTimes(LocalDateTime start, LocalDateTime end) {
+        if (end.isBefore(start)) {
+            throw new RuntimeException("End time is before start time");
+        }
     }
 
     // Complete event and award XP
@@ -82,32 +257,28 @@ public class EventService {
         Event event = eventRepository.findByIdAndUserId(eventId, userId)
                 .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
 
-        if (event.isCompleted()) {
+        if (event.isRecurring()) {
+            throw new RuntimeException("Recurring events are completed per occurrence");
+        }
+        if (Boolean.TRUE.equals(event.getCompleted())) {
             throw new RuntimeException("Event already completed");
         }
 
         event.setCompleted(true);
-        event.setCompletedAt(LocalDateTime.now());
 
-        // Calculate XP based on priority and category
+        // Calculate XP based on category and streak
         int baseXP = calculateXP(event);
         event.setXpReward(baseXP);
 
         // Update user stats
         User user = event.getUser();
-        user.setXp(user.getXp() + baseXP);
-        user.setTotalXP(user.getTotalXP() + baseXP);
-        user.setEventsCompleted(user.getEventsCompleted() + 1);
-
-        // Update streak
-        updateUserStreak(user);
-
-        // Check for level up
-        checkAndUpdateLevel(user);
+        awardCompletion(user, baseXP);
 
         // Save event and user
+        event.setChangeVersion(userVersionService.eventsChanged(userId));
         eventRepository.save(event);
         userRepository.save(user);
+        eventPublisher.publishEvent(EventsChanged.completed(userId, event));
 
         // Check for new achievements
         achievementService.checkAndUnlockAchievements(userId);
@@ -115,39 +286,103 @@ public class EventService {
         return event;
     }
 
+    // Complete one occurrence of a recurring event and award XP for it
+    public Event completeOccurrence(Long eventId, Long userId, LocalDateTime occurrenceStart) {
+        Event master = findOccurrenceMaster(eventId, userId, occurrenceStart);
+        EventOccurrenceOverride override = occurrenceOverrideRepository
+                .findByEventIdAndOccurrenceStart(eventId, occurrenceStart)
+                .orElseGet(() -> newOverride(master, occurrenceStart));
+
+        if (override.isCancelled()) {
+            throw new RuntimeException("Occurrence is cancelled");
+        }
+        if (override.isCompleted()) {
+            throw new RuntimeException("Occurrence already completed");
+        }
+
+        int baseXP = calculateXP(recurrenceExpansionService.toOccurrence(master, occurrenceStart, null));
+        override.setCompleted(true);
+        override.setCompletedAt(LocalDateTime.now());
+        override.setXpReward(baseXP);
+
+        User user = master.getUser();
+        awardCompletion(user, baseXP);
+
+        occurrenceOverrideRepository.save(override);
+        userRepository.save(user);
+        // Occurrences are derived from the master, so sync clients refetch the series
+        master.setChangeVersion(userVersionService.eventsChanged(userId));
+        eventPublisher.publishEvent(EventsChanged.occurrence(EventsChanged.Kind.OCCURRENCE_COMPLETED, userId, eventId,
+                occurrenceStart, master.getChangeVersion()));
+
+        achievementService.checkAndUnlockAchievements(userId);
+
+        return recurrenceExpansionService.toOccurrence(master, occurrenceStart, override);
+    }
+
+    // Cancel (skip) one occurrence of a recurring event. XP of a completed occurrence is taken back
+    public void cancelOccurrence(Long eventId, Long userId, LocalDateTime occurrenceStart) {
+        Event master = findOccurrenceMaster(eventId, userId, occurrenceStart);
+        EventOccurrenceOverride override = occurrenceOverrideRepository
+                .findByEventIdAndOccurrenceStart(eventId, occurrenceStart)
+                .orElseGet(() -> newOverride(master, occurrenceStart));
+
+        if (override.isCompleted()) {
+            User user = master.getUser();
+            user.setXp(Math.max(0, user.getXp() - override.getXpReward()));
+            user.setEventsCompleted(Math.max(0, user.getEventsCompleted() - 1));
+            userRepository.save(user);
+            override.setCompleted(false);
+            override.setCompletedAt(null);
+        }
+
+        override.setCancelled(true);
+        occurrenceOverrideRepository.save(override);
+        master.setChangeVersion(userVersionService.eventsChanged(userId));
+        eventPublisher.publishEvent(EventsChanged.occurrence(EventsChanged.Kind.OCCURRENCE_CANCELLED, userId, eventId,
+                occurrenceStart, master.getChangeVersion()));
+    }
+
+    private Event findOccurrenceMaster(Long eventId, Long userId, LocalDateTime occurrenceStart) {
+        Event master = eventRepository.findByIdAndUserId(eventId, userId)
+                .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
+        if (!master.isRecurring()) {
+            throw new RuntimeException("Event is not recurring");
+        }
+        if (!RecurrenceRule.parse(master.getRecurrencePattern()).occursAt(master.getStartTime(), occurrenceStart)) {
+            throw new RuntimeException("Occurrence not found");
+        }
+        return master;
+    }
+
+    private static EventOccurrenceOverride newOverride(Event master, LocalDateTime occurrenceStart) {
+        EventOccurrenceOverride override = new EventOccurrenceOverride();
+        override.setEvent(master);
+        override.setOccurrenceStart(occurrenceStart);
+        return override;
+    }
+
+    // XP, completion count, streak and level for one completed event or occurrence
+    private void awardCompletion(User user, int xp) {
+        user.setXp(user.getXp() + xp);
+        user.setTotalXP(user.getTotalXP() + xp);
+        user.setEventsCompleted(user.getEventsCompleted() + 1);
+
+        // Update streak
+        updateUserStreak(user);
+
+        // Check for level up
+        checkAndUpdateLevel(user);
+    }
+
     // Calculate XP based on event properties
     private int calculateXP(Event event) {
         int baseXP = 10; // Base XP for completing any event
 
-        // Add bonus based on category
-        switch (event.getCategory().toUpperCase()) {
-            case "WORK":
-            case "STUDY":
-                baseXP += 5;
-                break;
-            case "EXERCISE":
-            case "HEALTH":
-                baseXP += 10;
-                break;
-            case "SOCIAL":
-                baseXP += 3;
-                break;
-            case "PERSONAL":
-                baseXP += 2;
-                break;
-        }
-
-        // Add bonus based on priority
-        switch (event.getPriority()) {
-            case HIGH:
-                baseXP += 5;
-                break;
-            case MEDIUM:
-                baseXP += 3;
-                break;
-            case LOW:
-                baseXP += 1;
-                break;
+        // Add bonus based on category (from the cached dictionary row)
+        CategoryService.CategoryInfo category = categoryService.get(event.getCategoryId());
+        if (category != null) {
+            baseXP += category.xpBonus();
         }
 
         // Streak bonus
@@ -185,6 +420,9 @@ public class EventService {
             }
         }
 
+        if (user.getCurrentStreakDays() > user.getLongestStreak()) {
+            user.setLongestStreak(user.getCurrentStreakDays());
+        }
         user.setLastEventDate(now);
     }
 
@@ -210,25 +448,42 @@ public class EventService {
                 .orElseThrow(() -> new RuntimeException("Event not found or unauthorized"));
 
         // If event was completed, remove XP
-        if (event.isCompleted()) {
+        if (Boolean.TRUE.equals(event.getCompleted())) {
             User user = event.getUser();
             user.setXp(Math.max(0, user.getXp() - event.getXpReward()));
             user.setEventsCompleted(Math.max(0, user.getEventsCompleted() - 1));
             userRepository.save(user);
         }
 
+        // Same for completed occurrences of a series; the override rows go with the event (ON DELETE CASCADE)
+        if (event.isRecurring()) {
+            List<EventOccurrenceOverride> completed = occurrenceOverrideRepository.findCompletedByEventId(eventId);
+            if (!completed.isEmpty()) {
+                int xp = completed.stream().mapToInt(o -> o.getXpReward() != null ? o.getXpReward() : 0).sum();
+                User user = event.getUser();
+                user.setXp(Math.max(0, user.getXp() - xp));
+                user.setEventsCompleted(Math.max(0, user.getEventsCompleted() - completed.size()));
+                userRepository.save(user);
+            }
+        }
+
         eventRepository.delete(event);
+        // The tombstone is part of the delete itself (same transaction), the rest follows after commit
+        long version = eventSyncService.eventDeleted(userId, eventId);
+        eventPublisher.publishEvent(EventsChanged.deleted(userId, eventId, version));
     }
 
     // Get user statistics
+    @Transactional(readOnly = true)
     public EventStats getUserStats(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         EventStats stats = new EventStats();
-        stats.totalEvents = eventRepository.countByUserId(userId);
         stats.completedEvents = eventRepository.countByUserIdAndCompleted(userId, true);
         stats.pendingEvents = eventRepository.countByUserIdAndCompleted(userId, false);
+        // completed is NOT NULL, so the two counts cover every event
+        stats.totalEvents = stats.completedEvents + stats.pendingEvents;
         stats.todayEvents = getEventsByDate(userId, LocalDate.now()).size();
         stats.currentStreak = user.getCurrentStreakDays();
         stats.level = user.getLevel();
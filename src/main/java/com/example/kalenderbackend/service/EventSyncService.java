@@ -0,0 +1,192 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventChanges;
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.VersionStamp;
+import com.example.kalenderbackend.entity.EventTombstone;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.EventTombstoneRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.AfterCommit;
+import com.example.kalenderbackend.util.SyncToken;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Delta sync for offline clients. Every event write stamps the event with its owner's next
+// events_version (see UserVersionService) and a delete leaves a tombstone, so the changes since a
+// token are two keyset range reads: the cost follows what changed, not the size of the calendar.
+// Tombstones older than the retention are compacted away; the highest removed version is kept per
+// user (tombstone_floor) and a client whose token is behind it is told to resync.
+@Service
+@Transactional
+public class EventSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSyncService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${events.sync.tombstone-retention-days:30}")
+    private int retentionDays;
+
+    @Value("${events.sync.compact-interval-ms:3600000}")
+    private long compactIntervalMillis;
+
+    private final TransactionTemplate compactTransaction;
+    private final AtomicLong nextCompactAt = new AtomicLong();
+
+    public EventSyncService(PlatformTransactionManager transactionManager) {
+        this.compactTransaction = new TransactionTemplate(transactionManager);
+        this.compactTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Call in the deleting transaction, after the event row is gone. Returns the version of the delete
+    public long eventDeleted(Long userId, Long eventId) {
+        EventTombstone tombstone = new EventTombstone();
+        tombstone.setEventId(eventId);
+        tombstone.setUserId(userId);
+        tombstone.setChangeVersion(userVersionService.eventsChanged(userId));
+        tombstone.setDeletedAt(LocalDateTime.now());
+        // persist, not save: the id is assigned, save would SELECT first to decide insert vs merge
+        entityManager.persist(tombstone);
+        maybeCompact();
+        return tombstone.getChangeVersion();
+    }
+
+    // Changes after since (null = full sync), at most limit per page
+    @Transactional(readOnly = true)
+    public EventChanges getChanges(Long userId, SyncToken since, int limit) {
+        // Read before the changes: anything committed later has a higher version
+        VersionStamp stamp = userRepository.findVersionStamp(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        SyncToken from;
+        if (since == null) {
+            // Deletes up to now happened before the client has seen anything
+            from = new SyncToken(0, 0, stamp.eventsVersion());
+        } else if (since.version() > stamp.eventsVersion() || since.base() > stamp.eventsVersion()
+                || (stamp.tombstoneFloor() > since.base() && stamp.tombstoneFloor() >= since.version())) {
+            // A tombstone the client needs may be compacted, or the token is from another calendar
+            return new EventChanges(List.of(), List.of(), null, false, true);
+        } else {
+            from = since;
+        }
+
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<Object[]> eventKeys = eventRepository.findChangeKeysAfter(userId, from.version(), from.id(), page);
+        // Tombstones up to base are of events the client never got
+        List<EventTombstone> tombstones = from.version() > from.base()
+                ? tombstoneRepository.findChangesAfter(userId, from.version(), from.id(), page)
+                : tombstoneRepository.findChangesAfter(userId, from.base(), Long.MAX_VALUE, page);
+
+        // Merge both keysets in (version, id) order; limit + 1 of each is enough to fill the page
+        List<Change> changes = new ArrayList<>(limit + 1);
+        int e = 0;
+        int t = 0;
+        while (changes.size() <= limit && (e < eventKeys.size() || t < tombstones.size())) {
+            Change event = e < eventKeys.size()
+                    ? new Change((Long) eventKeys.get(e)[1], (Long) eventKeys.get(e)[0], false) : null;
+            Change tombstone = t < tombstones.size()
+                    ? new Change(tombstones.get(t).getChangeVersion(), tombstones.get(t).getEventId(), true) : null;
+            if (tombstone == null || (event != null && event.compareTo(tombstone) < 0)) {
+                changes.add(event);
+                e++;
+            } else {
+                changes.add(tombstone);
+                t++;
+            }
+        }
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+
+        List<Long> changedIds = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Change change : changes) {
+            (change.deleted() ? deleted : changedIds).add(change.id());
+        }
+        List<EventDTO> changed = new ArrayList<>(changedIds.size());
+        if (!changedIds.isEmpty()) {
+            Map<Long, EventDTO> byId = new HashMap<>();
+            for (EventDTO dto : eventRepository.findDTOsByIdIn(changedIds)) {
+                byId.put(dto.getId(), dto);
+            }
+            for (Long id : changedIds) {
+                // Gone if deleted since the keys were read; its tombstone comes on the next call
+                EventDTO dto = byId.get(id);
+                if (dto != null) {
+                    changed.add(dto);
+                }
+            }
+        }
+
+        SyncToken next = from;
+        if (!changes.isEmpty()) {
+            Change last = changes.get(changes.size() - 1);
+            next = new SyncToken(last.version(), last.id(), from.base());
+        }
+        return new EventChanges(changed, deleted, next.encode(), hasMore, false);
+    }
+
+    // Drops tombstones deleted before cutoff and raises the floor of their users. Returns the number removed
+    public int compact(LocalDateTime cutoff) {
+        userRepository.raiseTombstoneFloors(cutoff);
+        return tombstoneRepository.deleteOlderThan(cutoff);
+    }
+
+    // At most one compaction per interval, run after the deleting transaction has committed
+    private void maybeCompact() {
+        long now = System.currentTimeMillis();
+        long compactAt = nextCompactAt.get();
+        if (now >= compactAt && nextCompactAt.compareAndSet(compactAt, now + compactIntervalMillis)) {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+            AfterCommit.run(() -> {
+                try {
+                    Integer removed = compactTransaction.execute(status -> compact(cutoff));
+                    log.debug("Compacted {} event tombstones", removed);
+                } catch (RuntimeException e) {
+                    // The delete itself is committed; the next interval tries again
+                    log.warn("Tombstone compaction failed", e);
+                }
+            });
+        }
+    }
+
+    private record Change(long version, long id, boolean deleted) implements Comparable<Change> {
+        @Override
+        public int compareTo(Change other) {
+            int byVersion = Long.compare(version, other.version);
+            return byVersion != 0 ? byVersion : Long.compare(id, other.id);
+        }
+    }
+}
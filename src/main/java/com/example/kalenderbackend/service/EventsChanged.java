@@ -0,0 +1,46 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One committed write to a user's events. The write paths (EventService, EventBatchService,
+// EventImportService) publish it through the ApplicationEventPublisher; everything that mirrors the
+// events table in memory or pushes changes out (conflict and search indexes, density cache,
+// reminders, the SSE stream) subscribes with @TransactionalEventListener and sees it after commit.
+// version is the owner's events_version the write was stamped with. events holds the written
+// entities for CREATED, UPDATED, COMPLETED and IMPORTED; the others only carry the event id.
+public record EventsChanged(Kind kind, Long userId, long version, List<Event> events, Long eventId,
+                            LocalDateTime occurrenceStart, boolean textChanged) {
+
+    public enum Kind { CREATED, UPDATED, COMPLETED, DELETED, OCCURRENCE_COMPLETED, OCCURRENCE_CANCELLED, IMPORTED }
+
+    public static EventsChanged created(Long userId, long version, List<Event> events) {
+        return new EventsChanged(Kind.CREATED, userId, version, events, null, null, true);
+    }
+
+    // textChanged = false when title, location and description are untouched (search index skips it)
+    public static EventsChanged updated(Long userId, long version, List<Event> events, boolean textChanged) {
+        return new EventsChanged(Kind.UPDATED, userId, version, events, null, null, textChanged);
+    }
+
+    public static EventsChanged completed(Long userId, Event event) {
+        return new EventsChanged(Kind.COMPLETED, userId, event.getChangeVersion(), List.of(event), event.getId(),
+                null, false);
+    }
+
+    public static EventsChanged deleted(Long userId, Long eventId, long version) {
+        return new EventsChanged(Kind.DELETED, userId, version, List.of(), eventId, null, false);
+    }
+
+    public static EventsChanged occurrence(Kind kind, Long userId, Long eventId, LocalDateTime occurrenceStart,
+                                           long version) {
+        return new EventsChanged(kind, userId, version, List.of(), eventId, occurrenceStart, false);
+    }
+
+    // Bulk import: too many events to apply one by one, in-memory indexes are rebuilt instead
+    public static EventsChanged imported(Long userId, long version, List<Event> events) {
+        return new EventsChanged(Kind.IMPORTED, userId, version, events, null, null, true);
+    }
+}
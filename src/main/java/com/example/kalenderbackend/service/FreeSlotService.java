@@ -0,0 +1,103 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.FreeSlot;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.EventOccurrenceOverride;
+import com.example.kalenderbackend.repository.EventOccurrenceOverrideRepository;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.util.SlotTimeline;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// "Find a time that works for everyone". Each participant's busy time in the window becomes a
+// slot bitmap (two queries for all participants together), the bitmaps are OR-ed word by word
+// and the earliest free runs of the requested length are read off the result.
+@Service
+@Transactional(readOnly = true)
+public class FreeSlotService {
+
+    // Longest recurring occurrence we look back for when it may reach into the window
+    private static final Duration MAX_OCCURRENCE_LOOKBACK = Duration.ofDays(1);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventOccurrenceOverrideRepository occurrenceOverrideRepository;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Value("${availability.slot-minutes:15}")
+    private int slotMinutes;
+
+    public List<FreeSlot> findCommonFreeSlots(Collection<Long> userIds, LocalDateTime from, LocalDateTime to,
+                                              int durationMinutes, int limit,
+                                              LocalTime dayStart, LocalTime dayEnd) {
+        SlotTimeline combined = new SlotTimeline(from, to, slotMinutes);
+        for (SlotTimeline timeline : buildTimelines(userIds, from, to).values()) {
+            combined.or(timeline);
+        }
+        if (dayStart != null && dayEnd != null) {
+            combined.markBusyOutside(dayStart, dayEnd);
+        }
+
+        int lengthSlots = (durationMinutes + slotMinutes - 1) / slotMinutes;
+        List<FreeSlot> slots = new ArrayList<>();
+        for (int slot : combined.firstFreeRuns(lengthSlots, limit)) {
+            LocalDateTime start = combined.slotStart(slot);
+            slots.add(new FreeSlot(start, start.plusMinutes(durationMinutes)));
+        }
+        return slots;
+    }
+
+    // One busy timeline per user, built from single events and expanded recurring occurrences
+    public Map<Long, SlotTimeline> buildTimelines(Collection<Long> userIds, LocalDateTime from, LocalDateTime to) {
+        Map<Long, SlotTimeline> timelines = new HashMap<>();
+        for (Long userId : userIds) {
+            timelines.put(userId, new SlotTimeline(from, to, slotMinutes));
+        }
+
+        for (Object[] row : eventRepository.findBusyIntervals(userIds, from, to)) {
+            timelines.get((Long) row[0]).markBusy((LocalDateTime) row[1], (LocalDateTime) row[2]);
+        }
+
+        LocalDateTime lookbackFrom = from.minus(MAX_OCCURRENCE_LOOKBACK);
+        List<Event> masters = eventRepository.findRecurringInWindowForUsers(userIds, lookbackFrom, to);
+        if (masters.isEmpty()) {
+            return timelines;
+        }
+
+        Set<String> cancelled = new HashSet<>();
+        List<Long> masterIds = masters.stream().map(Event::getId).toList();
+        for (EventOccurrenceOverride override : occurrenceOverrideRepository.findInWindow(masterIds, lookbackFrom, to)) {
+            if (override.isCancelled()) {
+                cancelled.add(override.getEvent().getId() + "@" + override.getOccurrenceStart());
+            }
+        }
+
+        for (Event master : masters) {
+            SlotTimeline timeline = timelines.get(master.getUser().getId());
+            Duration length = Duration.between(master.getStartTime(), master.getEndTime());
+            for (LocalDateTime start : recurrenceExpansionService.occurrences(master, lookbackFrom, to)) {
+                if (!cancelled.contains(master.getId() + "@" + start)) {
+                    timeline.markBusy(start, start.plus(length));
+                }
+            }
+        }
+        return timelines;
+    }
+}
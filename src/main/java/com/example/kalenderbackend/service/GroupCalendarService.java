@@ -0,0 +1,299 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventPage;
+import com.example.kalenderbackend.dto.GroupDTO;
+import com.example.kalenderbackend.dto.GroupMemberDTO;
+import com.example.kalenderbackend.entity.CalendarGroup;
+import com.example.kalenderbackend.entity.CalendarGroupMember;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.CalendarGroupMemberRepository;
+import com.example.kalenderbackend.repository.CalendarGroupRepository;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.EventCursor;
+import com.example.kalenderbackend.util.KWayMergeIterator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@Service
+@Transactional
+public class GroupCalendarService {
+
+    private static final Comparator<Event> TIMELINE_ORDER =
+            Comparator.comparing(Event::getStartTime).thenComparing(Event::getId);
+
+    @Autowired
+    private CalendarGroupRepository groupRepository;
+
+    @Autowired
+    private CalendarGroupMemberRepository memberRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventMapper eventMapper;
+
+    // Create a group, the creator becomes its owner
+    public GroupDTO createGroup(Long userId, String name) {
+        User owner = userRepository.getReferenceById(userId);
+
+        CalendarGroup group = new CalendarGroup();
+        group.setName(name.trim());
+        group.setOwner(owner);
+        groupRepository.save(group);
+
+        CalendarGroupMember member = new CalendarGroupMember();
+        member.setGroup(group);
+        member.setUser(owner);
+        member.setRole(CalendarGroupMember.Role.OWNER);
+        // Creating the group is the owner's own choice to share with it
+        member.setStatus(CalendarGroupMember.Status.ACTIVE);
+        member.setSharing(CalendarGroupMember.Sharing.DETAILS);
+        memberRepository.save(member);
+
+        return toGroupDTO(member);
+    }
+
+    // Includes pending invitations (status INVITED)
+    @Transactional(readOnly = true)
+    public List<GroupDTO> getGroups(Long userId) {
+        return memberRepository.findByUserIdWithGroup(userId).stream()
+                .map(this::toGroupDTO)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<GroupMemberDTO> getMembers(Long groupId, Long userId) {
+        requireMember(groupId, userId);
+        return memberRepository.findByGroupIdWithUser(groupId).stream()
+                .map(m -> new GroupMemberDTO(m.getUser().getId(), m.getUser().getUsername(), m.getRole(),
+                        m.getStatus(), m.getSharing()))
+                .toList();
+    }
+
+    // Adding someone only invites them: they share nothing and see nothing until they accept
+    public GroupMemberDTO addMember(Long groupId, Long userId, String username, CalendarGroupMember.Role role) {
+        CalendarGroupMember caller = requireMember(groupId, userId);
+        if (!caller.canManageMembers()) {
+            throw new AccessDeniedException("Only owners and admins can add members");
+        }
+        if (role == CalendarGroupMember.Role.OWNER) {
+            throw new IllegalArgumentException("A group has exactly one owner");
+        }
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (memberRepository.findByGroupIdAndUserId(groupId, user.getId()).isPresent()) {
+            throw new IllegalArgumentException("User is already a member or invited");
+        }
+
+        CalendarGroupMember member = new CalendarGroupMember();
+        member.setGroup(caller.getGroup());
+        member.setUser(user);
+        member.setRole(role != null ? role : CalendarGroupMember.Role.MEMBER);
+        memberRepository.save(member);
+
+        return new GroupMemberDTO(user.getId(), user.getUsername(), member.getRole(), member.getStatus(),
+                member.getSharing());
+    }
+
+    // The invited user joins and picks what to share
+    public GroupDTO acceptInvitation(Long groupId, Long userId, CalendarGroupMember.Sharing sharing) {
+        CalendarGroupMember member = requireInvitation(groupId, userId);
+        member.setStatus(CalendarGroupMember.Status.ACTIVE);
+        member.setSharing(sharing);
+        member.setJoinedAt(LocalDateTime.now());
+        return toGroupDTO(member);
+    }
+
+    public void declineInvitation(Long groupId, Long userId) {
+        memberRepository.delete(requireInvitation(groupId, userId));
+    }
+
+    // Owners/admins can remove others, anyone can leave. The owner can't leave their own group
+    public void removeMember(Long groupId, Long userId, Long memberUserId) {
+        CalendarGroupMember caller = requireMember(groupId, userId);
+        if (!userId.equals(memberUserId) && !caller.canManageMembers()) {
+            throw new AccessDeniedException("Only owners and admins can remove members");
+        }
+
+        CalendarGroupMember member = memberRepository.findByGroupIdAndUserId(groupId, memberUserId)
+                .orElseThrow(() -> new RuntimeException("Member not found"));
+        if (member.getRole() == CalendarGroupMember.Role.OWNER) {
+            throw new IllegalArgumentException("The owner can't be removed");
+        }
+        memberRepository.delete(member);
+    }
+
+    // Each member decides what the rest of the group sees of their calendar
+    public GroupDTO updateSharing(Long groupId, Long userId, CalendarGroupMember.Sharing sharing) {
+        CalendarGroupMember member = requireMember(groupId, userId);
+        member.setSharing(sharing);
+        return toGroupDTO(member);
+    }
+
+    // One keyset page of the merged group timeline in [from, to). Every sharing member gets
+    // its own ordered cursor, the cursors are merged lazily, so a page costs at most one small
+    // query per member no matter how many events the group has in the window.
+    @Transactional(readOnly = true)
+    public EventPage getGroupEvents(Long groupId, Long userId, LocalDateTime from, LocalDateTime to,
+                                    EventCursor cursor, int limit) {
+        requireMember(groupId, userId);
+
+        // Members (with users) are loaded once here, so event.getUser() resolves without extra selects
+        Map<Long, CalendarGroupMember.Sharing> sharing = new HashMap<>();
+        for (CalendarGroupMember member : memberRepository.findByGroupIdWithUser(groupId)) {
+            if (member.isActive() && member.getSharing() != CalendarGroupMember.Sharing.NONE) {
+                sharing.put(member.getUser().getId(), member.getSharing());
+            }
+        }
+        if (sharing.isEmpty()) {
+            return new EventPage(List.of(), null, false);
+        }
+
+        // Start just before the window when there is no cursor; the query also bounds by from
+        LocalDateTime afterStart = cursor != null ? cursor.startTime() : from.minusSeconds(1);
+        long afterId = cursor != null ? cursor.id() : 0L;
+
+        List<Iterator<Event>> sources = new ArrayList<>(sharing.size() + 1);
+        for (Long memberId : sharing.keySet()) {
+            sources.add(new MemberCursor(memberId, from, to, afterStart, afterId, limit + 1));
+        }
+        sources.add(occurrencesAfter(sharing.keySet(), from, to, afterStart, afterId).iterator());
+
+        KWayMergeIterator<Event> timeline = new KWayMergeIterator<>(sources, TIMELINE_ORDER);
+        List<Event> rows = new ArrayList<>(limit + 1);
+        while (rows.size() <= limit && timeline.hasNext()) {
+            rows.add(timeline.next());
+        }
+
+        EventPage page = eventMapper.toPage(rows, limit);
+        for (EventDTO event : page.getEvents()) {
+            if (sharing.get(event.getUserId()) == CalendarGroupMember.Sharing.FREE_BUSY) {
+                maskDetails(event);
+            }
+        }
+        return page;
+    }
+
+    // Recurring occurrences are expanded for the whole window (bounded by the rules, not the rows)
+    private List<Event> occurrencesAfter(Iterable<Long> userIds, LocalDateTime from, LocalDateTime to,
+                                         LocalDateTime afterStart, long afterId) {
+        List<Long> ids = new ArrayList<>();
+        userIds.forEach(ids::add);
+        List<Event> occurrences = new ArrayList<>();
+        for (Event occurrence : eventService.getOccurrences(ids, from, to)) {
+            int cmp = occurrence.getStartTime().compareTo(afterStart);
+            if (cmp > 0 || (cmp == 0 && occurrence.getId() > afterId)) {
+                occurrences.add(occurrence);
+            }
+        }
+        occurrences.sort(TIMELINE_ORDER);
+        return occurrences;
+    }
+
+    private static void maskDetails(EventDTO event) {
+        event.setTitle("Busy");
+        event.setDescription(null);
+        event.setLocation(null);
+        event.setCategory(null);
+        event.setColor(null);
+        event.setXpReward(null);
+        event.setReminder(null);
+        event.setReminderMinutes(null);
+        event.setRecurrencePattern(null);
+    }
+
+    // Active members only, a pending invitation grants nothing
+    private CalendarGroupMember requireMember(Long groupId, Long userId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new RuntimeException("Group not found");
+        }
+        return memberRepository.findByGroupIdAndUserId(groupId, userId)
+                .filter(CalendarGroupMember::isActive)
+                .orElseThrow(() -> new AccessDeniedException("Not a member of this group"));
+    }
+
+    private CalendarGroupMember requireInvitation(Long groupId, Long userId) {
+        return memberRepository.findByGroupIdAndUserId(groupId, userId)
+                .filter(m -> m.getStatus() == CalendarGroupMember.Status.INVITED)
+                .orElseThrow(() -> new RuntimeException("Invitation not found"));
+    }
+
+    private GroupDTO toGroupDTO(CalendarGroupMember member) {
+        CalendarGroup group = member.getGroup();
+        return new GroupDTO(group.getId(), group.getName(), member.getRole(), member.getStatus(),
+                member.getSharing(), group.getCreatedAt());
+    }
+
+    // Lazily paged (startTime, id)-ordered single events of one member. The next batch is only
+    // fetched when the merge actually needs this member's next event.
+    private final class MemberCursor implements Iterator<Event> {
+        private final Long userId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final int batchSize;
+        private final Deque<Event> buffer = new ArrayDeque<>();
+        private LocalDateTime afterStart;
+        private long afterId;
+        private boolean exhausted;
+
+        MemberCursor(Long userId, LocalDateTime from, LocalDateTime to,
+                     LocalDateTime afterStart, long afterId, int batchSize) {
+            this.userId = userId;
+            this.from = from;
+            this.to = to;
+            this.afterStart = afterStart;
+            this.afterId = afterId;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) {
+                List<Event> batch = eventRepository.findRangePageByUserIdAfter(
+                        userId, from, to, afterStart, afterId, PageRequest.of(0, batchSize));
+                exhausted = batch.size() < batchSize;
+                if (!batch.isEmpty()) {
+                    Event last = batch.get(batch.size() - 1);
+                    afterStart = last.getStartTime();
+                    afterId = last.getId();
+                    buffer.addAll(batch);
+                }
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public Event next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.poll();
+        }
+    }
+}
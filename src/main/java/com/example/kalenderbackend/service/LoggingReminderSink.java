@@ -0,0 +1,21 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ReminderNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Default sink for local development: reminders only show up in the log
+@Component
+@ConditionalOnProperty(name = "reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void send(ReminderNotification notification) {
+        log.info("Reminder for {}: '{}' starts at {}", notification.username(), notification.title(),
+                notification.startTime());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.EventOccurrenceOverride;
+import com.example.kalenderbackend.util.RecurrenceRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Expands recurring events into occurrences. Expansions are cached per series and calendar
+// month, so overlapping range reads reuse the same windows. The key carries the rule and
+// series start, so editing a series never hits a stale window.
+@Service
+public class RecurrenceExpansionService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceExpansionService.class);
+
+    private final int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Map<WindowKey, List<LocalDateTime>> windows;
+
+    public RecurrenceExpansionService(@Value("${events.recurrence.cache-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WindowKey, List<LocalDateTime>> eldest) {
+                return size() > RecurrenceExpansionService.this.maxSize;
+            }
+        };
+    }
+
+    // Occurrence starts of a recurring event in [from, to), ascending
+    public List<LocalDateTime> occurrences(Event master, LocalDateTime from, LocalDateTime to) {
+        return occurrences(master.getId(), master.getRecurrencePattern(), master.getStartTime(), from, to);
+    }
+
+    public List<LocalDateTime> occurrences(Long eventId, String pattern, LocalDateTime seriesStart,
+                                           LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> result = new ArrayList<>();
+        RecurrenceRule rule = null;
+        for (YearMonth month = YearMonth.from(from);
+             month.atDay(1).atStartOfDay().isBefore(to);
+             month = month.plusMonths(1)) {
+            WindowKey key = new WindowKey(eventId, pattern, seriesStart, month);
+            List<LocalDateTime> window = cached(key);
+            if (window == null) {
+                if (rule == null) {
+                    rule = RecurrenceRule.parse(pattern);
+                }
+                window = List.copyOf(rule.occurrencesBetween(seriesStart,
+                        month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+                store(key, window);
+            }
+            for (LocalDateTime start : window) {
+                if (!start.isBefore(from) && start.isBefore(to)) {
+                    result.add(start);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Detached copy of the master standing for one occurrence. It keeps the master's id;
+    // startTime identifies the occurrence. Never persisted.
+    public Event toOccurrence(Event master, LocalDateTime start, EventOccurrenceOverride override) {
+        Duration length = Duration.between(master.getStartTime(), master.getEndTime());
+
+        Event occurrence = new Event(master.getTitle(), start, start.plus(length), master.getUser());
+        occurrence.setId(master.getId());
+        occurrence.setDescription(master.getDescription());
+        occurrence.setLocation(master.getLocation());
+        occurrence.setCategoryId(master.getCategoryId());
+        occurrence.setColor(master.getColor());
+        occurrence.setReminder(master.getReminder());
+        occurrence.setReminderMinutes(master.getReminderMinutes());
+        occurrence.setRecurring(true);
+        occurrence.setRecurrencePattern(master.getRecurrencePattern());
+        occurrence.setCreatedAt(master.getCreatedAt());
+        occurrence.setUpdatedAt(master.getUpdatedAt());
+
+        boolean completed = override != null && override.isCompleted();
+        occurrence.setCompleted(completed);
+        occurrence.setXpReward(completed && override.getXpReward() != null
+                ? override.getXpReward() : master.getXpReward());
+        return occurrence;
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (windows) {
+            size = windows.size();
+        }
+        return new CacheStats(size, maxSize, hits.get(), misses.get());
+    }
+
+    // Counters are cumulative since startup
+    @Scheduled(fixedDelayString = "${events.recurrence.stats-interval-ms:300000}",
+            initialDelayString = "${events.recurrence.stats-interval-ms:300000}")
+    public void logStats() {
+        if (maxSize <= 0) {
+            return;
+        }
+        CacheStats stats = getStats();
+        long lookups = stats.hits() + stats.misses();
+        log.info("Recurrence window cache: {}/{} windows, {} hits, {} misses ({}% hit rate)",
+                stats.size(), stats.maxSize(), stats.hits(), stats.misses(),
+                lookups == 0 ? 0 : stats.hits() * 100 / lookups);
+    }
+
+    private List<LocalDateTime> cached(WindowKey key) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        List<LocalDateTime> window;
+        synchronized (windows) {
+            window = windows.get(key);
+        }
+        (window != null ? hits : misses).incrementAndGet();
+        return window;
+    }
+
+    private void store(WindowKey key, List<LocalDateTime> window) {
+        if (maxSize <= 0) {
+            return;
+        }
+        synchronized (windows) {
+            windows.put(key, window);
+        }
+    }
+
+    private record WindowKey(Long eventId, String pattern, LocalDateTime seriesStart, YearMonth month) {
+    }
+
+    public record CacheStats(int size, int maxSize, long hits, long misses) {
+    }
+}
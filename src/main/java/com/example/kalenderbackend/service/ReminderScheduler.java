@@ -0,0 +1,419 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ReminderNotification;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.ReminderDelivery;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.ReminderDeliveryRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.HashedTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Fires event reminders. A loader reads the reminders due in the next couple of windows with one
+// range query on events.remind_at (plus the running series with reminders) and puts them in a
+// hashed timing wheel; a ticker expires the wheel and hands due reminders to the ReminderSink on
+// virtual threads. Every reminder is claimed in reminder_deliveries right before it is sent, so
+// after a restart (which reloads from "now - grace") or with several instances nothing fires twice.
+// The loader also claims again, while still within the grace period, deliveries that FAILED and
+// ones left CLAIMED for longer than the claim timeout by a sender that died.
+// Writes on this instance reschedule their events after commit from the EventsChanged they publish.
+@Service
+public class ReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderScheduler.class);
+
+    private static final int WHEEL_SIZE = 4096;
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Autowired
+    private ReminderSink sink;
+
+    private final boolean enabled;
+    private final long tickMillis;
+    private final Duration window;
+    private final Duration grace;
+    private final Duration maxLead;
+    private final Duration retention;
+    private final Duration claimTimeout;
+    private final int maxAttempts;
+    private final Semaphore sendPermits;
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by this
+    private HashedTimingWheel<ReminderKey, Reminder> wheel;
+    private final Map<Long, Set<ReminderKey>> keysByEvent = new HashMap<>();
+    // Reminders due before loadedUntil are in the wheel (or fired already)
+    private LocalDateTime loadedUntil;
+    // End of the window currently being loaded; events saved meanwhile are left to onEventsChanged
+    private LocalDateTime loadingUntil;
+    private final Set<Long> savedWhileLoading = new HashSet<>();
+
+    private volatile boolean running;
+    private Thread loader;
+    private Thread ticker;
+
+    public ReminderScheduler(@Value("${reminders.enabled:true}") boolean enabled,
+                             @Value("${reminders.tick-millis:1000}") long tickMillis,
+                             @Value("${reminders.window-seconds:60}") long windowSeconds,
+                             @Value("${reminders.grace-minutes:5}") long graceMinutes,
+                             @Value("${reminders.max-lead-minutes:10080}") long maxLeadMinutes,
+                             @Value("${reminders.retention-days:30}") long retentionDays,
+                             @Value("${reminders.max-concurrent-sends:100}") int maxConcurrentSends,
+                             @Value("${reminders.claim-timeout-seconds:120}") long claimTimeoutSeconds,
+                             @Value("${reminders.max-attempts:3}") int maxAttempts) {
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.window = Duration.ofSeconds(windowSeconds);
+        this.grace = Duration.ofMinutes(graceMinutes);
+        this.maxLead = Duration.ofMinutes(maxLeadMinutes);
+        this.retention = Duration.ofDays(retentionDays);
+        this.sendPermits = new Semaphore(maxConcurrentSends);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            wheel = new HashedTimingWheel<>(tickMillis, WHEEL_SIZE, toMillis(now));
+            // Reminders that came due while we were down are still sent within the grace period
+            loadedUntil = now.minus(grace);
+        }
+        running = true;
+        loader = Thread.ofVirtual().name("reminder-loader").start(this::loadLoop);
+        ticker = Thread.ofVirtual().name("reminder-ticker").start(this::tickLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (running) {
+            running = false;
+            loader.interrupt();
+            ticker.interrupt();
+        }
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Applied after commit: old entries of each written event are dropped and, if its reminders
+    // fall into the loaded horizon, scheduled again. A deleted event's entries are only dropped.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEventsChanged(EventsChanged change) {
+        if (!running) {
+            return;
+        }
+        if (change.kind() == EventsChanged.Kind.DELETED) {
+            cancel(change.eventId());
+        }
+        for (Event event : change.events()) {
+            reschedule(event);
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return wheel != null ? wheel.size() : 0;
+    }
+
+    private void loadLoop() {
+        LocalDateTime lastPurge = LocalDateTime.MIN;
+        while (running) {
+            try {
+                loadWindow();
+                recover();
+                LocalDateTime now = LocalDateTime.now();
+                if (now.isAfter(lastPurge.plus(PURGE_INTERVAL))) {
+                    deliveryRepository.deleteClaimedBefore(now.minus(retention));
+                    lastPurge = now;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Loading reminders failed", e);
+            }
+            try {
+                Thread.sleep(window.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Loads everything due in [loadedUntil, now + 2 windows), so there is always a window of lookahead
+    private void loadWindow() {
+        LocalDateTime from;
+        LocalDateTime to = LocalDateTime.now().plus(window.multipliedBy(2));
+        synchronized (this) {
+            from = loadedUntil;
+            if (!to.isAfter(from)) {
+                return;
+            }
+            loadingUntil = to;
+            savedWhileLoading.clear();
+        }
+
+        try {
+            List<Reminder> due = new ArrayList<>();
+            for (Object[] row : eventRepository.findRemindersDue(from, to)) {
+                due.add(new Reminder((Long) row[0], (Long) row[1], (String) row[2], (String) row[3],
+                        (LocalDateTime) row[4], (LocalDateTime) row[5], (LocalDateTime) row[6]));
+            }
+            // An occurrence's reminder is due in [from, to) if it starts in [from + lead, to + lead)
+            for (Event master : eventRepository.findRecurringWithReminders(from, to.plus(maxLead))) {
+                due.addAll(occurrenceReminders(master, from, to));
+            }
+
+            synchronized (this) {
+                for (Reminder reminder : due) {
+                    // Read before that event's commit; onEventsChanged has scheduled the current state
+                    if (!savedWhileLoading.contains(reminder.eventId())) {
+                        schedule(reminder);
+                    }
+                }
+                loadedUntil = to;
+            }
+        } finally {
+            synchronized (this) {
+                loadingUntil = null;
+                savedWhileLoading.clear();
+            }
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            List<Reminder> due = new ArrayList<>();
+            synchronized (this) {
+                wheel.advance(System.currentTimeMillis(), (key, reminder) -> {
+                    due.add(reminder);
+                    forget(key);
+                });
+            }
+            if (!due.isEmpty()) {
+                execute(() -> deliver(due));
+            }
+        }
+    }
+
+    // Claim each reminder, then send the ones this instance got
+    private void deliver(List<Reminder> due) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Reminder> claimed = new ArrayList<>(due.size());
+        for (Reminder reminder : due) {
+            try {
+                if (deliveryRepository.claim(reminder.eventId(), reminder.startTime(), reminder.remindAt(), now) == 1) {
+                    claimed.add(reminder);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // Claimed at the same moment by another instance
+            } catch (RuntimeException e) {
+                log.warn("Claiming reminder of event {} failed", reminder.eventId(), e);
+            }
+        }
+        sendAll(claimed);
+    }
+
+    // Deliveries that FAILED or whose sender died (CLAIMED for longer than the claim timeout) are
+    // claimed again and resent, as long as they are within the grace period and under maxAttempts.
+    // Package-private for tests; the loader calls it every window.
+    void recover() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(claimTimeout);
+        List<ReminderDelivery> retryable = deliveryRepository.findRetryable(staleBefore, now.minus(grace), maxAttempts);
+        if (retryable.isEmpty()) {
+            return;
+        }
+
+        Set<Long> eventIds = new HashSet<>();
+        retryable.forEach(delivery -> eventIds.add(delivery.getEventId()));
+        Map<Long, Event> events = new HashMap<>();
+        eventRepository.findAllById(eventIds).forEach(event -> events.put(event.getId(), event));
+
+        List<Reminder> claimed = new ArrayList<>(retryable.size());
+        for (ReminderDelivery delivery : retryable) {
+            Event event = events.get(delivery.getEventId());
+            if (event == null) {
+                continue;
+            }
+            try {
+                if (deliveryRepository.reclaim(delivery.getId(), staleBefore, maxAttempts, now) == 1) {
+                    Duration length = Duration.between(event.getStartTime(), event.getEndTime());
+                    claimed.add(new Reminder(event.getId(), event.getUser().getId(), event.getTitle(),
+                            event.getLocation(), delivery.getOccurrenceStart(),
+                            delivery.getOccurrenceStart().plus(length), delivery.getRemindAt()));
+                    log.info("Retrying reminder of event {} (attempt {})", event.getId(), delivery.getAttempts() + 1);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Claiming reminder of event {} again failed", event.getId(), e);
+            }
+        }
+        sendAll(claimed);
+    }
+
+    // Look up the recipients of claimed reminders in one query, then send each on its own virtual thread
+    private void sendAll(List<Reminder> claimed) {
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        claimed.forEach(reminder -> userIds.add(reminder.userId()));
+        Map<Long, Object[]> contacts = new HashMap<>();
+        for (Object[] row : userRepository.findContactsByIdIn(userIds)) {
+            contacts.put((Long) row[0], row);
+        }
+
+        for (Reminder reminder : claimed) {
+            Object[] contact = contacts.get(reminder.userId());
+            ReminderNotification notification = new ReminderNotification(reminder.eventId(), reminder.title(),
+                    reminder.location(), reminder.startTime(), reminder.endTime(), reminder.remindAt(),
+                    reminder.userId(), contact != null ? (String) contact[1] : null,
+                    contact != null ? (String) contact[2] : null);
+            sendPermits.acquireUninterruptibly();
+            if (!execute(() -> send(notification))) {
+                sendPermits.release();
+            }
+        }
+    }
+
+    private void send(ReminderNotification notification) {
+        try {
+            sink.send(notification);
+            deliveryRepository.finish(notification.eventId(), notification.startTime(),
+                    ReminderDelivery.Status.SENT, LocalDateTime.now(), null);
+        } catch (Exception e) {
+            log.warn("Sending reminder of event {} failed", notification.eventId(), e);
+            String error = String.valueOf(e.getMessage());
+            deliveryRepository.finish(notification.eventId(), notification.startTime(),
+                    ReminderDelivery.Status.FAILED, LocalDateTime.now(),
+                    error.length() > 255 ? error.substring(0, 255) : error);
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    private synchronized void reschedule(Event event) {
+        Long eventId = event.getId();
+        cancel(eventId);
+
+        LocalDateTime horizon = loadingUntil != null ? loadingUntil : loadedUntil;
+        if (!Boolean.TRUE.equals(event.getReminder()) || Boolean.TRUE.equals(event.getCompleted())) {
+            return;
+        }
+
+        LocalDateTime from = LocalDateTime.now().minus(grace);
+        if (event.isRecurring()) {
+            for (Reminder reminder : occurrenceReminders(event, from, horizon)) {
+                schedule(reminder);
+            }
+        } else if (event.getRemindAt() != null
+                && !event.getRemindAt().isBefore(from) && event.getRemindAt().isBefore(horizon)) {
+            schedule(new Reminder(eventId, event.getUser().getId(), event.getTitle(), event.getLocation(),
+                    event.getStartTime(), event.getEndTime(), event.getRemindAt()));
+        }
+    }
+
+    private List<Reminder> occurrenceReminders(Event master, LocalDateTime from, LocalDateTime to) {
+        if (master.getReminderMinutes() == null || !to.isAfter(from)) {
+            return List.of();
+        }
+        Duration lead = Duration.ofMinutes(master.getReminderMinutes());
+        Duration length = Duration.between(master.getStartTime(), master.getEndTime());
+        List<Reminder> reminders = new ArrayList<>();
+        for (LocalDateTime start : recurrenceExpansionService.occurrences(master, from.plus(lead), to.plus(lead))) {
+            reminders.add(new Reminder(master.getId(), master.getUser().getId(), master.getTitle(),
+                    master.getLocation(), start, start.plus(length), start.minus(lead)));
+        }
+        return reminders;
+    }
+
+    private synchronized void cancel(Long eventId) {
+        Set<ReminderKey> keys = keysByEvent.remove(eventId);
+        if (keys != null) {
+            keys.forEach(wheel::cancel);
+        }
+        // The window being loaded may have read the event before this write
+        if (loadingUntil != null) {
+            savedWhileLoading.add(eventId);
+        }
+    }
+
+    // Callers hold the lock
+    private void schedule(Reminder reminder) {
+        ReminderKey key = new ReminderKey(reminder.eventId(), reminder.startTime());
+        wheel.schedule(key, toMillis(reminder.remindAt()), reminder);
+        keysByEvent.computeIfAbsent(reminder.eventId(), id -> new HashSet<>()).add(key);
+    }
+
+    private void forget(ReminderKey key) {
+        Set<ReminderKey> keys = keysByEvent.get(key.eventId());
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByEvent.remove(key.eventId());
+        }
+    }
+
+    private boolean execute(Runnable task) {
+        try {
+            dispatcher.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shutting down; claimed but unsent reminders stay CLAIMED until recovered after the claim timeout
+            return false;
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // A reminder is identified by its event and the start of the (occurrence of the) event
+    private record ReminderKey(Long eventId, LocalDateTime occurrenceStart) {
+    }
+
+    private record Reminder(Long eventId, Long userId, String title, String location,
+                            LocalDateTime startTime, LocalDateTime endTime, LocalDateTime remindAt) {
+    }
+}
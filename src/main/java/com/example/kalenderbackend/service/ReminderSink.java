@@ -0,0 +1,11 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ReminderNotification;
+
+// Where fired reminders go. Chosen with reminders.sink (log, webhook); another channel (SMTP, push)
+// is one more implementation. Called on a virtual thread, so blocking I/O is fine; throwing marks
+// the delivery FAILED, and it is retried within the grace period up to reminders.max-attempts times.
+public interface ReminderSink {
+
+    void send(ReminderNotification notification) throws Exception;
+}
@@ -30,10 +30,10 @@ public class UserService {
     @Transactional
     public User addXP(Long userId, int xpToAdd) {
         User user = getUserById(userId);
-        int currentXP = user.getExperiencePoints();
-        int newTotalXP = currentXP + xpToAdd;
+        int newTotalXP = user.getTotalXP() + xpToAdd;
 
-        user.setExperiencePoints(newTotalXP);
+        user.setXp(user.getXp() + xpToAdd);
+        user.setTotalXP(newTotalXP);
 
         // Check for level up
         int newLevel = calculateLevel(newTotalXP);
@@ -77,14 +77,14 @@ public class UserService {
         User user = getUserById(userId);
         int nextLevel = user.getLevel() + 1;
         int xpNeededForNext = getXPForLevel(nextLevel);
-        return xpNeededForNext - user.getExperiencePoints();
+        return xpNeededForNext - user.getTotalXP();
     }
 
     public double getLevelProgress(Long userId) {
         User user = getUserById(userId);
         int currentLevelXP = getXPForLevel(user.getLevel());
         int nextLevelXP = getXPForLevel(user.getLevel() + 1);
-        int xpInCurrentLevel = user.getExperiencePoints() - currentLevelXP;
+        int xpInCurrentLevel = user.getTotalXP() - currentLevelXP;
         int xpNeededForLevel = nextLevelXP - currentLevelXP;
 
         return (double) xpInCurrentLevel / xpNeededForLevel * 100;
@@ -131,13 +131,13 @@ public class UserService {
                 .userId(user.getId())
                 .username(user.getUsername())
                 .level(user.getLevel())
-                .experiencePoints(user.getExperiencePoints())
+                .experiencePoints(user.getTotalXP())
                 .xpForNextLevel(getXPForNextLevel(userId))
                 .levelProgress(getLevelProgress(userId))
-                .totalEventsCompleted(user.getTotalEventsCompleted())
+                .totalEventsCompleted(user.getEventsCompleted())
                 .currentStreak(user.getStreak())
                 .longestStreak(user.getLongestStreak())
-                .challengesCompleted(user.getChallengesCompleted())
+                .challengesCompleted(user.getAchievementsUnlocked())
                 .build();
     }
 
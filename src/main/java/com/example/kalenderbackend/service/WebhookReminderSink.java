@@ -0,0 +1,48 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ReminderNotification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// POSTs each reminder as JSON to reminders.webhook.url (e.g. a mail or push gateway)
+@Component
+@ConditionalOnProperty(name = "reminders.sink", havingValue = "webhook")
+public class WebhookReminderSink implements ReminderSink {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    public WebhookReminderSink(@Value("${reminders.webhook.url}") String url,
+                               @Value("${reminders.webhook.timeout-seconds:10}") int timeoutSeconds) {
+        this.url = URI.create(url);
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void send(ReminderNotification notification) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(notification)))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.kalenderbackend.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Hashed timing wheel: time is cut into ticks and a tick's timers live in bucket (tick % size).
+// Scheduling and cancelling are O(1); advancing one tick only touches that tick's bucket.
+// Timers further away than one revolution carry a round count and stay in their bucket
+// until it reaches zero. Not thread-safe, the owner synchronizes.
+public final class HashedTimingWheel<K, V> {
+
+    private final long tickMillis;
+    private final Node<K, V>[] buckets;
+    private final int mask;
+    private final Map<K, Node<K, V>> byKey = new HashMap<>();
+
+    // Next tick to expire; ticks count from the epoch, a tick covers [tick * tickMillis, +tickMillis)
+    private long currentTick;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size a power of two");
+        }
+        this.tickMillis = tickMillis;
+        // No generic array creation in Java, the cast is the only unchecked spot
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<K, V>[] wheel = (Node<K, V>[]) new Node[wheelSize];
+        this.buckets = wheel;
+        this.mask = wheelSize - 1;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // Schedules (or reschedules) key to expire at the first tick at or after deadlineMillis.
+    // A deadline that has already passed expires on the next advance.
+    public void schedule(K key, long deadlineMillis, V value) {
+        cancel(key);
+        long tick = Math.max(-Math.floorDiv(-deadlineMillis, tickMillis), currentTick);
+
+        Node<K, V> node = new Node<>(key, value);
+        node.rounds = (tick - currentTick) / buckets.length;
+        int index = (int) (tick & mask);
+        node.next = buckets[index];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        node.bucket = index;
+        buckets[index] = node;
+        byKey.put(key, node);
+    }
+
+    public boolean cancel(K key) {
+        Node<K, V> node = byKey.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return byKey.containsKey(key);
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    // Expires every tick that started at or before nowMillis, in tick order.
+    // Returns the number of expired timers.
+    public int advance(long nowMillis, BiConsumer<K, V> expired) {
+        int count = 0;
+        long lastTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick <= lastTick) {
+            Node<K, V> node = buckets[(int) (currentTick & mask)];
+            while (node != null) {
+                Node<K, V> next = node.next;
+                if (node.rounds == 0) {
+                    unlink(node);
+                    byKey.remove(node.key);
+                    expired.accept(node.key, node.value);
+                    count++;
+                } else {
+                    node.rounds--;
+                }
+                node = next;
+            }
+            currentTick++;
+        }
+        return count;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        long rounds;
+        int bucket;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
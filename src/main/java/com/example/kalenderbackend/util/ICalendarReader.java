@@ -0,0 +1,251 @@
+package com.example.kalenderbackend.util;
+
+import com.example.kalenderbackend.dto.CreateEventRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+// Pull-style RFC 5545 reader. Only one VEVENT is held in memory at a time,
+// so arbitrarily large .ics files can be imported.
+public class ICalendarReader {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_VARCHAR = 255;
+
+    private final BufferedReader reader;
+    private String pendingLine;
+    private int eventCount;
+
+    public ICalendarReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    // Number of VEVENTs seen so far (valid or not)
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    // Returns the next event, or null at end of input.
+    // A malformed event throws IllegalArgumentException; the reader is already positioned
+    // after it, so the caller can log it and keep going.
+    public CreateEventRequest next() throws IOException {
+        String line;
+        while ((line = readUnfoldedLine()) != null) {
+            if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                eventCount++;
+                return readEvent();
+            }
+        }
+        return null;
+    }
+
+    private CreateEventRequest readEvent() throws IOException {
+        Map<String, Property> properties = new HashMap<>();
+        Integer alarmMinutes = null;
+        boolean inAlarm = false;
+        String line;
+
+        while ((line = readUnfoldedLine()) != null) {
+            if (line.equalsIgnoreCase("END:VEVENT")) {
+                return toRequest(properties, alarmMinutes);
+            }
+            if (line.equalsIgnoreCase("BEGIN:VALARM")) {
+                inAlarm = true;
+                continue;
+            }
+            if (line.equalsIgnoreCase("END:VALARM")) {
+                inAlarm = false;
+                continue;
+            }
+
+            Property property = Property.parse(line);
+            if (property == null) {
+                continue;
+            }
+            if (inAlarm) {
+                if (property.name.equals("TRIGGER") && alarmMinutes == null) {
+                    alarmMinutes = parseTriggerMinutes(property.value);
+                }
+            } else {
+                properties.putIfAbsent(property.name, property);
+            }
+        }
+        throw new IllegalArgumentException("Unterminated VEVENT");
+    }
+
+    private CreateEventRequest toRequest(Map<String, Property> properties, Integer alarmMinutes) {
+        Property start = properties.get("DTSTART");
+        if (start == null) {
+            throw new IllegalArgumentException("VEVENT without DTSTART");
+        }
+
+        boolean allDay = "DATE".equalsIgnoreCase(start.params.get("VALUE")) || start.value.length() == 8;
+        LocalDateTime startTime = parseDateTime(start);
+        LocalDateTime endTime;
+
+        Property end = properties.get("DTEND");
+        Property duration = properties.get("DURATION");
+        if (end != null) {
+            endTime = parseDateTime(end);
+        } else if (duration != null) {
+            endTime = startTime.plus(parseDuration(duration.value));
+        } else {
+            endTime = allDay ? startTime.plusDays(1) : startTime;
+        }
+
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitle(truncate(text(properties.get("SUMMARY"))));
+        request.setDescription(text(properties.get("DESCRIPTION")));
+        request.setLocation(truncate(text(properties.get("LOCATION"))));
+        request.setCategory(truncate(firstCategory(text(properties.get("CATEGORIES")))));
+        request.setColor(truncate(text(properties.get("COLOR"))));
+        request.setStartTime(startTime);
+        request.setEndTime(endTime);
+        request.setReminder(alarmMinutes != null);
+        request.setReminderMinutes(alarmMinutes);
+
+        // Rules outside the supported subset are dropped, the event is then imported as a single occurrence
+        Property rrule = properties.get("RRULE");
+        if (rrule != null && RecurrenceRule.isValid(rrule.value)) {
+            request.setRecurrencePattern(rrule.value);
+        }
+        return request;
+    }
+
+    // Stored times are local; UTC and TZID times are converted to the server zone
+    private static LocalDateTime parseDateTime(Property property) {
+        String value = property.value;
+        if (value.length() == 8) {
+            return LocalDate.parse(value, DATE).atStartOfDay();
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                    .atOffset(ZoneOffset.UTC)
+                    .atZoneSameInstant(ZoneId.systemDefault())
+                    .toLocalDateTime();
+        }
+        LocalDateTime local = LocalDateTime.parse(value, DATE_TIME);
+        String tzid = property.params.get("TZID");
+        if (tzid != null) {
+            return local.atZone(ZoneId.of(tzid))
+                    .withZoneSameInstant(ZoneId.systemDefault())
+                    .toLocalDateTime();
+        }
+        return local;
+    }
+
+    // iCalendar durations may use weeks (P2W), which java.time.Duration doesn't accept
+    private static Duration parseDuration(String value) {
+        boolean negative = value.startsWith("-");
+        String v = value.replaceFirst("^[+-]", "");
+        Duration result;
+        if (v.endsWith("W")) {
+            result = Duration.ofDays(7L * Long.parseLong(v.substring(1, v.length() - 1)));
+        } else {
+            result = Duration.parse(v);
+        }
+        return negative ? result.negated() : result;
+    }
+
+    private static Integer parseTriggerMinutes(String value) {
+        try {
+            return (int) Math.abs(parseDuration(value).toMinutes());
+        } catch (RuntimeException e) {
+            // Absolute (DATE-TIME) triggers are not supported, ignore them
+            return null;
+        }
+    }
+
+    private static String firstCategory(String categories) {
+        if (categories == null) {
+            return null;
+        }
+        int comma = categories.indexOf(',');
+        return comma >= 0 ? categories.substring(0, comma) : categories;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_VARCHAR ? value.substring(0, MAX_VARCHAR) : value;
+    }
+
+    private static String text(Property property) {
+        if (property == null) {
+            return null;
+        }
+        String value = property.value;
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char n = value.charAt(++i);
+                sb.append(n == 'n' || n == 'N' ? '\n' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Joins folded continuation lines (leading space/tab) back onto their content line
+    private String readUnfoldedLine() throws IOException {
+        String line = pendingLine != null ? pendingLine : reader.readLine();
+        pendingLine = null;
+        if (line == null) {
+            return null;
+        }
+
+        StringBuilder sb = null;
+        String next;
+        while ((next = reader.readLine()) != null
+                && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (sb == null) {
+                sb = new StringBuilder(line);
+            }
+            sb.append(next, 1, next.length());
+        }
+        pendingLine = next;
+        return sb != null ? sb.toString() : line;
+    }
+
+    private record Property(String name, Map<String, String> params, String value) {
+
+        // NAME;PARAM=x;PARAM2="y":value
+        static Property parse(String line) {
+            int colon = -1;
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ':' && !quoted) {
+                    colon = i;
+                    break;
+                }
+            }
+            if (colon <= 0) {
+                return null;
+            }
+
+            String[] head = line.substring(0, colon).split(";");
+            Map<String, String> params = new HashMap<>();
+            for (int i = 1; i < head.length; i++) {
+                int eq = head[i].indexOf('=');
+                if (eq > 0) {
+                    params.put(head[i].substring(0, eq).toUpperCase(),
+                            head[i].substring(eq + 1).replace("\"", ""));
+                }
+            }
+            return new Property(head[0].toUpperCase(), params, line.substring(colon + 1));
+        }
+    }
+}
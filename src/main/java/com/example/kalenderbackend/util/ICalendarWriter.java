@@ -0,0 +1,115 @@
+package com.example.kalenderbackend.util;
+
+import com.example.kalenderbackend.entity.Event;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// Minimal RFC 5545 writer. Writes one VEVENT at a time so callers can stream.
+// Times are written as floating local time, same as they are stored.
+public class ICalendarWriter {
+
+    private static final DateTimeFormatter LOCAL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer writer;
+
+    public ICalendarWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() throws IOException {
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//Kalender//Kalender Backend//SV");
+        writeLine("CALSCALE:GREGORIAN");
+    }
+
+    // category and color as resolved from the category dictionary
+    public void writeEvent(Event event, String category, String color) throws IOException {
+        writeLine("BEGIN:VEVENT");
+        writeLine("UID:event-" + event.getId() + "@kalender");
+        // DTSTAMP must be UTC; updatedAt is server local time like everything else we store
+        LocalDateTime stamp = event.getUpdatedAt() != null ? event.getUpdatedAt() : LocalDateTime.now();
+        writeLine("DTSTAMP:" + stamp.atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC).format(UTC_FORMAT));
+        writeLine("DTSTART:" + event.getStartTime().format(LOCAL_FORMAT));
+        writeLine("DTEND:" + event.getEndTime().format(LOCAL_FORMAT));
+        if (event.isRecurring() && event.getRecurrencePattern() != null) {
+            // Stored without the "RRULE:" prefix, value is already in iCalendar syntax
+            writeLine("RRULE:" + event.getRecurrencePattern().replaceFirst("(?i)^RRULE:", ""));
+        }
+        writeLine("SUMMARY:" + escape(event.getTitle()));
+        if (event.getDescription() != null) {
+            writeLine("DESCRIPTION:" + escape(event.getDescription()));
+        }
+        if (event.getLocation() != null) {
+            writeLine("LOCATION:" + escape(event.getLocation()));
+        }
+        if (category != null) {
+            writeLine("CATEGORIES:" + escape(category));
+        }
+        if (color != null) {
+            writeLine("COLOR:" + escape(color));
+        }
+        if (Boolean.TRUE.equals(event.getReminder()) && event.getReminderMinutes() != null) {
+            writeLine("BEGIN:VALARM");
+            writeLine("ACTION:DISPLAY");
+            writeLine("DESCRIPTION:" + escape(event.getTitle()));
+            writeLine("TRIGGER:-PT" + event.getReminderMinutes() + "M");
+            writeLine("END:VALARM");
+        }
+        writeLine("END:VEVENT");
+    }
+
+    public void writeFooter() throws IOException {
+        writeLine("END:VCALENDAR");
+        writer.flush();
+    }
+
+    // Content lines are folded at 75 octets (RFC 5545 3.1), continuation lines start with a space
+    private void writeLine(String line) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int charCount = Character.charCount(codePoint);
+            int size = utf8Length(codePoint);
+            if (octets + size > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(line, i, charCount);
+            octets += size;
+            i += charCount;
+        }
+        writer.write("\r\n");
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
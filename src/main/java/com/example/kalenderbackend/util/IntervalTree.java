@@ -0,0 +1,184 @@
+package com.example.kalenderbackend.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Augmented AVL tree of half-open intervals [start, end), ordered by (start, id).
+// Every node also stores the largest end in its subtree, so overlap queries can skip
+// whole subtrees: O(log n + k) for k results. Not thread-safe.
+public class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void insert(long id, LocalDateTime start, LocalDateTime end, T value) {
+        root = insert(root, new Node<>(id, start, end, value));
+    }
+
+    // Removes the interval with this id and start (the start is needed to find it). Returns false if absent
+    public boolean remove(long id, LocalDateTime start) {
+        int before = size;
+        root = remove(root, id, start);
+        return size < before;
+    }
+
+    // Values of all intervals with start < to and end > from, in start order
+    public List<T> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<T> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private void collect(Node<T> node, LocalDateTime from, LocalDateTime to, List<T> result) {
+        // Nothing in this subtree ends after the query starts
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        // Node and everything to its right start at or after the query end
+        if (!node.start.isBefore(to)) {
+            return;
+        }
+        if (node.end.isAfter(from)) {
+            result.add(node.value);
+        }
+        collect(node.right, from, to, result);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int cmp = compare(added.start, added.id, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            // Same key: replace in place
+            node.end = added.end;
+            node.value = added.value;
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> remove(Node<T> node, long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace with the in-order successor
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static <T> int compare(LocalDateTime start, long id, Node<T> node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(id, node.id);
+    }
+
+    private Node<T> rebalance(Node<T> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static <T> void update(Node<T> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+        final long id;
+        final LocalDateTime start;
+        LocalDateTime end;
+        LocalDateTime maxEnd;
+        T value;
+        int height = 1;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long id, LocalDateTime start, LocalDateTime end, T value) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.kalenderbackend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over documents made of weighted text fields.
+// Terms are kept sorted, so a query token matches every term it is a prefix of with one range
+// lookup. All query tokens must match; documents are ranked by BM25 over the weighted term
+// frequencies, with exact term matches counting more than prefix matches.
+// Not thread-safe, the owner synchronizes.
+public final class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // A prefix-only match ("mot" for "motion") counts this much of an exact one
+    private static final double PREFIX_WEIGHT = 0.6;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    // term -> (document id -> weighted frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private long totalLength;
+
+    public record Field(String text, int weight) {
+    }
+
+    public record Hit(long id, double score) {
+    }
+
+    // Adds or replaces a document
+    public void put(long id, Field... fields) {
+        remove(id);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (Field field : fields) {
+            for (String term : tokenize(field.text())) {
+                frequencies.merge(term, field.weight(), Integer::sum);
+                length += field.weight();
+            }
+        }
+        if (frequencies.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+        }
+        docs.put(id, new Doc(frequencies.keySet().toArray(String[]::new), length));
+        totalLength += length;
+    }
+
+    public boolean remove(long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        for (String term : doc.terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= doc.length;
+        return true;
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    // Best limit documents matching every token of the query, highest score first
+    public List<Hit> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty() || docs.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        double averageLength = (double) totalLength / docs.size();
+        Map<Long, Double> scores = null;
+        for (String token : tokens) {
+            // Best match of this token per document
+            Map<Long, Double> tokenScores = new HashMap<>();
+            for (Map.Entry<String, Map<Long, Integer>> entry : prefixRange(token).entrySet()) {
+                double weight = entry.getKey().equals(token) ? 1.0 : PREFIX_WEIGHT;
+                for (Map.Entry<Long, Integer> match : entry.getValue().entrySet()) {
+                    int tf = match.getValue();
+                    double norm = K1 * (1 - B + B * docs.get(match.getKey()).length / averageLength);
+                    tokenScores.merge(match.getKey(), weight * tf * (K1 + 1) / (tf + norm), Math::max);
+                }
+            }
+            // Rarity of the token itself (all documents it matches), so a rare completion
+            // doesn't outrank an exact match of the same token
+            int matching = tokenScores.size();
+            double idf = Math.log(1 + (docs.size() - matching + 0.5) / (matching + 0.5));
+
+            Map<Long, Double> next = new HashMap<>();
+            for (Map.Entry<Long, Double> entry : tokenScores.entrySet()) {
+                Double previous = scores != null ? scores.get(entry.getKey()) : Double.valueOf(0);
+                if (previous != null) {
+                    next.put(entry.getKey(), previous + idf * entry.getValue());
+                }
+            }
+            scores = next;
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Min-heap of the best limit hits; ties go to the higher (newer) id
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).thenComparingLong(Hit::id);
+        PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.add(new Hit(entry.getKey(), entry.getValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    // Lowercased, accents folded (so "mote" finds "möte"), split on anything but letters and digits
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private record Doc(String[] terms, int length) {
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.kalenderbackend.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -13,20 +15,46 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final String TOKEN_TYPE_ACCESS = "access";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret:MyVerySecretKeyForJWTTokenGenerationMinimum256Bits}")
     private String secret;
 
-    @Value("${jwt.expiration:86400000}")
-    private Long expiration; // 24 hours in milliseconds
+    @Value("${jwt.expiration:900000}")
+    private Long expiration; // access token, 15 minutes in milliseconds
+
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private Long refreshExpiration; // 30 days in milliseconds
+
+    // Key and parser are immutable and thread-safe, build them once
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Verify signature and expiry once and return everything the caller needs.
+    // Throws JwtException (or IllegalArgumentException for blank input) if the token is not valid.
+    public ParsedToken verify(String token) {
+        Claims claims = extractAllClaims(token);
+        return new ParsedToken(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("type", String.class),
+                claims.getExpiration());
     }
 
     public String extractUsername(String token) {
@@ -43,11 +71,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     private Boolean isTokenExpired(String token) {
@@ -56,22 +80,35 @@ public class JwtUtil {
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put("type", TOKEN_TYPE_ACCESS);
+        return createToken(claims, userDetails.getUsername(), expiration);
     }
 
+    // Short-lived access token
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
-        return createToken(claims, username);
+        claims.put("type", TOKEN_TYPE_ACCESS);
+        return createToken(claims, username, expiration);
+    }
+
+    // Long-lived token that can only be used at /api/auth/refresh
+    public String generateRefreshToken(String username, Long userId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("type", TOKEN_TYPE_REFRESH);
+        return createToken(claims, username, refreshExpiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, long ttlMillis) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti, used for revocation
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -82,11 +119,7 @@ public class JwtUtil {
 
     public Boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return !isTokenExpired(token);
+            return !verify(token).isExpired();
         } catch (Exception e) {
             return false;
         }
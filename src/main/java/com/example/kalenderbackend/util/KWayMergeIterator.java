@@ -0,0 +1,59 @@
+package com.example.kalenderbackend.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Merges already-sorted iterators into one sorted iterator. Only the current head of each
+// source is held, and a source is only advanced when its head is taken, so lazily fetching
+// sources are read no further than the consumer goes. O(log k) per element.
+public class KWayMergeIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public KWayMergeIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> order) {
+        Comparator<Head<T>> byValue = (a, b) -> order.compare(a.value, b.value);
+        // Equal values come out in source order, so the merge is stable
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                byValue.thenComparingInt(head -> head.sourceIndex));
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> source = sources.get(i);
+            if (source.hasNext()) {
+                heads.add(new Head<>(source, i, source.next()));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        T value = head.value;
+        if (head.source.hasNext()) {
+            head.value = head.source.next();
+            heads.add(head);
+        }
+        return value;
+    }
+
+    private static final class Head<T> {
+        final Iterator<? extends T> source;
+        final int sourceIndex;
+        T value;
+
+        Head(Iterator<? extends T> source, int sourceIndex, T value) {
+            this.source = source;
+            this.sourceIndex = sourceIndex;
+            this.value = value;
+        }
+    }
+}
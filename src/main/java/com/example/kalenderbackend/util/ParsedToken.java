@@ -0,0 +1,21 @@
+package com.example.kalenderbackend.util;
+
+import java.util.Date;
+
+// Result of a single signature check + claim parse of a JWT.
+// Immutable, so it can be handed around freely once verified.
+public record ParsedToken(String id, String subject, Long userId, String type, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    // Tokens issued before refresh tokens existed carry no type and count as access tokens
+    public boolean isAccessToken() {
+        return type == null || JwtUtil.TOKEN_TYPE_ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return JwtUtil.TOKEN_TYPE_REFRESH.equals(type);
+    }
+}
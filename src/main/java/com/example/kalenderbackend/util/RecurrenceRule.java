@@ -0,0 +1,294 @@
+package com.example.kalenderbackend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Subset of RFC 5545 RRULE: FREQ=DAILY|WEEKLY|MONTHLY|YEARLY with INTERVAL, COUNT, UNTIL
+// and (weekly only) BYDAY=MO,WE,... e.g. "FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH;COUNT=10".
+// Immutable, occurrences are computed from the series start on demand.
+public final class RecurrenceRule {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurrenceRule.class);
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Guards against rules that can never produce an occurrence (e.g. every Feb 30th).
+    // Hitting it is logged, as any occurrences after it are left out.
+    private static final int MAX_PERIODS = 100_000;
+
+    private final String source;
+    private final Frequency frequency;
+    private final int interval;
+    private final Integer count;
+    private final LocalDateTime until;
+    private final Set<DayOfWeek> byDay;
+
+    private RecurrenceRule(String source, Frequency frequency, int interval, Integer count,
+                           LocalDateTime until, Set<DayOfWeek> byDay) {
+        this.source = source;
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    // Throws IllegalArgumentException for anything outside the supported subset
+    public static RecurrenceRule parse(String rule) {
+        if (rule == null || rule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule is empty");
+        }
+        String value = rule.trim();
+        if (value.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            value = value.substring(6);
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        Integer count = null;
+        LocalDateTime until = null;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+
+        for (String part : value.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Invalid recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase();
+            String v = part.substring(eq + 1).trim().toUpperCase();
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(v);
+                case "INTERVAL" -> interval = parsePositive(name, v);
+                case "COUNT" -> count = parsePositive(name, v);
+                case "UNTIL" -> until = parseUntil(v);
+                case "BYDAY" -> {
+                    for (String day : v.split(",")) {
+                        byDay.add(parseDay(day.trim()));
+                    }
+                }
+                case "WKST" -> { } // weeks always start on Monday here
+                default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence rule without FREQ");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL must not both be set");
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(value, frequency, interval, count, until, byDay);
+    }
+
+    public static boolean isValid(String rule) {
+        try {
+            parse(rule);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Occurrence starts in [from, to) for a series that starts at dtStart, in ascending order.
+    // dtStart itself is only an occurrence if it matches the rule: with BYDAY=MO,WE and a
+    // Thursday dtStart the series starts on the following Monday.
+    public List<LocalDateTime> occurrencesBetween(LocalDateTime dtStart, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> result = new ArrayList<>();
+        expand(dtStart, from, to, occurrence -> {
+            if (!occurrence.isBefore(from)) {
+                result.add(occurrence);
+            }
+        });
+        return result;
+    }
+
+    // Upper bound for the start of the last occurrence, or null if the series never ends.
+    // Exact for COUNT; for UNTIL the bound itself is good enough to prune range queries.
+    public LocalDateTime seriesEnd(LocalDateTime dtStart) {
+        if (count == null) {
+            return until;
+        }
+        LocalDateTime[] last = {dtStart};
+        expand(dtStart, null, null, occurrence -> last[0] = occurrence);
+        return last[0];
+    }
+
+    // Whether the series has an occurrence starting exactly at the given time
+    public boolean occursAt(LocalDateTime dtStart, LocalDateTime occurrence) {
+        return !occurrencesBetween(dtStart, occurrence, occurrence.plusNanos(1)).isEmpty();
+    }
+
+    // Walks the series in order until COUNT, UNTIL or the exclusive upper bound (if any). Periods
+    // that end before from are skipped arithmetically, so a window years into a daily series
+    // doesn't step through every day since dtStart. Candidates before from may still be passed on.
+    private void expand(LocalDateTime dtStart, LocalDateTime from, LocalDateTime to, Consumer<LocalDateTime> sink) {
+        long first = from != null ? firstPeriodAt(dtStart, from) : 0;
+        long emitted = 0;
+        if (first > 0 && count != null) {
+            Long before = emittedBefore(dtStart, first);
+            if (before == null) {
+                first = 0; // Skipped days (the 31st in MONTHLY) can't be counted without walking
+            } else {
+                emitted = before;
+            }
+        }
+        for (long period = first; period < first + MAX_PERIODS; period++) {
+            for (LocalDateTime candidate : candidates(dtStart, period)) {
+                if (candidate.isBefore(dtStart)) {
+                    continue;
+                }
+                if ((until != null && candidate.isAfter(until))
+                        || (count != null && emitted >= count)
+                        || (to != null && !candidate.isBefore(to))) {
+                    return;
+                }
+                sink.accept(candidate);
+                emitted++;
+            }
+        }
+        log.warn("Expanding {} from {} stopped after {} periods with {} occurrences; any later ones are left out",
+                source, dtStart, MAX_PERIODS, emitted);
+    }
+
+    // The last period starting at or before from; every earlier period ends before it
+    private long firstPeriodAt(LocalDateTime dtStart, LocalDateTime from) {
+        if (!from.isAfter(dtStart)) {
+            return 0;
+        }
+        long units = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(dtStart, from);
+            case WEEKLY -> byDay.isEmpty()
+                    ? ChronoUnit.WEEKS.between(dtStart, from)
+                    : ChronoUnit.WEEKS.between(weekStart(dtStart), from.toLocalDate());
+            case MONTHLY -> ChronoUnit.MONTHS.between(dtStart, from);
+            case YEARLY -> ChronoUnit.YEARS.between(dtStart, from);
+        };
+        return units / interval;
+    }
+
+    // Occurrences in the periods before the given one, or null if that takes expanding them
+    private Long emittedBefore(LocalDateTime dtStart, long period) {
+        switch (frequency) {
+            case DAILY:
+                return period;
+            case WEEKLY:
+                if (byDay.isEmpty()) {
+                    return period;
+                }
+                long firstWeek = candidates(dtStart, 0).stream().filter(c -> !c.isBefore(dtStart)).count();
+                return firstWeek + (period - 1) * byDay.size();
+            default:
+                // Every month has the 1st to the 28th; later days are skipped in some periods
+                return dtStart.getDayOfMonth() <= 28 ? period : null;
+        }
+    }
+
+    // Occurrences of the n-th period, in order. Invalid dates (Feb 30th) are skipped as RFC 5545 says.
+    private List<LocalDateTime> candidates(LocalDateTime dtStart, long period) {
+        long step = period * interval;
+        switch (frequency) {
+            case DAILY:
+                return List.of(dtStart.plusDays(step));
+            case WEEKLY:
+                if (byDay.isEmpty()) {
+                    return List.of(dtStart.plusWeeks(step));
+                }
+                LocalDate weekStart = weekStart(dtStart).plusWeeks(step);
+                List<LocalDateTime> days = new ArrayList<>(byDay.size());
+                for (DayOfWeek day : byDay) { // EnumSet iterates Monday..Sunday
+                    days.add(weekStart.with(TemporalAdjusters.nextOrSame(day)).atTime(dtStart.toLocalTime()));
+                }
+                return days;
+            case MONTHLY: {
+                LocalDateTime candidate = dtStart.plusMonths(step);
+                return candidate.getDayOfMonth() == dtStart.getDayOfMonth() ? List.of(candidate) : List.of();
+            }
+            case YEARLY: {
+                LocalDateTime candidate = dtStart.plusYears(step);
+                return candidate.getDayOfMonth() == dtStart.getDayOfMonth() ? List.of(candidate) : List.of();
+            }
+            default:
+                throw new IllegalStateException("Unknown frequency " + frequency);
+        }
+    }
+
+    private static LocalDate weekStart(LocalDateTime dtStart) {
+        return dtStart.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    @Override
+    public String toString() {
+        return "RRULE:" + source;
+    }
+
+    private static Frequency parseFrequency(String value) {
+        try {
+            return Frequency.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported FREQ: " + value);
+        }
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) {
+                return n;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException(name + " must be a positive integer");
+    }
+
+    // Same conventions as ICalendarReader: UTC is converted to the server zone, dates mean end of day
+    private static LocalDateTime parseUntil(String value) {
+        try {
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DATE).atTime(23, 59, 59);
+            }
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME)
+                        .atOffset(ZoneOffset.UTC)
+                        .atZoneSameInstant(ZoneId.systemDefault())
+                        .toLocalDateTime();
+            }
+            return LocalDateTime.parse(value, DATE_TIME);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid UNTIL: " + value);
+        }
+    }
+
+    private static DayOfWeek parseDay(String value) {
+        return switch (value) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Unsupported BYDAY value: " + value);
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.kalenderbackend.util;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Busy/free bitmap over a window cut into fixed slots (e.g. 15 minutes): bit i set = slot i busy.
+// Days are laid out back to back, a month of 15-minute slots is 45 longs. Timelines of the
+// same window combine with word-wide OR, and free runs are found with shifts and ANDs.
+public final class SlotTimeline {
+
+    private final LocalDateTime origin;
+    private final long originSeconds;
+    private final int slotMinutes;
+    private final int slots;
+    private final long[] words;
+
+    public SlotTimeline(LocalDateTime from, LocalDateTime to, int slotMinutes) {
+        if (slotMinutes <= 0 || !to.isAfter(from)) {
+            throw new IllegalArgumentException("Invalid timeline window");
+        }
+        this.origin = from;
+        this.originSeconds = from.toEpochSecond(ZoneOffset.UTC);
+        this.slotMinutes = slotMinutes;
+        this.slots = (int) ceilDiv(Duration.between(from, to).toMinutes(), slotMinutes);
+        this.words = new long[(slots + 63) >>> 6];
+    }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public LocalDateTime slotStart(int slot) {
+        return origin.plusMinutes((long) slot * slotMinutes);
+    }
+
+    // Marks every slot touched by [start, end) as busy; parts outside the window are ignored
+    public void markBusy(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            return;
+        }
+        // Plain epoch-second arithmetic, Duration.between is comparatively slow on a hot path
+        long slotSeconds = slotMinutes * 60L;
+        long from = Math.max(0, Math.floorDiv(start.toEpochSecond(ZoneOffset.UTC) - originSeconds, slotSeconds));
+        long to = Math.min(slots, ceilDiv(end.toEpochSecond(ZoneOffset.UTC) - originSeconds, slotSeconds));
+        if (from < to) {
+            setRange((int) from, (int) to);
+        }
+    }
+
+    // Marks everything outside [dayStart, dayEnd) on each day as busy (working hours)
+    public void markBusyOutside(LocalTime dayStart, LocalTime dayEnd) {
+        LocalDate last = slotStart(slots).toLocalDate();
+        for (LocalDate day = origin.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+            markBusy(day.atStartOfDay(), day.atTime(dayStart));
+            markBusy(day.atTime(dayEnd), day.plusDays(1).atStartOfDay());
+        }
+    }
+
+    // this |= other, both must cover the same window with the same slot size
+    public void or(SlotTimeline other) {
+        if (other.slots != slots || other.slotMinutes != slotMinutes || !other.origin.equals(origin)) {
+            throw new IllegalArgumentException("Timelines cover different windows");
+        }
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public boolean isBusy(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    // Starts of up to maxResults non-overlapping free runs of lengthSlots slots, earliest first
+    public List<Integer> firstFreeRuns(int lengthSlots, int maxResults) {
+        List<Integer> result = new ArrayList<>();
+        if (lengthSlots <= 0 || lengthSlots > slots || maxResults <= 0) {
+            return result;
+        }
+
+        // fits[i] = 1 if slot i is free; slots past the end count as busy
+        long[] fits = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            fits[i] = ~words[i];
+        }
+        int tail = slots & 63;
+        if (tail != 0) {
+            fits[fits.length - 1] &= (1L << tail) - 1;
+        }
+
+        // After this, bit i is set iff slots i .. i+lengthSlots-1 are all free.
+        // Covered length doubles each round, so this is O(words * log(lengthSlots))
+        int covered = 1;
+        while (covered < lengthSlots) {
+            int shift = Math.min(covered, lengthSlots - covered);
+            andShifted(fits, shift);
+            covered += shift;
+        }
+
+        int slot = nextSetBit(fits, 0);
+        while (slot >= 0 && result.size() < maxResults) {
+            result.add(slot);
+            slot = nextSetBit(fits, slot + lengthSlots);
+        }
+        return result;
+    }
+
+    // bits[i] &= bits[i + shift] for every bit i, across word boundaries
+    private static void andShifted(long[] bits, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i < bits.length; i++) {
+            int src = i + wordShift;
+            long shifted = 0;
+            if (src < bits.length) {
+                shifted = bits[src] >>> bitShift;
+                if (bitShift != 0 && src + 1 < bits.length) {
+                    shifted |= bits[src + 1] << (64 - bitShift);
+                }
+            }
+            bits[i] &= shifted;
+        }
+    }
+
+    private int nextSetBit(long[] bits, int from) {
+        if (from >= slots) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int bit = (w << 6) + Long.numberOfTrailingZeros(word);
+                return bit < slots ? bit : -1;
+            }
+            if (++w == bits.length) {
+                return -1;
+            }
+            word = bits[w];
+        }
+    }
+
+    private void setRange(int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            words[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        words[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            words[i] = -1L;
+        }
+        words[lastWord] |= lastMask;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.kalenderbackend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Delta sync position: keyset (version, id) of the last change sent, and the owner's events_version
+// when the client's full sync started (deletes up to base happened before the client saw anything).
+// Sent to clients as an opaque base64url token.
+public record SyncToken(long version, long id, long base) {
+
+    public String encode() {
+        String raw = version + "|" + id + "|" + base;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Throws IllegalArgumentException for anything we didn't issue
+    public static SyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected three parts");
+            }
+            return new SyncToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync token", e);
+        }
+    }
+}
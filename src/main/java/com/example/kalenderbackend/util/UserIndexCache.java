@@ -0,0 +1,97 @@
+package com.example.kalenderbackend.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+// In-memory per-user indexes of a user's events (conflict intervals, search terms), loaded on first
+// use and then kept current by the write paths. Each index remembers the owner's events_version it
+// reflects:
+// - a read first looks up the current events_version and reloads the index if it is behind, so
+//   writes made by other application instances are picked up;
+// - a change reported by a write path is applied only if it is the next version (or the same one,
+//   for batches). If versions were skipped, e.g. by a write on another instance or a write the index
+//   doesn't track, the index is reloaded on its next read.
+// Least recently used users are evicted beyond maxUsers; an evicted index is reloaded on its next read.
+public class UserIndexCache<T> {
+
+    private final Supplier<T> factory;
+    private final BiConsumer<Long, T> loader;
+    private final ToLongFunction<Long> currentVersion;
+    private final Map<Long, Entry<T>> entries;
+
+    // loader fills a new index with the user's current events; currentVersion reads their events_version
+    public UserIndexCache(int maxUsers, Supplier<T> factory, BiConsumer<Long, T> loader,
+                          ToLongFunction<Long> currentVersion) {
+        this.factory = factory;
+        this.loader = loader;
+        this.currentVersion = currentVersion;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<T>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    // Runs reader against the user's up-to-date index, holding its lock
+    public <R> R read(Long userId, Function<T, R> reader) {
+        // Read before the rows, so a write committing during the load is at worst loaded twice
+        long version = currentVersion.applyAsLong(userId);
+        Entry<T> entry;
+        synchronized (entries) {
+            entry = entries.computeIfAbsent(userId, id -> new Entry<>());
+        }
+        // Changes that commit while we load wait on this lock and are then checked against the load
+        synchronized (entry) {
+            if (entry.index == null || entry.version < version) {
+                T index = factory.get();
+                loader.accept(userId, index);
+                entry.index = index;
+                entry.loadedVersion = version;
+                entry.version = version;
+            }
+            return reader.apply(entry.index);
+        }
+    }
+
+    // A change the user's events went through with the given events_version; call after commit
+    public void apply(Long userId, long version, Consumer<T> change) {
+        Entry<T> entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+        }
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            // Not loaded: the load reads it from the table. Loaded at or after it: already in the index
+            if (entry.index == null || version <= entry.loadedVersion) {
+                return;
+            }
+            if (version > entry.version + 1) {
+                entry.index = null;
+                return;
+            }
+            change.accept(entry.index);
+            entry.version = Math.max(entry.version, version);
+        }
+    }
+
+    // For bulk writes: drop the index, it is rebuilt on next use
+    public void invalidate(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    private static final class Entry<T> {
+        T index;
+        long loadedVersion;
+        long version;
+    }
+}
@@ -0,0 +1,26 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Event ids move from IDENTITY to a pooled sequence so Hibernate can batch inserts.
+// Java migration because the sequence has to start above any existing id.
+public class V3__EventsSequence extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start = 1;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM events")) {
+                if (rs.next()) {
+                    start = rs.getLong(1);
+                }
+            }
+            // Increment must match @SequenceGenerator(allocationSize) on Event
+            statement.execute("CREATE SEQUENCE events_seq START WITH " + start + " INCREMENT BY 50");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Added members are invitations until the user accepts, and share nothing until they choose to
+ALTER TABLE calendar_group_members ADD COLUMN status VARCHAR(16) DEFAULT 'ACTIVE' NOT NULL;
+
+-- Members added so far never agreed to share anything: they are invited again
+UPDATE calendar_group_members SET status = 'INVITED', sharing = 'NONE' WHERE role <> 'OWNER';
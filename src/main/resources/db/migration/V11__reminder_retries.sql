@@ -0,0 +1,7 @@
+-- Reminder recovery: a delivery left CLAIMED by a sender that died, or one that FAILED, is claimed
+-- again while its reminder time is within the grace period. remind_at tells how late it is,
+-- attempts caps the retries. Older rows have no remind_at and are never retried.
+ALTER TABLE reminder_deliveries ADD COLUMN remind_at TIMESTAMP;
+ALTER TABLE reminder_deliveries ADD COLUMN attempts INT DEFAULT 1 NOT NULL;
+
+CREATE INDEX idx_reminder_deliveries_status ON reminder_deliveries (status, remind_at);
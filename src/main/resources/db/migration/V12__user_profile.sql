@@ -0,0 +1,7 @@
+-- Profile fields the register and profile endpoints already accept, and the best streak so far
+-- (current_streak_days restarts when a day is missed)
+ALTER TABLE users ADD COLUMN first_name VARCHAR(255);
+ALTER TABLE users ADD COLUMN last_name VARCHAR(255);
+ALTER TABLE users ADD COLUMN longest_streak INTEGER DEFAULT 0;
+
+UPDATE users SET longest_streak = current_streak_days WHERE current_streak_days IS NOT NULL;
@@ -0,0 +1,72 @@
+-- Initial schema, matches the JPA entities in com.example.kalenderbackend.entity
+
+CREATE TABLE users (
+    id                    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email                 VARCHAR(255) NOT NULL,
+    username              VARCHAR(255) NOT NULL,
+    password              VARCHAR(255) NOT NULL,
+    level                 INTEGER,
+    xp                    INTEGER,
+    streak                INTEGER,
+    achievements_unlocked INTEGER,
+    total_xp              INTEGER,
+    events_completed      INTEGER,
+    last_event_date       TIMESTAMP,
+    current_streak_days   INTEGER,
+    streak_start_date     TIMESTAMP,
+    created_at            TIMESTAMP,
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE events (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title            VARCHAR(255) NOT NULL,
+    description      TEXT,
+    start_time       TIMESTAMP    NOT NULL,
+    end_time         TIMESTAMP    NOT NULL,
+    location         VARCHAR(255),
+    category         VARCHAR(255),
+    color            VARCHAR(255),
+    completed        BOOLEAN      NOT NULL,
+    xp_reward        INTEGER,
+    reminder         BOOLEAN      NOT NULL,
+    reminder_minutes INTEGER,
+    user_id          BIGINT       NOT NULL,
+    created_at       TIMESTAMP,
+    updated_at       TIMESTAMP,
+    CONSTRAINT fk_events_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Range reads (date, range, upcoming) and keyset ordering
+CREATE INDEX idx_events_user_start ON events (user_id, start_time);
+-- countByUserIdAndCompleted / findByUserIdAndCompleted
+CREATE INDEX idx_events_user_completed ON events (user_id, completed);
+-- findByUserIdAndCategory
+CREATE INDEX idx_events_user_category ON events (user_id, category);
+
+CREATE TABLE achievements (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          BIGINT       NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    description      VARCHAR(255),
+    achievement_type VARCHAR(255) NOT NULL,
+    reward_xp        INTEGER      NOT NULL,
+    unlocked         BOOLEAN      NOT NULL,
+    unlocked_at      TIMESTAMP,
+    created_at       TIMESTAMP    NOT NULL,
+    CONSTRAINT fk_achievements_user FOREIGN KEY (user_id) REFERENCES users (id),
+    -- One row per type and user; also serves findByUserId via its leading column
+    CONSTRAINT uk_achievements_user_type UNIQUE (user_id, achievement_type)
+);
+
+CREATE TABLE revoked_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token_id   VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP   NOT NULL,
+    revoked_at TIMESTAMP   NOT NULL,
+    CONSTRAINT uk_revoked_tokens_token_id UNIQUE (token_id)
+);
+
+CREATE INDEX idx_revoked_tokens_expires ON revoked_tokens (expires_at);
+CREATE INDEX idx_revoked_tokens_revoked ON revoked_tokens (revoked_at);
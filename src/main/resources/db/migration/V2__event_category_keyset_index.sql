@@ -0,0 +1,4 @@
+-- Category listing is keyset-paged on (start_time, id); include start_time so
+-- the index also provides the order and no sort is needed
+DROP INDEX idx_events_user_category;
+CREATE INDEX idx_events_user_category ON events (user_id, category, start_time);
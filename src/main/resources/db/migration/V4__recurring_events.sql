@@ -0,0 +1,21 @@
+-- Recurring events: one master row per series, occurrences are expanded on read
+ALTER TABLE events ADD COLUMN recurring BOOLEAN DEFAULT FALSE NOT NULL;
+ALTER TABLE events ADD COLUMN recurrence_pattern VARCHAR(255);
+ALTER TABLE events ADD COLUMN recurrence_end TIMESTAMP;
+
+-- Range reads split on recurring: plain rows by start_time, masters by start_time <= range end
+CREATE INDEX idx_events_user_recurring_start ON events (user_id, recurring, start_time);
+
+-- Cancelled / completed occurrences of a series
+CREATE TABLE event_occurrence_overrides (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id         BIGINT    NOT NULL,
+    occurrence_start TIMESTAMP NOT NULL,
+    cancelled        BOOLEAN   NOT NULL,
+    completed        BOOLEAN   NOT NULL,
+    completed_at     TIMESTAMP,
+    xp_reward        INTEGER,
+    CONSTRAINT fk_occurrence_overrides_event FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE,
+    -- Also serves the per-series window lookup via its leading column
+    CONSTRAINT uk_occurrence_overrides_event_start UNIQUE (event_id, occurrence_start)
+);
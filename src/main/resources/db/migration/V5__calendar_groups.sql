@@ -0,0 +1,24 @@
+-- Group (team) calendars
+CREATE TABLE calendar_groups (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name       VARCHAR(255) NOT NULL,
+    owner_id   BIGINT       NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    CONSTRAINT fk_calendar_groups_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE TABLE calendar_group_members (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    group_id  BIGINT      NOT NULL,
+    user_id   BIGINT      NOT NULL,
+    role      VARCHAR(16) NOT NULL,
+    sharing   VARCHAR(16) NOT NULL,
+    joined_at TIMESTAMP   NOT NULL,
+    CONSTRAINT fk_group_members_group FOREIGN KEY (group_id) REFERENCES calendar_groups (id) ON DELETE CASCADE,
+    CONSTRAINT fk_group_members_user FOREIGN KEY (user_id) REFERENCES users (id),
+    -- Members of a group (and membership checks) via the leading column
+    CONSTRAINT uk_group_members_group_user UNIQUE (group_id, user_id)
+);
+
+-- Groups of a user
+CREATE INDEX idx_group_members_user ON calendar_group_members (user_id);
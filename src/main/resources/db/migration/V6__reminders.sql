@@ -0,0 +1,27 @@
+-- Reminder scheduler: due reminders of single events are read by range on remind_at
+ALTER TABLE events ADD COLUMN remind_at TIMESTAMP;
+
+UPDATE events SET remind_at = DATEADD(MINUTE, -reminder_minutes, CAST(start_time AS TIMESTAMP(0)))
+WHERE recurring = FALSE AND reminder = TRUE AND completed = FALSE AND reminder_minutes IS NOT NULL;
+
+CREATE INDEX idx_events_remind_at ON events (remind_at);
+
+-- Series with reminders that are still running, expanded per window
+CREATE INDEX idx_events_recurring_reminder ON events (recurring, reminder, recurrence_end);
+
+-- One row per fired reminder (occurrence_start = start_time for single events). The unique key is
+-- the claim taken before sending, so a restart or a second instance never fires one twice
+CREATE TABLE reminder_deliveries (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_id         BIGINT      NOT NULL,
+    occurrence_start TIMESTAMP   NOT NULL,
+    status           VARCHAR(16) NOT NULL,
+    claimed_at       TIMESTAMP   NOT NULL,
+    finished_at      TIMESTAMP,
+    error            VARCHAR(255),
+    CONSTRAINT fk_reminder_deliveries_event FOREIGN KEY (event_id) REFERENCES events (id) ON DELETE CASCADE,
+    CONSTRAINT uk_reminder_deliveries_event_start UNIQUE (event_id, occurrence_start)
+);
+
+-- Retention purge
+CREATE INDEX idx_reminder_deliveries_claimed ON reminder_deliveries (claimed_at);
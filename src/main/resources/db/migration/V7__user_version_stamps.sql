@@ -0,0 +1,6 @@
+-- Version stamps for conditional GETs. events_version is bumped in the same transaction as every
+-- write to a user's events; updated_at moves with every change of the user row itself
+ALTER TABLE users ADD COLUMN events_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN updated_at TIMESTAMP;
+
+UPDATE users SET updated_at = created_at;
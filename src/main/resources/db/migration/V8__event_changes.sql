@@ -0,0 +1,20 @@
+-- Delta sync: every event write stamps the event with the owner's next events_version, and a
+-- deleted event leaves a tombstone with its version. Clients read both by range after their token
+UPDATE users SET events_version = events_version + 1;
+
+ALTER TABLE events ADD COLUMN change_version BIGINT DEFAULT 0 NOT NULL;
+UPDATE events e SET change_version = (SELECT u.events_version FROM users u WHERE u.id = e.user_id);
+CREATE INDEX idx_events_user_change ON events (user_id, change_version, id);
+
+CREATE TABLE event_tombstones (
+    event_id       BIGINT    PRIMARY KEY,
+    user_id        BIGINT    NOT NULL,
+    change_version BIGINT    NOT NULL,
+    deleted_at     TIMESTAMP NOT NULL,
+    CONSTRAINT fk_event_tombstones_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+CREATE INDEX idx_event_tombstones_user_change ON event_tombstones (user_id, change_version, event_id);
+CREATE INDEX idx_event_tombstones_deleted ON event_tombstones (deleted_at);
+
+-- Highest version of a tombstone removed by compaction; clients behind it have to resync
+ALTER TABLE users ADD COLUMN tombstone_floor BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,45 @@
+-- Category dictionary: events reference a small integer id instead of repeating the name.
+-- Global defaults (user_id NULL) carry the completion XP bonus; any other name a user picks
+-- gets a row of its own on first use
+CREATE TABLE categories (
+    id       INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id  BIGINT,
+    name     VARCHAR(255) NOT NULL,
+    name_key VARCHAR(255) NOT NULL,
+    color    VARCHAR(32),
+    xp_bonus INTEGER      DEFAULT 0 NOT NULL,
+    CONSTRAINT uk_categories_user_name UNIQUE (user_id, name_key),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- The bonuses EventService.calculateXP used to switch on
+INSERT INTO categories (id, user_id, name, name_key, color, xp_bonus) VALUES
+    (1, NULL, 'Work',     'work',     '#3b82f6', 5),
+    (2, NULL, 'Study',    'study',    '#8b5cf6', 5),
+    (3, NULL, 'Exercise', 'exercise', '#22c55e', 10),
+    (4, NULL, 'Health',   'health',   '#14b8a6', 10),
+    (5, NULL, 'Social',   'social',   '#f97316', 3),
+    (6, NULL, 'Personal', 'personal', '#ec4899', 2);
+ALTER TABLE categories ALTER COLUMN id RESTART WITH 1000;
+
+INSERT INTO categories (user_id, name, name_key, xp_bonus)
+SELECT e.user_id, MIN(TRIM(e.category)), LOWER(TRIM(e.category)), 0
+FROM events e
+WHERE TRIM(e.category) <> ''
+  AND LOWER(TRIM(e.category)) NOT IN (SELECT name_key FROM categories WHERE user_id IS NULL)
+GROUP BY e.user_id, LOWER(TRIM(e.category));
+
+ALTER TABLE events ADD COLUMN category_id INTEGER;
+UPDATE events e SET category_id = (
+    SELECT c.id FROM categories c
+    WHERE c.name_key = LOWER(TRIM(e.category)) AND (c.user_id IS NULL OR c.user_id = e.user_id))
+WHERE TRIM(e.category) <> '';
+
+-- A color equal to the category's is implied, only other colors stay on the row
+UPDATE events e SET color = NULL
+WHERE color = (SELECT c.color FROM categories c WHERE c.id = e.category_id);
+
+DROP INDEX idx_events_user_category;
+ALTER TABLE events DROP COLUMN category;
+ALTER TABLE events ADD CONSTRAINT fk_events_category FOREIGN KEY (category_id) REFERENCES categories (id);
+CREATE INDEX idx_events_user_category ON events (user_id, category_id, start_time);
@@ -0,0 +1,129 @@
+package com.example.kalenderbackend.controller;
+
+import com.example.kalenderbackend.dto.AuthResponse;
+import com.example.kalenderbackend.dto.RefreshRequest;
+import com.example.kalenderbackend.repository.RevokedTokenRepository;
+import com.example.kalenderbackend.security.PasswordHashingExecutor;
+import com.example.kalenderbackend.security.TokenRevocationService;
+import com.example.kalenderbackend.security.VerifiedTokenCache;
+import com.example.kalenderbackend.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Refresh token rotation and logout against the real revocation table.
+// Not transactional: every revocation commits, like it does between two requests
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AuthController.class, JwtUtil.class, TokenRevocationService.class, VerifiedTokenCache.class,
+        PasswordHashingExecutor.class})
+class AuthControllerTest {
+
+    @Autowired
+    private AuthController authController;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @MockBean
+    private AuthenticationManager authenticationManager;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        revokedTokenRepository.deleteAll();
+    }
+
+    @Test
+    void refreshRotatesAndRejectsReplay() {
+        String refreshToken = jwtUtil.generateRefreshToken("rotating", 7L);
+
+        ResponseEntity<?> first = authController.refresh(new RefreshRequest(refreshToken));
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        AuthResponse rotated = (AuthResponse) first.getBody();
+        assertThat(rotated.getUserId()).isEqualTo(7L);
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(refreshToken);
+
+        // The old token is spent, the new one works once
+        assertThat(authController.refresh(new RefreshRequest(refreshToken)).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(authController.refresh(new RefreshRequest(rotated.getRefreshToken())).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void accessTokensCannotRefresh() {
+        String accessToken = jwtUtil.generateToken("rotating", 7L);
+
+        assertThat(authController.refresh(new RefreshRequest(accessToken)).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void concurrentRefreshesWithOneTokenSucceedOnce() throws Exception {
+        String refreshToken = jwtUtil.generateRefreshToken("racing", 8L);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<HttpStatus>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<HttpStatus> refresh = () -> {
+                    start.await();
+                    return (HttpStatus) authController.refresh(new RefreshRequest(refreshToken)).getStatusCode();
+                };
+                results.add(executor.submit(refresh));
+            }
+            start.countDown();
+
+            List<HttpStatus> statuses = new ArrayList<>();
+            for (Future<HttpStatus> result : results) {
+                statuses.add(result.get());
+            }
+            assertThat(statuses).containsOnlyOnce(HttpStatus.OK);
+            assertThat(statuses).filteredOn(s -> s != HttpStatus.OK).containsOnly(HttpStatus.UNAUTHORIZED);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void logoutRevokesBothTokens() {
+        String accessToken = jwtUtil.generateToken("leaving", 9L);
+        String refreshToken = jwtUtil.generateRefreshToken("leaving", 9L);
+
+        assertThat(authController.logout("Bearer " + accessToken, new RefreshRequest(refreshToken))
+                .getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(tokenRevocationService.isRevoked(jwtUtil.verify(accessToken).id())).isTrue();
+        assertThat(authController.refresh(new RefreshRequest(refreshToken)).getStatusCode())
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
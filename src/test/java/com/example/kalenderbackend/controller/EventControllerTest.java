@@ -0,0 +1,147 @@
+package com.example.kalenderbackend.controller;
+
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventPage;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.service.AchievementService;
+import com.example.kalenderbackend.service.CategoryService;
+import com.example.kalenderbackend.service.ChangeStreamService;
+import com.example.kalenderbackend.service.EventBatchService;
+import com.example.kalenderbackend.service.EventConflictService;
+import com.example.kalenderbackend.service.EventDensityService;
+import com.example.kalenderbackend.service.EventExportService;
+import com.example.kalenderbackend.service.EventImportService;
+import com.example.kalenderbackend.service.EventRequestValidator;
+import com.example.kalenderbackend.service.EventSearchService;
+import com.example.kalenderbackend.service.EventService;
+import com.example.kalenderbackend.service.EventSyncService;
+import com.example.kalenderbackend.service.LoggingReminderSink;
+import com.example.kalenderbackend.service.RecurrenceExpansionService;
+import com.example.kalenderbackend.service.ReminderScheduler;
+import com.example.kalenderbackend.service.UserVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Handlers are called directly; the user id stands in for what @CurrentUser resolves
+@DataJpaTest
+@Import({EventController.class, EventService.class, EventMapper.class, CategoryService.class,
+        AchievementService.class, RecurrenceExpansionService.class, EventConflictService.class,
+        EventDensityService.class, EventSearchService.class, ReminderScheduler.class, LoggingReminderSink.class,
+        UserVersionService.class, EventSyncService.class, ChangeStreamService.class, EventBatchService.class,
+        EventImportService.class, EventRequestValidator.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@TestPropertySource(properties = "reminders.enabled=false")
+class EventControllerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Autowired
+    private EventController eventController;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockBean
+    private EventExportService eventExportService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("pages@livskraft.se");
+        user.setUsername("PageUser");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+    }
+
+    @Test
+    void pagesWalkAllEventsInStartTimeThenIdOrder() {
+        List<Event> saved = new ArrayList<>();
+        // Start times come in pairs, so the id has to break ties, also across page boundaries
+        for (int i = 0; i < 7; i++) {
+            saved.add(save("Event " + i, START.plusHours(i / 2)));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        EventPage page;
+        do {
+            page = getUserEvents(cursor, 2);
+            assertThat(page.getEvents()).hasSizeLessThanOrEqualTo(2);
+            page.getEvents().forEach(event -> seen.add(event.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertThat(seen).containsExactlyElementsOf(saved.stream().map(Event::getId).toList());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void eventsInsertedBeforeTheCursorDoNotShiftLaterPages() {
+        for (int i = 0; i < 4; i++) {
+            save("Event " + i, START.plusHours(i));
+        }
+        EventPage first = getUserEvents(null, 2);
+
+        save("Earlier", START.minusDays(1));
+        EventPage second = getUserEvents(first.getNextCursor(), 2);
+
+        assertThat(second.getEvents()).extracting(EventDTO::getTitle).containsExactly("Event 2", "Event 3");
+        assertThat(second.isHasMore()).isFalse();
+    }
+
+    @Test
+    void pageSizeIsClampedToOneThroughTwoHundred() {
+        for (int i = 0; i < 205; i++) {
+            save("Event " + i, START.plusMinutes(i));
+        }
+
+        assertThat(getUserEvents(null, 0).getEvents()).hasSize(1);
+        assertThat(getUserEvents(null, -5).getEvents()).hasSize(1);
+        EventPage capped = getUserEvents(null, 10_000);
+        assertThat(capped.getEvents()).hasSize(200);
+        assertThat(capped.isHasMore()).isTrue();
+    }
+
+    @Test
+    void tamperedCursorIsABadRequest() {
+        assertThatThrownBy(() -> getUserEvents("not-a-cursor", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private EventPage getUserEvents(String cursor, int limit) {
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/events"));
+        return eventController.getUserEvents(user.getId(), cursor, limit, request).getBody();
+    }
+
+    private Event save(String title, LocalDateTime start) {
+        return eventRepository.save(new Event(title, start, start.plusHours(1), user));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The read projections must cost one statement per list call, however many rows come back
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 6, 9, 0);
+    // Global categories seeded by V9
+    private static final int WORK = 1;
+    private static final int PERSONAL = 6;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("projection@livskraft.se");
+        user.setUsername("ProjectionUser");
+        user.setPassword("not-a-real-hash");
+        userId = userRepository.save(user).getId();
+
+        for (int i = 0; i < 20; i++) {
+            Event event = new Event("Event " + i, BASE.plusHours(i), BASE.plusHours(i).plusMinutes(30), user);
+            event.setCategoryId(i % 2 == 0 ? WORK : PERSONAL);
+            eventRepository.save(event);
+        }
+
+        // Nothing may be served from the persistence context
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageIsOneStatementWithUsername() {
+        List<EventDTO> page = eventRepository.findPageByUserId(userId, PageRequest.of(0, 11));
+
+        assertThat(page).hasSize(11);
+        assertThat(page).allSatisfy(dto -> {
+            assertThat(dto.getUserId()).isEqualTo(userId);
+            assertThat(dto.getUserName()).isEqualTo("ProjectionUser");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void keysetAndCategoryPagesAreOneStatementEach() {
+        List<EventDTO> first = eventRepository.findPageByUserIdAndCategory(userId, WORK, PageRequest.of(0, 5));
+        EventDTO last = first.get(first.size() - 1);
+        List<EventDTO> next = eventRepository.findPageByUserIdAndCategoryAfter(
+                userId, WORK, last.getStartTime(), last.getId(), PageRequest.of(0, 5));
+
+        assertThat(first).hasSize(5);
+        assertThat(next).hasSize(5).allSatisfy(dto -> {
+            assertThat(dto.getCategory()).isEqualTo("Work");
+            assertThat(dto.getColor()).isEqualTo("#3b82f6");
+        });
+        assertThat(next.get(0).getStartTime()).isAfter(last.getStartTime());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void dayAndRangeAreOneStatementEach() {
+        List<EventDTO> day = eventRepository.findDTOsByUserIdAndDate(userId, LocalDate.of(2024, 5, 6));
+        List<EventDTO> range = eventRepository.findDTOsByUserIdInRange(userId, BASE, BASE.plusHours(3));
+
+        assertThat(day).hasSize(15);
+        assertThat(range).hasSize(4);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void rescheduleIsOneNarrowUpdateOfOwnedSingleEvents() {
+        Long eventId = eventRepository.findPageByUserId(userId, PageRequest.of(0, 1)).get(0).getId();
+        statistics.clear();
+        LocalDateTime start = BASE.plusDays(1).withSecond(30).withNano(500_000);
+
+        assertThat(eventRepository.reschedule(eventId, userId + 1, start, start.plusHours(1),
+                start.withNano(0), 7, BASE)).isZero();
+        assertThat(eventRepository.reschedule(eventId, userId, start, start.plusHours(1),
+                start.withNano(0), 7, BASE)).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        Event moved = eventRepository.findById(eventId).orElseThrow();
+        assertThat(moved.getStartTime()).isEqualTo(start);
+        assertThat(moved.getRemindAt()).isEqualTo(start.withNano(0).minusMinutes(15));
+        assertThat(moved.getChangeVersion()).isEqualTo(7);
+        assertThat(moved.getTitle()).isEqualTo("Event 0");
+    }
+}
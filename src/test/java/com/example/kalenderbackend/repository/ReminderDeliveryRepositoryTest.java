@@ -0,0 +1,85 @@
+package com.example.kalenderbackend.repository;
+
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.ReminderDelivery;
+import com.example.kalenderbackend.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The claim is what keeps a reminder from firing twice (restarts, several instances)
+@DataJpaTest
+class ReminderDeliveryRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 10, 0);
+    private static final LocalDateTime NOW = START.minusMinutes(15);
+
+    @Autowired
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("reminded@livskraft.se");
+        user.setUsername("Reminded");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+
+        event = new Event("Standup", START, START.plusMinutes(15), user);
+        event.setCategoryId(1); // Work
+        event.setReminderMinutes(15);
+        eventRepository.save(event);
+        entityManager.flush();
+    }
+
+    @Test
+    void remindersAreDueByRemindAt() {
+        assertThat(event.getRemindAt()).isEqualTo(NOW);
+
+        List<Object[]> due = eventRepository.findRemindersDue(NOW, NOW.plusMinutes(1));
+        assertThat(due).hasSize(1);
+        assertThat(due.get(0)[0]).isEqualTo(event.getId());
+        assertThat(eventRepository.findRemindersDue(NOW.plusSeconds(1), NOW.plusMinutes(1))).isEmpty();
+    }
+
+    @Test
+    void aReminderIsClaimedOnce() {
+        assertThat(deliveryRepository.claim(event.getId(), START, NOW, NOW)).isEqualTo(1);
+        assertThat(deliveryRepository.claim(event.getId(), START, NOW, NOW)).isZero();
+
+        deliveryRepository.finish(event.getId(), START, ReminderDelivery.Status.SENT, NOW, null);
+        entityManager.clear();
+        assertThat(deliveryRepository.findByEventIdAndOccurrenceStart(event.getId(), START))
+                .get().extracting(ReminderDelivery::getStatus).isEqualTo(ReminderDelivery.Status.SENT);
+    }
+
+    @Test
+    void staleRemindersAreNotClaimed() {
+        // Moved since the reminder was loaded
+        assertThat(deliveryRepository.claim(event.getId(), START, NOW.minusHours(1), NOW)).isZero();
+
+        // Completed meanwhile
+        event.setCompleted(true);
+        eventRepository.saveAndFlush(event);
+        assertThat(deliveryRepository.claim(event.getId(), START, NOW, NOW)).isZero();
+        assertThat(event.getRemindAt()).isNull();
+    }
+}
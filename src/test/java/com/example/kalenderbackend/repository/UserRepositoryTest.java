@@ -19,6 +19,7 @@ class UserRepositoryTest {
         User user = new User();
         user.setEmail("test@livskraft.se");
         user.setUsername("TestAnvändare");
+        user.setPassword("not-a-real-hash");
 
         // When
         User savedUser = userRepository.save(user);
@@ -0,0 +1,115 @@
+package com.example.kalenderbackend.security;
+
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(CurrentUserArgumentResolver.class)
+class CurrentUserArgumentResolverTest {
+
+    @Autowired
+    private CurrentUserArgumentResolver resolver;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Stands in for a controller method; only its parameters are used
+    @SuppressWarnings("unused")
+    private void handler(@CurrentUser Long userId, @CurrentUser AuthenticatedUser principal,
+                         @CurrentUser User user, Long notAnnotated, @CurrentUser String unsupported) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void supportsOnlyAnnotatedIdPrincipalAndUser() throws Exception {
+        assertThat(resolver.supportsParameter(parameter(0))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(1))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(2))).isTrue();
+        assertThat(resolver.supportsParameter(parameter(3))).isFalse();
+        assertThat(resolver.supportsParameter(parameter(4))).isFalse();
+    }
+
+    @Test
+    void idAndPrincipalComeFromTheTokenWithoutAQuery() throws Exception {
+        // No such user: the JWT claims alone are enough
+        AuthenticatedUser principal = new AuthenticatedUser(42L, "alice");
+        authenticate(principal);
+
+        assertThat(resolve(0)).isEqualTo(42L);
+        assertThat(resolve(1)).isSameAs(principal);
+    }
+
+    @Test
+    void userIsALazyReferenceLoadedOnFirstRead() throws Exception {
+        User saved = new User();
+        saved.setEmail("current@livskraft.se");
+        saved.setUsername("CurrentUser");
+        saved.setPassword("not-a-real-hash");
+        userRepository.save(saved);
+        entityManager.flush();
+        entityManager.clear();
+        authenticate(new AuthenticatedUser(saved.getId(), saved.getUsername()));
+
+        User user = (User) resolve(2);
+
+        assertThat(Hibernate.isInitialized(user)).isFalse();
+        assertThat(user.getId()).isEqualTo(saved.getId());
+        assertThat(user.getEmail()).isEqualTo("current@livskraft.se");
+    }
+
+    @Test
+    void otherPrincipalsAreLookedUpByUsername() throws Exception {
+        User saved = new User();
+        saved.setEmail("plain@livskraft.se");
+        saved.setUsername("PlainUser");
+        saved.setPassword("not-a-real-hash");
+        userRepository.save(saved);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("PlainUser", null, List.of()));
+
+        assertThat(resolve(0)).isEqualTo(saved.getId());
+    }
+
+    @Test
+    void unauthenticatedRequestIsRejected() throws Exception {
+        assertThatThrownBy(() -> resolve(0)).hasMessage("User not found");
+    }
+
+    private void authenticate(AuthenticatedUser principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private Object resolve(int index) throws Exception {
+        return resolver.resolveArgument(parameter(index), null, null, null);
+    }
+
+    private static MethodParameter parameter(int index) throws NoSuchMethodException {
+        Method handler = CurrentUserArgumentResolverTest.class.getDeclaredMethod("handler",
+                Long.class, AuthenticatedUser.class, User.class, Long.class, String.class);
+        return new MethodParameter(handler, index);
+    }
+}
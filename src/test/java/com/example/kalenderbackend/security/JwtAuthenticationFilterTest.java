@@ -0,0 +1,90 @@
+package com.example.kalenderbackend.security;
+
+import com.example.kalenderbackend.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import({JwtAuthenticationFilter.class, JwtUtil.class, VerifiedTokenCache.class, TokenRevocationService.class})
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @SpyBean
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        tokenCache.clear();
+    }
+
+    @Test
+    void principalComesFromTheClaimsOfOneParse() throws Exception {
+        // No such user in the database: the filter must not need one
+        String jwt = jwtUtil.generateToken("alice", 42L);
+
+        Authentication first = authenticate(jwt);
+        Authentication second = authenticate(jwt);
+
+        assertThat(first.getPrincipal()).isEqualTo(new AuthenticatedUser(42L, "alice"));
+        assertThat(first.getName()).isEqualTo("alice");
+        assertThat(second.getPrincipal()).isEqualTo(first.getPrincipal());
+        // Verified once, the second request is served from the cache; no per-claim re-parsing
+        verify(jwtUtil, times(1)).verify(jwt);
+        verify(jwtUtil, never()).extractUsername(anyString());
+        verify(jwtUtil, never()).extractClaim(anyString(), any());
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsBearer() throws Exception {
+        String refresh = jwtUtil.generateRefreshToken("alice", 42L);
+
+        assertThat(authenticate(refresh)).isNull();
+        assertThat(tokenCache.get(refresh)).isNull();
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenWhenCached() throws Exception {
+        String jwt = jwtUtil.generateToken("alice", 42L);
+        assertThat(authenticate(jwt)).isNotNull();
+
+        String tokenId = jwtUtil.verify(jwt).id();
+        tokenRevocationService.revoke(tokenId, new Date(System.currentTimeMillis() + 3_600_000));
+
+        assertThat(authenticate(jwt)).isNull();
+    }
+
+    private Authentication authenticate(String jwt) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/events");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.kalenderbackend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Low costs keep bcrypt fast enough for a unit test
+class RehashingPasswordEncoderTest {
+
+    private static int cost(String hash) {
+        return Integer.parseInt(hash.substring(4, 6));
+    }
+
+    @Test
+    void upgradesWhenCostDiffersEitherWay() {
+        String hash = new RehashingPasswordEncoder(5).encode("secret");
+
+        assertThat(new RehashingPasswordEncoder(5).upgradeEncoding(hash)).isFalse();
+        assertThat(new RehashingPasswordEncoder(6).upgradeEncoding(hash)).isTrue();
+        assertThat(new RehashingPasswordEncoder(4).upgradeEncoding(hash)).isTrue();
+        // Verifying still uses the cost stored in the hash
+        assertThat(new RehashingPasswordEncoder(6).matches("secret", hash)).isTrue();
+    }
+
+    @Test
+    void unknownFormatsAreLeftAlone() {
+        RehashingPasswordEncoder encoder = new RehashingPasswordEncoder(5);
+
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+        assertThat(encoder.upgradeEncoding("plain")).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$xx$abc")).isFalse();
+    }
+
+    @Test
+    void loginRehashesWithTheConfiguredCost() {
+        String oldHash = new RehashingPasswordEncoder(4).encode("secret");
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("alice").password(oldHash).authorities("USER").build());
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setUserDetailsPasswordService(users);
+        provider.setPasswordEncoder(new RehashingPasswordEncoder(5));
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+
+        String newHash = users.loadUserByUsername("alice").getPassword();
+        assertThat(newHash).isNotEqualTo(oldHash);
+        assertThat(cost(newHash)).isEqualTo(5);
+        // Logging in again with the current cost doesn't rehash
+        provider.authenticate(new UsernamePasswordAuthenticationToken("alice", "secret"));
+        assertThat(users.loadUserByUsername("alice").getPassword()).isEqualTo(newHash);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.kalenderbackend.security;
+
+import com.example.kalenderbackend.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows written straight through the repository stand in for revocations on another node
+@DataJpaTest
+@Import(TokenRevocationService.class)
+@TestPropertySource(properties = "jwt.revocation.sync-overlap-ms=60000")
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    void revokedOnThisNodeIsSeenImmediately() {
+        assertThat(tokenRevocationService.revoke("local", inOneHour())).isTrue();
+
+        assertThat(tokenRevocationService.isRevoked("local")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("other")).isFalse();
+        // Second revoke of the same token is not a new claim
+        assertThat(tokenRevocationService.revoke("local", inOneHour())).isFalse();
+    }
+
+    @Test
+    void syncPicksUpRevocationsFromOtherNodes() {
+        revokedTokenRepository.insertIfAbsent("remote", LocalDateTime.now().plusHours(1), LocalDateTime.now());
+
+        tokenRevocationService.sync();
+
+        assertThat(tokenRevocationService.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void lateCommitStampedBeforeThePreviousSyncIsNotMissed() {
+        LocalDateTime stamped = LocalDateTime.now();
+        tokenRevocationService.sync();
+
+        // revoked_at was taken before that sync ran, but the row only became visible after it
+        revokedTokenRepository.insertIfAbsent("late", LocalDateTime.now().plusHours(1), stamped.minusSeconds(5));
+        tokenRevocationService.sync();
+
+        assertThat(tokenRevocationService.isRevoked("late")).isTrue();
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.kalenderbackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static VerifiedTokenCache.CachedToken cached(String tokenId) {
+        return new VerifiedTokenCache.CachedToken(new AuthenticatedUser(1L, "alice"), tokenId);
+    }
+
+    private static Date inMinutes(int minutes) {
+        return new Date(System.currentTimeMillis() + minutes * 60_000L);
+    }
+
+    @Test
+    void hitReturnsWhatWasPut() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000);
+        VerifiedTokenCache.CachedToken token = cached("jti-1");
+        cache.put("token-1", token, inMinutes(10));
+
+        assertThat(cache.get("token-1")).isSameAs(token);
+        assertThat(cache.get("token-2")).isNull();
+        assertThat(cache.getStats().hits()).isEqualTo(1);
+        assertThat(cache.getStats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void entriesExpireWithTheTtl() throws InterruptedException {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 20);
+        cache.put("token-1", cached("jti-1"), inMinutes(10));
+
+        Thread.sleep(50);
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.getStats().size()).isZero();
+    }
+
+    @Test
+    void entriesNeverOutliveTheToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000);
+        cache.put("token-1", cached("jti-1"), new Date(System.currentTimeMillis() - 1));
+
+        assertThat(cache.get("token-1")).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(1, 60_000);
+        cache.put("token-1", cached("jti-1"), inMinutes(10));
+        cache.put("token-2", cached("jti-2"), inMinutes(10));
+
+        assertThat(cache.get("token-1")).isNull();
+        assertThat(cache.get("token-2")).isNotNull();
+        assertThat(cache.getStats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void sizeStaysWithinMaxSizeAcrossStripes() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000);
+        for (int i = 0; i < 1_000; i++) {
+            cache.put("token-" + i, cached("jti-" + i), inMinutes(10));
+        }
+
+        VerifiedTokenCache.CacheStats stats = cache.getStats();
+        assertThat(stats.size()).isLessThanOrEqualTo(100);
+        assertThat(stats.size() + stats.evictions()).isEqualTo(1_000);
+    }
+
+    @Test
+    void invalidateAndClearRemoveEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, 60_000);
+        cache.put("token-1", cached("jti-1"), inMinutes(10));
+        cache.put("token-2", cached("jti-2"), inMinutes(10));
+
+        cache.invalidate("token-1");
+        assertThat(cache.get("token-1")).isNull();
+
+        cache.clear();
+        assertThat(cache.get("token-2")).isNull();
+    }
+}
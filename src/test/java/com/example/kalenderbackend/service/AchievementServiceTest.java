@@ -0,0 +1,73 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.AchievementSummary;
+import com.example.kalenderbackend.entity.Achievement;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AchievementService.class, ChangeStreamService.class})
+class AchievementServiceTest {
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("achiever@livskraft.se");
+        user.setUsername("Achiever");
+        user.setPassword("not-a-real-hash");
+        user.setEventsCompleted(5);
+        userId = userRepository.save(user).getId();
+
+        achievementService.checkAndUnlockAchievements(userId);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void availableIsTheWholeCatalogFromOneQuery() {
+        List<AchievementSummary> available = achievementService.getAvailableAchievements(userId);
+
+        assertThat(available).hasSize(Achievement.AchievementType.values().length);
+        assertThat(available).filteredOn(AchievementSummary::unlocked)
+                .extracting(AchievementSummary::type)
+                .containsExactly(Achievement.AchievementType.FIRST_EVENT, Achievement.AchievementType.EVENTS_5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listsDoNotLoadTheUser() {
+        List<AchievementSummary> unlocked = achievementService.getUnlockedAchievements(userId);
+
+        assertThat(unlocked).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.CategoryRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(CategoryService.class)
+class CategoryServiceTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("categories@livskraft.se");
+        user.setUsername("CategoryUser");
+        user.setPassword("not-a-real-hash");
+        userId = userRepository.save(user).getId();
+    }
+
+    @Test
+    void globalDefaultsResolveCaseInsensitively() {
+        Integer work = categoryService.resolve(userId, " work ");
+
+        assertThat(work).isEqualTo(categoryRepository.findByUserIdIsNullAndNameKey("work").orElseThrow().getId());
+        assertThat(categoryService.get(work).name()).isEqualTo("Work");
+        assertThat(categoryService.get(work).xpBonus()).isEqualTo(5);
+        assertThat(categoryService.resolve(userId, null)).isNull();
+        assertThat(categoryService.resolve(userId, "  ")).isNull();
+    }
+
+    @Test
+    void otherNamesBecomeOneCategoryOfTheUser() {
+        Integer knitting = categoryService.resolve(userId, "Knitting");
+
+        assertThat(categoryService.resolve(userId, "KNITTING")).isEqualTo(knitting);
+        assertThat(categoryService.get(knitting).name()).isEqualTo("Knitting");
+        assertThat(categoryService.get(knitting).xpBonus()).isZero();
+        assertThat(categoryService.findId(userId, "Pottery")).isNull();
+    }
+
+    @Test
+    void lookupsByIdAreCached() {
+        Integer work = categoryService.resolve(userId, "Work");
+        categoryService.get(work);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        entityManager.clear();
+
+        assertThat(categoryService.get(work).color()).isEqualTo("#3b82f6");
+        assertThat(categoryService.color(work, null)).isEqualTo("#3b82f6");
+        assertThat(categoryService.ownColor(work, "#3B82F6")).isNull();
+        assertThat(categoryService.ownColor(work, "#000000")).isEqualTo("#000000");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
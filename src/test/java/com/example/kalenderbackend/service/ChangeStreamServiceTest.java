@@ -0,0 +1,136 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ChangeNotification;
+import com.example.kalenderbackend.entity.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The senders are held back, so frames stay in a connection's queue and a queue holding more than
+// max-queued frames shows up as a disconnect. Each connection starts with its "ready" frame queued.
+class ChangeStreamServiceTest {
+
+    private static final Long USER = 1L;
+    private static final int MAX_QUEUED = 3;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService senders = Executors.newSingleThreadExecutor();
+    private ChangeStreamService changeStreamService;
+
+    @BeforeEach
+    void setUp() {
+        senders.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        changeStreamService = new ChangeStreamService();
+        ReflectionTestUtils.setField(changeStreamService, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(changeStreamService, "maxQueued", MAX_QUEUED);
+        ReflectionTestUtils.setField(changeStreamService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(changeStreamService, "senders", senders);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        senders.shutdownNow();
+    }
+
+    @Test
+    void publishWaitsForCommitAndDropsRolledBackChanges() {
+        changeStreamService.connect(USER);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(changeStreamService.connectionCount(USER)).isEqualTo(1);
+
+        // Only the committed notifications reach the queue, and they overflow it
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(changeStreamService.connectionCount(USER)).isZero();
+    }
+
+    @Test
+    void clientThatFallsTooFarBehindIsDisconnected() {
+        changeStreamService.connect(USER);
+        changeStreamService.publish(USER, notification(1));
+        changeStreamService.publish(USER, notification(2));
+        assertThat(changeStreamService.connectionCount(USER)).isEqualTo(1);
+
+        changeStreamService.publish(USER, notification(3));
+
+        assertThat(changeStreamService.connectionCount(USER)).isZero();
+        // It can reconnect and resync
+        changeStreamService.connect(USER);
+        assertThat(changeStreamService.connectionCount(USER)).isEqualTo(1);
+    }
+
+    @Test
+    void domainEventsBecomeOneNotificationPerEventExceptImports() {
+        changeStreamService.connect(USER);
+        List<Event> events = new ArrayList<>();
+        for (long id = 1; id <= MAX_QUEUED; id++) {
+            Event event = new Event("Event " + id, LocalDateTime.now(), LocalDateTime.now().plusHours(1), null);
+            event.setId(id);
+            events.add(event);
+        }
+
+        changeStreamService.onEventsChanged(EventsChanged.imported(USER, 1, events));
+        assertThat(changeStreamService.connectionCount(USER)).isEqualTo(1);
+
+        changeStreamService.onEventsChanged(EventsChanged.created(USER, 2, events));
+        assertThat(changeStreamService.connectionCount(USER)).isZero();
+    }
+
+    @Test
+    void openStreamsArePerUserLimited() {
+        changeStreamService.connect(USER);
+        changeStreamService.connect(USER);
+
+        assertThatThrownBy(() -> changeStreamService.connect(USER))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(changeStreamService.connectionCount(USER)).isEqualTo(2);
+        changeStreamService.connect(2L);
+        assertThat(changeStreamService.connectionCount(2L)).isEqualTo(1);
+    }
+
+    // Publishes MAX_QUEUED notifications in a transaction that ends with the given status
+    private void inTransaction(int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < MAX_QUEUED; i++) {
+                changeStreamService.publish(USER, notification(i));
+            }
+            assertThat(changeStreamService.connectionCount(USER)).isEqualTo(1);
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(status);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ChangeNotification notification(long eventId) {
+        return ChangeNotification.event(ChangeNotification.EVENT_UPDATED, eventId, eventId);
+    }
+}
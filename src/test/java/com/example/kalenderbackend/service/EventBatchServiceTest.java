@@ -0,0 +1,147 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.BatchItemResult;
+import com.example.kalenderbackend.dto.CreateEventRequest;
+import com.example.kalenderbackend.dto.UpdateEventBatchItem;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({EventBatchService.class, EventMapper.class, CategoryService.class, EventRequestValidator.class,
+        UserVersionService.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EventBatchServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Autowired
+    private EventBatchService eventBatchService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("BatchOwner");
+        other = user("BatchOther");
+    }
+
+    @Test
+    void createAppliesEveryItemUnderOneVersion() {
+        EventBatchService.BatchResult result = eventBatchService.createEvents(owner.getId(), owner.getUsername(),
+                List.of(request("First", START), request("Second", START.plusDays(1))));
+
+        assertThat(result.applied()).isTrue();
+        assertThat(result.results()).extracting(BatchItemResult::getStatus).containsExactly("CREATED", "CREATED");
+        assertThat(result.results().get(1).getEvent().getUserName()).isEqualTo("BatchOwner");
+        List<Event> stored = eventRepository.findByUserId(owner.getId());
+        assertThat(stored).hasSize(2);
+        assertThat(stored).extracting(Event::getChangeVersion).containsOnly(stored.get(0).getChangeVersion());
+    }
+
+    @Test
+    void oneInvalidItemRejectsTheWholeBatch() {
+        String etag = userVersionService.eventsETag(owner.getId());
+        CreateEventRequest backwards = request("Backwards", START);
+        backwards.setEndTime(START.minusHours(1));
+
+        EventBatchService.BatchResult result = eventBatchService.createEvents(owner.getId(), owner.getUsername(),
+                List.of(request("Fine", START), backwards, request("", START)));
+
+        assertThat(result.applied()).isFalse();
+        assertThat(result.results()).extracting(BatchItemResult::getStatus)
+                .containsExactly("SKIPPED", "INVALID", "INVALID");
+        assertThat(result.results()).extracting(BatchItemResult::getError)
+                .containsExactly(null, "End time is before start time", "Title is required");
+        assertThat(eventRepository.findByUserId(owner.getId())).isEmpty();
+        assertThat(userVersionService.eventsETag(owner.getId())).isEqualTo(etag);
+    }
+
+    @Test
+    void ownershipOfTheWholeBatchIsCheckedWithOneQuery() {
+        Event mine = eventRepository.save(new Event("Mine", START, START.plusHours(1), owner));
+        Event theirs = eventRepository.save(new Event("Theirs", START, START.plusHours(1), other));
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EventBatchService.BatchResult result = eventBatchService.updateEvents(owner.getId(),
+                List.of(item(mine.getId(), "Mine renamed"), item(theirs.getId(), "Hijacked")));
+
+        assertThat(result.applied()).isFalse();
+        assertThat(result.results()).extracting(BatchItemResult::getStatus).containsExactly("SKIPPED", "NOT_FOUND");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(eventRepository.findById(mine.getId()).orElseThrow().getTitle()).isEqualTo("Mine");
+        assertThat(eventRepository.findById(theirs.getId()).orElseThrow().getTitle()).isEqualTo("Theirs");
+    }
+
+    @Test
+    void duplicateIdsAreInvalid() {
+        Event mine = eventRepository.save(new Event("Mine", START, START.plusHours(1), owner));
+
+        EventBatchService.BatchResult result = eventBatchService.updateEvents(owner.getId(),
+                List.of(item(mine.getId(), "Once"), item(mine.getId(), "Twice")));
+
+        assertThat(result.applied()).isFalse();
+        assertThat(result.results()).extracting(BatchItemResult::getError)
+                .containsExactly(null, "Duplicate event id in batch");
+    }
+
+    private static CreateEventRequest request(String title, LocalDateTime start) {
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitle(title);
+        request.setStartTime(start);
+        request.setEndTime(start.plusHours(1));
+        return request;
+    }
+
+    private static UpdateEventBatchItem item(Long id, String title) {
+        UpdateEventBatchItem item = new UpdateEventBatchItem();
+        item.setId(id);
+        item.setTitle(title);
+        item.setStartTime(START);
+        item.setEndTime(START.plusHours(1));
+        return item;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setEmail(username.toLowerCase() + "@livskraft.se");
+        user.setUsername(username);
+        user.setPassword("not-a-real-hash");
+        return userRepository.save(user);
+    }
+}
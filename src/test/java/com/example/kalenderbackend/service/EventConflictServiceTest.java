@@ -0,0 +1,98 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventInterval;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({EventConflictService.class, RecurrenceExpansionService.class})
+class EventConflictServiceTest {
+
+    private static final LocalDateTime JUNE_3 = LocalDateTime.of(2024, 6, 3, 9, 0); // a Monday
+
+    @Autowired
+    private EventConflictService eventConflictService;
+
+    @Autowired
+    private RecurrenceExpansionService recurrenceExpansionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("conflicts@livskraft.se");
+        user.setUsername("ConflictUser");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+    }
+
+    @Test
+    void findsSinglesAndOccurrencesOverlappingTheRange() {
+        Event single = save("Dentist", JUNE_3.plusMinutes(30), null);
+        Event weekly = save("Standup", JUNE_3.minusWeeks(4), "FREQ=WEEKLY");
+        save("Lunch", JUNE_3.plusHours(3), null);
+
+        List<EventInterval> conflicts = eventConflictService.findConflicts(
+                user.getId(), JUNE_3, JUNE_3.plusHours(1), null);
+
+        assertThat(conflicts).extracting(EventInterval::id).containsExactly(weekly.getId(), single.getId());
+        assertThat(conflicts.get(0).startTime()).isEqualTo(JUNE_3);
+        // The edited event itself is left out
+        assertThat(eventConflictService.findConflicts(user.getId(), JUNE_3, JUNE_3.plusHours(1), weekly.getId()))
+                .extracting(EventInterval::id).containsExactly(single.getId());
+    }
+
+    @Test
+    void seriesOutsideTheRangeAreNotExpanded() {
+        // Ended a year earlier, and one that only starts after the range
+        save("Old course", JUNE_3.minusYears(1), "FREQ=DAILY;COUNT=10");
+        save("Autumn term", JUNE_3.plusMonths(3), "FREQ=WEEKLY;UNTIL=20241220");
+        RecurrenceExpansionService.CacheStats before = recurrenceExpansionService.getStats();
+
+        List<EventInterval> conflicts = eventConflictService.findConflicts(
+                user.getId(), JUNE_3, JUNE_3.plusHours(1), null);
+
+        RecurrenceExpansionService.CacheStats after = recurrenceExpansionService.getStats();
+        assertThat(conflicts).isEmpty();
+        assertThat(after.hits() + after.misses()).isEqualTo(before.hits() + before.misses());
+    }
+
+    @Test
+    void lastOccurrenceOfAnEndedSeriesStillConflicts() {
+        // Daily for three days from June 1st, the last occurrence is June 3rd
+        Event course = save("Course", JUNE_3.minusDays(2), "FREQ=DAILY;COUNT=3");
+
+        assertThat(eventConflictService.findConflicts(user.getId(), JUNE_3.plusMinutes(30), JUNE_3.plusHours(2), null))
+                .extracting(EventInterval::id).containsExactly(course.getId());
+        assertThat(eventConflictService.findConflicts(user.getId(), JUNE_3.plusDays(1), JUNE_3.plusDays(2), null))
+                .isEmpty();
+    }
+
+    private Event save(String title, LocalDateTime start, String pattern) {
+        Event event = new Event(title, start, start.plusHours(1), user);
+        if (pattern != null) {
+            event.setRecurring(true);
+            event.setRecurrencePattern(pattern);
+        }
+        return eventRepository.save(event);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.DensityBucket;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({EventDensityService.class, RecurrenceExpansionService.class})
+class EventDensityServiceTest {
+
+    // A past month, so it is eligible for caching
+    private static final LocalDate MAY_1 = LocalDate.of(2024, 5, 1);
+
+    @Autowired
+    private EventDensityService eventDensityService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("density@livskraft.se");
+        user.setUsername("DensityUser");
+        user.setPassword("not-a-real-hash");
+        userId = userRepository.save(user).getId();
+
+        // Two events on May 1st (one completed), one on May 8th, and a weekly series from May 2nd
+        save(user, MAY_1.atTime(9, 0), true, null);
+        save(user, MAY_1.atTime(14, 0), false, null);
+        save(user, MAY_1.plusDays(7).atTime(9, 0), false, null);
+        save(user, MAY_1.plusDays(1).atTime(18, 0), false, "FREQ=WEEKLY;COUNT=3");
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void countsPerDayIncludingOccurrences() {
+        List<DensityBucket> days = eventDensityService.getDensity(
+                userId, MAY_1, MAY_1.plusDays(9), EventDensityService.Granularity.DAY);
+
+        assertThat(days).hasSize(10);
+        assertThat(days.get(0)).isEqualTo(new DensityBucket(MAY_1, 2, 1));
+        assertThat(days.get(1)).isEqualTo(new DensityBucket(MAY_1.plusDays(1), 1, 0));
+        assertThat(days.get(2)).isEqualTo(new DensityBucket(MAY_1.plusDays(2), 0, 0));
+        assertThat(days.get(7)).isEqualTo(new DensityBucket(MAY_1.plusDays(7), 1, 0));
+        assertThat(days.get(8)).isEqualTo(new DensityBucket(MAY_1.plusDays(8), 1, 0));
+    }
+
+    @Test
+    void weeksStartOnMonday() {
+        // 2024-05-01 is a Wednesday
+        List<DensityBucket> weeks = eventDensityService.getDensity(
+                userId, MAY_1, MAY_1.plusDays(30), EventDensityService.Granularity.WEEK);
+
+        assertThat(weeks).extracting(DensityBucket::start).containsExactly(
+                LocalDate.of(2024, 4, 29), LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13),
+                LocalDate.of(2024, 5, 20), LocalDate.of(2024, 5, 27));
+        assertThat(weeks.get(0)).isEqualTo(new DensityBucket(LocalDate.of(2024, 4, 29), 3, 1));
+        assertThat(weeks.get(1)).isEqualTo(new DensityBucket(LocalDate.of(2024, 5, 6), 2, 0));
+        assertThat(weeks.get(2)).isEqualTo(new DensityBucket(LocalDate.of(2024, 5, 13), 1, 0));
+    }
+
+    @Test
+    void closedMonthsAreServedFromCache() {
+        eventDensityService.getDensity(userId, MAY_1, MAY_1.plusDays(30), EventDensityService.Granularity.DAY);
+        long afterFirst = statistics.getPrepareStatementCount();
+
+        List<DensityBucket> again = eventDensityService.getDensity(
+                userId, MAY_1, MAY_1.plusDays(30), EventDensityService.Granularity.DAY);
+
+        assertThat(again.get(0)).isEqualTo(new DensityBucket(MAY_1, 2, 1));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(afterFirst);
+    }
+
+    private void save(User user, LocalDateTime start, boolean completed, String recurrencePattern) {
+        Event event = new Event("Event", start, start.plusHours(1), user);
+        event.setCategoryId(1); // Work
+        event.setCompleted(completed);
+        event.setRecurring(recurrencePattern != null);
+        event.setRecurrencePattern(recurrencePattern);
+        eventRepository.save(event);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({EventExportService.class, EventMapper.class, CategoryService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EventExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Autowired
+    private EventExportService eventExportService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("export@livskraft.se");
+        user.setUsername("ExportUser");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+        for (int i = 0; i < 3; i++) {
+            eventRepository.save(new Event("Event " + i, START.plusDays(i), START.plusDays(i).plusHours(1), user));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonIsOneEventPerLineInStartOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        eventExportService.exportNdjson(user.getId(), out);
+
+        List<String> titles = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            titles.add(objectMapper.readValue(line, EventDTO.class).getTitle());
+        }
+        assertThat(titles).containsExactly("Event 0", "Event 1", "Event 2");
+        assertThat(managedEvents()).isZero();
+    }
+
+    @Test
+    void icsWrapsEveryEventInOneCalendar() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        eventExportService.exportICalendar(user.getId(), out);
+
+        String ics = out.toString(StandardCharsets.UTF_8);
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\n").endsWith("END:VCALENDAR\r\n");
+        assertThat(ics.split("BEGIN:VEVENT", -1)).hasSize(4);
+        assertThat(ics).contains("SUMMARY:Event 0\r\n", "DTSTART:20240605T090000\r\n");
+        assertThat(managedEvents()).isZero();
+    }
+
+    // Rows are detached as they are written, so only the owner is left in the persistence context
+    private long managedEvents() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+                .filter(key -> ((EntityKey) key).getEntityName().equals(Event.class.getName()))
+                .count();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: every chunk commits on its own, like it does in a real import
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EventImportService.class, EventMapper.class, CategoryService.class, EventRequestValidator.class,
+        UserVersionService.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@TestPropertySource(properties = "events.import.chunk-size=2")
+class EventImportServiceTest {
+
+    @Autowired
+    private EventImportService eventImportService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("import@livskraft.se");
+        user.setUsername("ImportUser");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventRepository.deleteAll(eventRepository.findByUserId(user.getId()));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void validEventsAreWrittenInChunksAndBadOnesReported() throws Exception {
+        StringBuilder ics = new StringBuilder("BEGIN:VCALENDAR\r\n");
+        for (int day = 1; day <= 5; day++) {
+            ics.append(event("Event " + day, "2024060" + day + "T090000", "2024060" + day + "T100000"));
+            if (day == 2) {
+                ics.append(event("Backwards", "20240602T100000", "20240602T090000"));
+            }
+        }
+        ics.append("BEGIN:VEVENT\r\nSUMMARY:No start\r\nEND:VEVENT\r\n");
+        ics.append("END:VCALENDAR\r\n");
+
+        EventImportService.ImportResult result =
+                eventImportService.importICalendar(user.getId(), new StringReader(ics.toString()));
+
+        assertThat(result.getTotalEvents()).isEqualTo(7);
+        assertThat(result.getImported()).isEqualTo(5);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                new EventImportService.ItemError(3, "End time is before start time"),
+                new EventImportService.ItemError(7, "VEVENT without DTSTART"));
+        assertThat(result.getChunks()).extracting(EventImportService.ChunkResult::events).containsExactly(2, 2, 1);
+        assertThat(result.getChunks()).allMatch(EventImportService.ChunkResult::committed);
+
+        List<Event> stored = eventRepository.findByUserId(user.getId());
+        assertThat(stored).extracting(Event::getTitle)
+                .containsExactlyInAnyOrder("Event 1", "Event 2", "Event 3", "Event 4", "Event 5");
+        // Each chunk bumped the owner's version once
+        assertThat(stored).extracting(Event::getChangeVersion).containsOnly(1L, 2L, 3L);
+    }
+
+    private static String event(String title, String start, String end) {
+        return "BEGIN:VEVENT\r\nSUMMARY:" + title + "\r\nDTSTART:" + start + "\r\nDTEND:" + end + "\r\nEND:VEVENT\r\n";
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventChanges;
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.dto.EventPatch;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.mapper.EventMapper;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.SyncToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({EventService.class, EventMapper.class, CategoryService.class, AchievementService.class,
+        RecurrenceExpansionService.class, EventConflictService.class, EventDensityService.class,
+        EventSearchService.class, ReminderScheduler.class, LoggingReminderSink.class, UserVersionService.class,
+        EventSyncService.class, ChangeStreamService.class})
+@TestPropertySource(properties = "reminders.enabled=false")
+class EventServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventSyncService eventSyncService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("Owner");
+        other = user("Other");
+    }
+
+    @Test
+    void updateThenDeleteSyncsAsChangeThenTombstone() {
+        Event event = eventService.createEvent(new Event("Standup", START, START.plusMinutes(15), owner));
+        entityManager.flush();
+        String token = sync(null).getNextToken();
+
+        Event changes = new Event("Standup moved", START.plusHours(1), START.plusHours(1).plusMinutes(15), owner);
+        changes.setLocation("Room 2");
+        eventService.updateEvent(event.getId(), owner.getId(), changes);
+        entityManager.flush();
+
+        EventChanges updated = sync(token);
+        assertThat(updated.getChanged()).extracting(EventDTO::getTitle).containsExactly("Standup moved");
+        assertThat(updated.getChanged().get(0).getLocation()).isEqualTo("Room 2");
+        assertThat(updated.getDeleted()).isEmpty();
+
+        eventService.deleteEvent(event.getId(), owner.getId());
+        entityManager.flush();
+
+        EventChanges deleted = sync(updated.getNextToken());
+        assertThat(deleted.getChanged()).isEmpty();
+        assertThat(deleted.getDeleted()).containsExactly(event.getId());
+        // A client that missed the update only sees the tombstone
+        EventChanges both = sync(token);
+        assertThat(both.getChanged()).isEmpty();
+        assertThat(both.getDeleted()).containsExactly(event.getId());
+    }
+
+    @Test
+    void updateOfAnotherUsersEventIsRejected() {
+        Event event = eventService.createEvent(new Event("Private", START, START.plusHours(1), owner));
+        entityManager.flush();
+        long version = eventRepository.findById(event.getId()).orElseThrow().getChangeVersion();
+
+        Event changes = new Event("Hijacked", START, START.plusHours(1), other);
+        assertThatThrownBy(() -> eventService.updateEvent(event.getId(), other.getId(), changes))
+                .hasMessage("Event not found or unauthorized");
+        entityManager.flush();
+        entityManager.clear();
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Private");
+        assertThat(stored.getChangeVersion()).isEqualTo(version);
+    }
+
+    @Test
+    void mergePatchClearsNullMembersAndKeepsAbsentOnes() throws Exception {
+        Event event = new Event("Standup", START, START.plusMinutes(15), owner);
+        event.setLocation("Room 1");
+        event.setDescription("Daily");
+        eventService.createEvent(event);
+
+        EventPatch patch = objectMapper.readValue("{\"title\": \"Sync\", \"location\": null}", EventPatch.class);
+        eventService.patchEvent(event.getId(), owner.getId(), patch);
+        entityManager.flush();
+        entityManager.clear();
+
+        Event stored = eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(stored.getTitle()).isEqualTo("Sync");
+        assertThat(stored.getLocation()).isNull();
+        assertThat(stored.getDescription()).isEqualTo("Daily");
+        assertThat(stored.getStartTime()).isEqualTo(START);
+    }
+
+    @Test
+    void rescheduleMovesTheEventAndItsReminder() throws Exception {
+        Event event = new Event("Dentist", START, START.plusHours(1), owner);
+        event.setReminder(true);
+        event.setReminderMinutes(30);
+        eventService.createEvent(event);
+        entityManager.flush();
+        LocalDateTime moved = START.plusDays(1);
+
+        Event saved = eventService.patchEvent(event.getId(), owner.getId(), reschedule(moved));
+
+        assertThat(saved.getStartTime()).isEqualTo(moved);
+        assertThat(saved.getEndTime()).isEqualTo(moved.plusHours(1));
+        assertThat(saved.getRemindAt()).isEqualTo(moved.minusMinutes(30));
+        assertThat(saved.getTitle()).isEqualTo("Dentist");
+    }
+
+    @Test
+    void rescheduleOfASeriesFallsBackToTheFullUpdate() throws Exception {
+        Event series = new Event("Standup", START, START.plusMinutes(15), owner);
+        series.setRecurring(true);
+        series.setRecurrencePattern("FREQ=DAILY;COUNT=5");
+        eventService.createEvent(series);
+        entityManager.flush();
+        LocalDateTime moved = START.plusHours(2);
+
+        eventService.patchEvent(series.getId(), owner.getId(), reschedule(moved));
+        entityManager.flush();
+        entityManager.clear();
+
+        Event stored = eventRepository.findById(series.getId()).orElseThrow();
+        assertThat(stored.getStartTime()).isEqualTo(moved);
+        // Start of the last occurrence, derived from the rule, which the narrow UPDATE can't do
+        assertThat(stored.getRecurrenceEnd()).isEqualTo(moved.plusDays(4));
+    }
+
+    @Test
+    void rescheduleOfAnotherUsersEventIsRejected() throws Exception {
+        Event event = eventService.createEvent(new Event("Private", START, START.plusHours(1), owner));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> eventService.patchEvent(event.getId(), other.getId(), reschedule(START.plusDays(1))))
+                .hasMessage("Event not found or unauthorized");
+        entityManager.clear();
+        assertThat(eventRepository.findById(event.getId()).orElseThrow().getStartTime()).isEqualTo(START);
+    }
+
+    private EventPatch reschedule(LocalDateTime start) throws Exception {
+        return objectMapper.readValue("{\"startTime\": \"" + start + "\", \"endTime\": \""
+                + start.plusHours(1) + "\"}", EventPatch.class);
+    }
+
+    private EventChanges sync(String token) {
+        return eventSyncService.getChanges(owner.getId(), token != null ? SyncToken.decode(token) : null, 50);
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setEmail(username.toLowerCase() + "@livskraft.se");
+        user.setUsername(username);
+        user.setPassword("not-a-real-hash");
+        return userRepository.save(user);
+    }
+}
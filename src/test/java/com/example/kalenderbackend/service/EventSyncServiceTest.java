@@ -0,0 +1,147 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.EventChanges;
+import com.example.kalenderbackend.dto.EventDTO;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import com.example.kalenderbackend.util.SyncToken;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({EventSyncService.class, UserVersionService.class})
+class EventSyncServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Autowired
+    private EventSyncService eventSyncService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("sync@livskraft.se");
+        user.setUsername("SyncUser");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+    }
+
+    @Test
+    void returnsOnlyWhatChangedSinceTheToken() {
+        Event kept = save(new Event("Kept", START, START.plusHours(1), user));
+        Event edited = save(new Event("Edited", START, START.plusHours(1), user));
+        Event removed = save(new Event("Removed", START, START.plusHours(1), user));
+
+        EventChanges full = sync(null, 50);
+        assertThat(full.getChanged()).extracting(EventDTO::getTitle).containsExactly("Kept", "Edited", "Removed");
+        assertThat(full.getDeleted()).isEmpty();
+
+        edited.setTitle("Edited again");
+        save(edited);
+        delete(removed);
+        save(new Event("Added", START, START.plusHours(1), user));
+
+        EventChanges delta = sync(full.getNextToken(), 50);
+        assertThat(delta.getChanged()).extracting(EventDTO::getTitle).containsExactly("Edited again", "Added");
+        assertThat(delta.getDeleted()).containsExactly(removed.getId());
+        assertThat(delta.isHasMore()).isFalse();
+
+        EventChanges nothing = sync(delta.getNextToken(), 50);
+        assertThat(nothing.getChanged()).isEmpty();
+        assertThat(nothing.getDeleted()).isEmpty();
+        assertThat(nothing.getNextToken()).isEqualTo(delta.getNextToken());
+        assertThat(kept.getChangeVersion()).isLessThan(edited.getChangeVersion());
+    }
+
+    @Test
+    void pagesThroughChangesOfOneVersion() {
+        // A batch write stamps every event with the same version
+        long version = userVersionService.eventsChanged(user.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event("Batch " + i, START.plusDays(i), START.plusDays(i).plusHours(1), user);
+            event.setChangeVersion(version);
+            ids.add(eventRepository.save(event).getId());
+        }
+        entityManager.flush();
+
+        List<Long> seen = new ArrayList<>();
+        String token = null;
+        EventChanges page;
+        do {
+            page = sync(token, 2);
+            page.getChanged().forEach(dto -> seen.add(dto.getId()));
+            token = page.getNextToken();
+        } while (page.isHasMore());
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void tokensBehindCompactedTombstonesMustResync() {
+        Event removed = save(new Event("Removed", START, START.plusHours(1), user));
+        String token = sync(null, 50).getNextToken();
+        delete(removed);
+
+        assertThat(eventSyncService.compact(LocalDateTime.now().plusMinutes(1))).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(sync(token, 50).isResetRequired()).isTrue();
+        // A full sync afterwards gets a fresh base and works again
+        EventChanges full = sync(null, 50);
+        assertThat(full.isResetRequired()).isFalse();
+        assertThat(sync(full.getNextToken(), 50).isResetRequired()).isFalse();
+    }
+
+    @Test
+    void foreignTokensMustResync() {
+        save(new Event("Only", START, START.plusHours(1), user));
+        String ahead = new SyncToken(1_000, 1, 1_000).encode();
+
+        assertThat(sync(ahead, 50).isResetRequired()).isTrue();
+    }
+
+    private EventChanges sync(String token, int limit) {
+        return eventSyncService.getChanges(user.getId(), token != null ? SyncToken.decode(token) : null, limit);
+    }
+
+    private Event save(Event event) {
+        event.setChangeVersion(userVersionService.eventsChanged(user.getId()));
+        Event saved = eventRepository.save(event);
+        entityManager.flush();
+        return saved;
+    }
+
+    private void delete(Event event) {
+        eventRepository.delete(event);
+        entityManager.flush();
+        eventSyncService.eventDeleted(user.getId(), event.getId());
+        entityManager.flush();
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.dto.ReminderNotification;
+import com.example.kalenderbackend.entity.Event;
+import com.example.kalenderbackend.entity.ReminderDelivery;
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.EventRepository;
+import com.example.kalenderbackend.repository.ReminderDeliveryRepository;
+import com.example.kalenderbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Recovery of failed and abandoned deliveries with a stub sink. The loader and ticker are off
+// (reminders.enabled=false); recover() is called directly. Not transactional, claims commit.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReminderScheduler.class, RecurrenceExpansionService.class, ReminderSchedulerTest.StubSinkConfig.class})
+@TestPropertySource(properties = {"reminders.enabled=false", "reminders.grace-minutes=5",
+        "reminders.claim-timeout-seconds=120", "reminders.max-attempts=3"})
+class ReminderSchedulerTest {
+
+    @Autowired
+    private ReminderScheduler reminderScheduler;
+
+    @Autowired
+    private ReminderDeliveryRepository deliveryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StubSink sink;
+
+    private User user;
+    private Event event;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("retried@livskraft.se");
+        user.setUsername("Retried");
+        user.setPassword("not-a-real-hash");
+        userRepository.save(user);
+
+        // Reminder came due a minute ago, well within the grace period
+        start = LocalDateTime.now().plusMinutes(14).truncatedTo(ChronoUnit.SECONDS);
+        event = new Event("Standup", start, start.plusMinutes(15), user);
+        event.setCategoryId(1); // Work
+        event.setReminderMinutes(15);
+        eventRepository.save(event);
+
+        sink.sent.clear();
+        sink.failuresLeft.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryRepository.deleteAll();
+        eventRepository.deleteAll();
+        userRepository.delete(user);
+    }
+
+    @Test
+    void abandonedClaimIsSentOnce() throws InterruptedException {
+        // Claimed ten minutes ago by a sender that never finished
+        deliveryRepository.claim(event.getId(), start, event.getRemindAt(), LocalDateTime.now().minusMinutes(10));
+
+        reminderScheduler.recover();
+        awaitStatus(ReminderDelivery.Status.SENT);
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(sink.sent).hasSize(1);
+        assertThat(sink.sent.get(0).eventId()).isEqualTo(event.getId());
+        assertThat(sink.sent.get(0).username()).isEqualTo("Retried");
+        assertThat(delivery().getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRecoveriesSendOnce() throws InterruptedException {
+        deliveryRepository.claim(event.getId(), start, event.getRemindAt(), LocalDateTime.now().minusMinutes(10));
+
+        // Like two instances running their loaders at the same moment
+        Thread other = Thread.ofVirtual().start(reminderScheduler::recover);
+        reminderScheduler.recover();
+        other.join();
+        awaitStatus(ReminderDelivery.Status.SENT);
+        Thread.sleep(100);
+
+        assertThat(sink.sent).hasSize(1);
+        assertThat(delivery().getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void recentClaimIsLeftToItsSender() throws InterruptedException {
+        deliveryRepository.claim(event.getId(), start, event.getRemindAt(), LocalDateTime.now());
+
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(sink.sent).isEmpty();
+        assertThat(delivery().getStatus()).isEqualTo(ReminderDelivery.Status.CLAIMED);
+    }
+
+    @Test
+    void failedSendIsRetriedUntilItSucceeds() throws InterruptedException {
+        failedDelivery();
+        sink.failuresLeft.set(1);
+
+        reminderScheduler.recover();
+        awaitStatus(ReminderDelivery.Status.FAILED);
+        reminderScheduler.recover();
+        awaitStatus(ReminderDelivery.Status.SENT);
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(sink.sent).hasSize(1);
+        assertThat(delivery().getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void retriesStopAtMaxAttempts() throws InterruptedException {
+        failedDelivery();
+        sink.failuresLeft.set(10);
+
+        reminderScheduler.recover();
+        awaitAttempts(2);
+        awaitStatus(ReminderDelivery.Status.FAILED);
+        reminderScheduler.recover();
+        awaitAttempts(3);
+        awaitStatus(ReminderDelivery.Status.FAILED);
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(delivery().getAttempts()).isEqualTo(3);
+        assertThat(sink.failuresLeft.get()).isEqualTo(8);
+    }
+
+    @Test
+    void remindersPastTheGracePeriodAreNotRetried() throws InterruptedException {
+        event.setStartTime(LocalDateTime.now().plusMinutes(5).truncatedTo(ChronoUnit.SECONDS));
+        event.setEndTime(event.getStartTime().plusMinutes(15));
+        event = eventRepository.save(event);
+        start = event.getStartTime();
+        failedDelivery();
+
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(sink.sent).isEmpty();
+        assertThat(delivery().getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void completedEventIsNotRetried() throws InterruptedException {
+        failedDelivery();
+        event.setCompleted(true);
+        event = eventRepository.save(event);
+
+        reminderScheduler.recover();
+        Thread.sleep(100);
+
+        assertThat(sink.sent).isEmpty();
+        assertThat(delivery().getStatus()).isEqualTo(ReminderDelivery.Status.FAILED);
+    }
+
+    private void failedDelivery() {
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(1);
+        deliveryRepository.claim(event.getId(), start, event.getRemindAt(), claimedAt);
+        deliveryRepository.finish(event.getId(), start, ReminderDelivery.Status.FAILED, claimedAt, "boom");
+    }
+
+    private ReminderDelivery delivery() {
+        return deliveryRepository.findByEventIdAndOccurrenceStart(event.getId(), start).orElseThrow();
+    }
+
+    // Sends run on virtual threads
+    private void awaitStatus(ReminderDelivery.Status status) throws InterruptedException {
+        for (int i = 0; i < 100 && delivery().getStatus() != status; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(delivery().getStatus()).isEqualTo(status);
+    }
+
+    private void awaitAttempts(int attempts) throws InterruptedException {
+        for (int i = 0; i < 100 && delivery().getAttempts() != attempts; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(delivery().getAttempts()).isEqualTo(attempts);
+    }
+
+    static class StubSink implements ReminderSink {
+
+        final List<ReminderNotification> sent = new CopyOnWriteArrayList<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void send(ReminderNotification notification) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            sent.add(notification);
+        }
+    }
+
+    @TestConfiguration
+    static class StubSinkConfig {
+
+        @Bean
+        StubSink stubSink() {
+            return new StubSink();
+        }
+    }
+}
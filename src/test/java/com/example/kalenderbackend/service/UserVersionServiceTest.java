@@ -0,0 +1,83 @@
+package com.example.kalenderbackend.service;
+
+import com.example.kalenderbackend.entity.User;
+import com.example.kalenderbackend.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(UserVersionService.class)
+class UserVersionServiceTest {
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("etag@livskraft.se");
+        user.setUsername("ETagUser");
+        user.setPassword("secret");
+        userId = userRepository.saveAndFlush(user).getId();
+        entityManager.clear();
+    }
+
+    @Test
+    void eventWritesChangeOnlyEventTags() {
+        String events = userVersionService.eventsETag(userId);
+        String profile = userVersionService.profileETag(userId);
+        assertThat(userVersionService.eventsETag(userId)).isEqualTo(events);
+
+        userVersionService.eventsChanged(userId);
+        entityManager.clear();
+
+        assertThat(userVersionService.eventsETag(userId)).isNotEqualTo(events).startsWith("\"e" + userId + "-");
+        assertThat(userVersionService.profileETag(userId)).isEqualTo(profile);
+    }
+
+    @Test
+    void userUpdatesChangeProfileAndStatsTags() {
+        String events = userVersionService.eventsETag(userId);
+        String profile = userVersionService.profileETag(userId);
+        String stats = userVersionService.statsETag(userId);
+
+        User user = userRepository.findById(userId).orElseThrow();
+        user.setXp(user.getXp() + 10);
+        userRepository.saveAndFlush(user);
+        entityManager.clear();
+
+        assertThat(userVersionService.profileETag(userId)).isNotEqualTo(profile);
+        assertThat(userVersionService.statsETag(userId)).isNotEqualTo(stats);
+        assertThat(userVersionService.eventsETag(userId)).isEqualTo(events);
+    }
+
+    @Test
+    void saveKeepsTheBumpedEventsVersion() {
+        userVersionService.eventsChanged(userId);
+        entityManager.clear();
+
+        // A user loaded with a stale version must not write it back
+        User user = userRepository.findById(userId).orElseThrow();
+        userVersionService.eventsChanged(userId);
+        user.setStreak(3);
+        userRepository.saveAndFlush(user);
+        entityManager.clear();
+
+        assertThat(userRepository.findVersionStamp(userId)).get()
+                .extracting(stamp -> stamp.eventsVersion()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnInsertedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.put(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertThat(filter.mightContain(key)).as(key).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; a generous bound, the point is that the filter isn't saturated
+        assertThat(falsePositives).isLessThan(3_000);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void expiresAtOrAfterDeadlineAcrossRounds() {
+        HashedTimingWheel<String, String> wheel = new HashedTimingWheel<>(1000, 8, START);
+        wheel.schedule("soon", START + 2_500, "a");
+        wheel.schedule("later", START + 20_000, "b"); // more than two revolutions away
+        wheel.schedule("past", START - 60_000, "c");
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 2_999, (key, value) -> expired.add(value));
+        assertThat(expired).containsExactly("c");
+
+        wheel.advance(START + 3_000, (key, value) -> expired.add(value));
+        assertThat(expired).containsExactly("c", "a");
+
+        wheel.advance(START + 19_999, (key, value) -> expired.add(value));
+        assertThat(expired).containsExactly("c", "a");
+        wheel.advance(START + 20_000, (key, value) -> expired.add(value));
+        assertThat(expired).containsExactly("c", "a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rescheduleAndCancel() {
+        HashedTimingWheel<String, String> wheel = new HashedTimingWheel<>(1000, 8, START);
+        wheel.schedule("x", START + 1_000, "first");
+        wheel.schedule("x", START + 5_000, "moved");
+        wheel.schedule("y", START + 1_000, "cancelled");
+        assertThat(wheel.cancel("y")).isTrue();
+        assertThat(wheel.cancel("y")).isFalse();
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 10_000, (key, value) -> expired.add(value));
+        assertThat(expired).containsExactly("moved");
+    }
+
+    // Random schedules/cancels checked against deadlines kept in a map
+    @Test
+    void matchesDeadlines() {
+        Random random = new Random(11);
+        HashedTimingWheel<Integer, Long> wheel = new HashedTimingWheel<>(100, 64, START);
+        Map<Integer, Long> pending = new HashMap<>();
+
+        long now = START;
+        for (int step = 0; step < 5_000; step++) {
+            int key = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                wheel.cancel(key);
+                pending.remove(key);
+            } else {
+                long deadline = now + random.nextInt(30_000);
+                wheel.schedule(key, deadline, deadline);
+                pending.put(key, deadline);
+            }
+
+            now += random.nextInt(250);
+            long at = now;
+            wheel.advance(at, (k, deadline) -> {
+                assertThat(deadline).isLessThanOrEqualTo(at);
+                assertThat(pending.remove(k)).isEqualTo(deadline);
+            });
+            // Everything due before the current tick has fired
+            long tickStart = at - Math.floorMod(at, 100);
+            assertThat(pending.values()).allMatch(deadline -> deadline > tickStart);
+            assertThat(wheel.size()).isEqualTo(pending.size());
+        }
+    }
+}
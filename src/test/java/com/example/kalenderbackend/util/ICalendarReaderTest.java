@@ -0,0 +1,110 @@
+package com.example.kalenderbackend.util;
+
+import com.example.kalenderbackend.dto.CreateEventRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ICalendarReaderTest {
+
+    @Test
+    void foldedLinesAreJoinedAndTextIsUnescaped() throws IOException {
+        ICalendarReader reader = reader(
+                "BEGIN:VEVENT",
+                "DTSTART:20240603T090000",
+                "DTEND:20240603T100000",
+                "SUMMARY:Lunch\\; with Anna\\, Erik and a title that is long enough to be fol",
+                " ded by the writer",
+                "DESCRIPTION:Bring\\\\notes\\nand cake",
+                "END:VEVENT");
+
+        CreateEventRequest request = reader.next();
+
+        assertThat(request.getTitle())
+                .isEqualTo("Lunch; with Anna, Erik and a title that is long enough to be folded by the writer");
+        assertThat(request.getDescription()).isEqualTo("Bring\\notes\nand cake");
+        assertThat(request.getStartTime()).isEqualTo(LocalDateTime.of(2024, 6, 3, 9, 0));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void utcAndTzidTimesAreConvertedToServerTime() throws IOException {
+        TimeZone original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Stockholm"));
+        try {
+            ICalendarReader reader = reader(
+                    "BEGIN:VEVENT",
+                    "SUMMARY:Call",
+                    "DTSTART:20240603T070000Z",
+                    "DTEND;TZID=America/New_York:20240603T040000",
+                    "END:VEVENT");
+
+            CreateEventRequest request = reader.next();
+
+            assertThat(request.getStartTime()).isEqualTo(LocalDateTime.of(2024, 6, 3, 9, 0));
+            assertThat(request.getEndTime()).isEqualTo(LocalDateTime.of(2024, 6, 3, 10, 0));
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    void durationAlarmAndAllDayDefaults() throws IOException {
+        ICalendarReader reader = reader(
+                "BEGIN:VEVENT",
+                "SUMMARY:Course",
+                "DTSTART:20240603T090000",
+                "DURATION:P1W",
+                "BEGIN:VALARM",
+                "ACTION:DISPLAY",
+                "TRIGGER:-PT15M",
+                "END:VALARM",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:Holiday",
+                "DTSTART;VALUE=DATE:20240606",
+                "END:VEVENT");
+
+        CreateEventRequest course = reader.next();
+        CreateEventRequest holiday = reader.next();
+
+        assertThat(course.getEndTime()).isEqualTo(LocalDateTime.of(2024, 6, 10, 9, 0));
+        assertThat(course.getReminder()).isTrue();
+        assertThat(course.getReminderMinutes()).isEqualTo(15);
+        assertThat(holiday.getStartTime()).isEqualTo(LocalDateTime.of(2024, 6, 6, 0, 0));
+        assertThat(holiday.getEndTime()).isEqualTo(LocalDateTime.of(2024, 6, 7, 0, 0));
+        assertThat(holiday.getReminder()).isFalse();
+    }
+
+    @Test
+    void malformedEventIsSkippedAndReadingContinues() throws IOException {
+        ICalendarReader reader = reader(
+                "BEGIN:VEVENT",
+                "SUMMARY:No start",
+                "END:VEVENT",
+                "BEGIN:VEVENT",
+                "SUMMARY:Fine",
+                "DTSTART:20240603T090000",
+                "RRULE:FREQ=SECONDLY",
+                "END:VEVENT");
+
+        assertThatThrownBy(reader::next).hasMessage("VEVENT without DTSTART");
+        CreateEventRequest fine = reader.next();
+
+        assertThat(fine.getTitle()).isEqualTo("Fine");
+        // Outside the supported subset, imported as a single event
+        assertThat(fine.getRecurrencePattern()).isNull();
+        assertThat(reader.getEventCount()).isEqualTo(2);
+    }
+
+    private static ICalendarReader reader(String... lines) {
+        String body = String.join("\r\n", lines);
+        return new ICalendarReader(new StringReader("BEGIN:VCALENDAR\r\n" + body + "\r\nEND:VCALENDAR\r\n"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.kalenderbackend.util;
+
+import com.example.kalenderbackend.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ICalendarWriterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 9, 0);
+
+    @Test
+    void dtStampIsConvertedFromServerTimeToUtc() throws IOException {
+        TimeZone original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/Stockholm"));
+        try {
+            Event event = event("Standup");
+            // Summer time, UTC+2
+            event.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 12, 30, 15));
+
+            List<String> lines = write(event);
+
+            assertThat(lines).contains("DTSTAMP:20240601T103015Z");
+            // Event times stay floating local time
+            assertThat(lines).contains("DTSTART:20240603T090000", "DTEND:20240603T100000");
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    void textValuesAreEscaped() throws IOException {
+        Event event = event("Lunch; with Anna, Erik");
+        event.setDescription("Bring\\notes\r\nand cake");
+
+        List<String> lines = write(event);
+
+        assertThat(lines).contains("SUMMARY:Lunch\\; with Anna\\, Erik", "DESCRIPTION:Bring\\\\notes\\nand cake");
+    }
+
+    @Test
+    void longLinesAreFoldedAt75OctetsWithoutSplittingCharacters() throws IOException {
+        // Two-byte characters, so a fold after 75 chars would be 150 octets
+        String title = "Möte på kontoret ".repeat(10).trim();
+        Event event = event(title);
+
+        StringWriter out = new StringWriter();
+        ICalendarWriter writer = new ICalendarWriter(out);
+        writer.writeEvent(event, null, null);
+        String ics = out.toString();
+
+        for (String line : ics.split("\r\n")) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        // Unfolding (dropping CRLF + space) gives the original line back
+        assertThat(ics.replace("\r\n ", "")).contains("SUMMARY:" + title + "\r\n");
+    }
+
+    private static Event event(String title) {
+        Event event = new Event(title, START, START.plusHours(1), null);
+        event.setId(7L);
+        return event;
+    }
+
+    private static List<String> write(Event event) throws IOException {
+        StringWriter out = new StringWriter();
+        new ICalendarWriter(out).writeEvent(event, null, null);
+        return Arrays.asList(out.toString().replace("\r\n ", "").split("\r\n"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void halfOpenOverlap() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(1, BASE.withHour(9), BASE.withHour(10), "a");
+        tree.insert(2, BASE.withHour(10), BASE.withHour(11), "b");
+        tree.insert(3, BASE.withHour(8), BASE.withHour(12), "c");
+
+        assertThat(tree.overlapping(BASE.withHour(10), BASE.withHour(10).plusMinutes(30))).containsExactly("c", "b");
+        assertThat(tree.overlapping(BASE.withHour(12), BASE.withHour(13))).isEmpty();
+
+        assertThat(tree.remove(3, BASE.withHour(8))).isTrue();
+        assertThat(tree.remove(3, BASE.withHour(8))).isFalse();
+        assertThat(tree.overlapping(BASE.withHour(9), BASE.withHour(12))).containsExactly("a", "b");
+    }
+
+    // Random inserts, moves and removes checked against a linear scan
+    @Test
+    void matchesLinearScan() {
+        Random random = new Random(42);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        Map<Long, LocalDateTime[]> expected = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(1000);
+            LocalDateTime[] old = expected.remove(id);
+            if (old != null) {
+                tree.remove(id, old[0]);
+            }
+            if (random.nextBoolean()) {
+                LocalDateTime start = BASE.plusMinutes(random.nextInt(50_000));
+                LocalDateTime end = start.plusMinutes(random.nextInt(600));
+                tree.insert(id, start, end, id);
+                expected.put(id, new LocalDateTime[]{start, end});
+            }
+
+            if (i % 500 == 0) {
+                LocalDateTime from = BASE.plusMinutes(random.nextInt(50_000));
+                LocalDateTime to = from.plusMinutes(1 + random.nextInt(3000));
+                Set<Long> overlapping = new HashSet<>();
+                expected.forEach((key, interval) -> {
+                    if (interval[0].isBefore(to) && interval[1].isAfter(from)) {
+                        overlapping.add(key);
+                    }
+                });
+                assertThat(new HashSet<>(tree.overlapping(from, to))).isEqualTo(overlapping);
+                assertThat(tree.size()).isEqualTo(expected.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private static InvertedIndex.Field title(String text) {
+        return new InvertedIndex.Field(text, 3);
+    }
+
+    private static InvertedIndex.Field description(String text) {
+        return new InvertedIndex.Field(text, 1);
+    }
+
+    private static List<Long> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::id).toList();
+    }
+
+    @Test
+    void tokenizesCaseAndAccentInsensitively() {
+        assertThat(InvertedIndex.tokenize("Möte med Åsa, kl. 10:30!")).containsExactly("mote", "med", "asa", "kl", "10", "30");
+        assertThat(InvertedIndex.tokenize("  ")).isEmpty();
+        assertThat(InvertedIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void matchesPrefixesOfEveryToken() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, title("Team meeting"), description("Quarterly planning"));
+        index.put(2, title("Gym"), description("Leg day with the team"));
+        index.put(3, title("Dentist"));
+
+        assertThat(ids(index.search("meet", 10))).containsExactly(1L);
+        assertThat(ids(index.search("team plan", 10))).containsExactly(1L);
+        assertThat(ids(index.search("dentist gym", 10))).isEmpty();
+        assertThat(index.search("", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksTitleAndExactMatchesFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, title("Lunch"), description("Team lunch downtown"));
+        index.put(2, title("Team offsite"));
+        index.put(3, title("Teamwork workshop"));
+
+        // Title beats description, exact term beats prefix
+        assertThat(ids(index.search("team", 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(index.search("team", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, title("Yoga"));
+        index.put(1, title("Running"));
+
+        assertThat(index.search("yoga", 10)).isEmpty();
+        assertThat(ids(index.search("run", 10))).containsExactly(1L);
+
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.remove(1)).isFalse();
+        assertThat(index.search("run", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
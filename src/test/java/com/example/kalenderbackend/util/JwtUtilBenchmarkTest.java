@@ -0,0 +1,77 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The filter used to parse and check the signature three times per request (extractUsername,
+// then validateToken parsing for subject and expiry); verify() does it once. The correctness
+// checks always run, the timing comparison only with -Pbenchmark
+class JwtUtilBenchmarkTest {
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret",
+                "MyVerySecretKeyForJWTTokenGenerationMinimum256BitsLongForSecurity");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "refreshExpiration", 2592000000L);
+        jwtUtil.init();
+
+        token = jwtUtil.generateToken("benchuser", 42L);
+        userDetails = User.withUsername("benchuser")
+                .password("")
+                .authorities(new ArrayList<>())
+                .build();
+    }
+
+    @Test
+    void verifyReturnsAllClaimsFromOneParse() {
+        ParsedToken parsed = jwtUtil.verify(token);
+
+        assertThat(parsed.subject()).isEqualTo("benchuser");
+        assertThat(parsed.userId()).isEqualTo(42L);
+        assertThat(parsed.id()).isNotNull();
+        assertThat(parsed.isAccessToken()).isTrue();
+        assertThat(parsed.isExpired()).isFalse();
+    }
+
+    @Test
+    void singleParseAcceptsWhatLegacyPathAccepts() {
+        assertThat(legacyPath()).isTrue();
+        assertThat(fastPath()).isTrue();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void singleParseIsFasterThanLegacyPath() {
+        double legacy = MicroBenchmark.nanosPerOp(20_000, 5, 20_000, this::legacyPath);
+        double fast = MicroBenchmark.nanosPerOp(20_000, 5, 20_000, this::fastPath);
+        MicroBenchmark.report("legacy path (3 parses)", legacy);
+        MicroBenchmark.report("verify() (1 parse)", fast);
+
+        assertThat(fast).isLessThan(legacy);
+    }
+
+    // What JwtAuthenticationFilter used to do per request
+    private boolean legacyPath() {
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, userDetails);
+    }
+
+    private boolean fastPath() {
+        ParsedToken parsed = jwtUtil.verify(token);
+        return parsed.subject().equals(userDetails.getUsername());
+    }
+}
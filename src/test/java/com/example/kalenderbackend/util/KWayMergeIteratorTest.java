@@ -0,0 +1,61 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KWayMergeIteratorTest {
+
+    @Test
+    void mergesSortedSources() {
+        List<Iterator<Integer>> sources = List.of(
+                List.of(1, 4, 7).iterator(),
+                List.<Integer>of().iterator(),
+                List.of(2, 2, 9).iterator(),
+                List.of(3).iterator());
+
+        List<Integer> merged = new ArrayList<>();
+        new KWayMergeIterator<>(sources, Comparator.<Integer>naturalOrder()).forEachRemaining(merged::add);
+
+        assertThat(merged).containsExactly(1, 2, 2, 3, 4, 7, 9);
+    }
+
+    // Taking the first n elements must not drain the sources
+    @Test
+    void readsSourcesOnlyAsFarAsNeeded() {
+        AtomicInteger pulled = new AtomicInteger();
+        List<Iterator<Integer>> sources = new ArrayList<>();
+        for (int s = 0; s < 10; s++) {
+            int offset = s;
+            sources.add(new Iterator<>() {
+                int next = offset;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public Integer next() {
+                    pulled.incrementAndGet();
+                    int value = next;
+                    next += 10;
+                    return value;
+                }
+            });
+        }
+
+        KWayMergeIterator<Integer> merged = new KWayMergeIterator<>(sources, Comparator.naturalOrder());
+        for (int i = 0; i < 25; i++) {
+            assertThat(merged.next()).isEqualTo(i);
+        }
+        // One head per source plus one refill per element taken
+        assertThat(pulled.get()).isEqualTo(10 + 25);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.kalenderbackend.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// Warm-up-then-measure loop for the @Tag("benchmark") tests, which only run with -Pbenchmark.
+// Not JMH, but enough to compare two implementations of the same thing on one machine
+final class MicroBenchmark {
+
+    // Results are folded in here so the JIT can't drop the measured calls as dead code
+    private static volatile int sink;
+
+    private MicroBenchmark() {
+    }
+
+    // Calls op warmup times untimed, then times rounds of iterations each; the fastest round is
+    // reported, slower ones are mostly GC and scheduling noise
+    static double nanosPerOp(int warmup, int rounds, int iterations, Supplier<?> op) {
+        int hash = 0;
+        for (int i = 0; i < warmup; i++) {
+            hash += Objects.hashCode(op.get());
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                hash += Objects.hashCode(op.get());
+            }
+            best = Math.min(best, (double) (System.nanoTime() - start) / iterations);
+        }
+        sink = hash;
+        return best;
+    }
+
+    static void report(String name, double nanosPerOp) {
+        System.out.printf("%-40s %,14.0f ns/op%n", name, nanosPerOp);
+    }
+}
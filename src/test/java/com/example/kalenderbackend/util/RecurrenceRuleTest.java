@@ -0,0 +1,83 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecurrenceRuleTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 9, 0); // a Monday
+
+    @Test
+    void weeklyByDayWithCount() {
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=4");
+
+        List<LocalDateTime> occurrences = rule.occurrencesBetween(START, START, START.plusYears(1));
+
+        assertThat(occurrences).containsExactly(
+                START, START.plusDays(2), START.plusDays(4), START.plusDays(7));
+        assertThat(rule.seriesEnd(START)).isEqualTo(START.plusDays(7));
+    }
+
+    @Test
+    void windowDoesNotChangeCountSemantics() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=2;COUNT=10");
+
+        List<LocalDateTime> occurrences = rule.occurrencesBetween(START, START.plusDays(15), START.plusDays(30));
+
+        // Occurrences 9 and 10 of the series (days 16 and 18), nothing after COUNT
+        assertThat(occurrences).containsExactly(START.plusDays(16), START.plusDays(18));
+    }
+
+    @Test
+    void monthlySkipsMissingDays() {
+        LocalDateTime jan31 = LocalDateTime.of(2024, 1, 31, 8, 0);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;UNTIL=20240601");
+
+        assertThat(rule.occurrencesBetween(jan31, jan31, jan31.plusYears(1))).containsExactly(
+                jan31, LocalDateTime.of(2024, 3, 31, 8, 0), LocalDateTime.of(2024, 5, 31, 8, 0));
+        assertThat(rule.occursAt(jan31, LocalDateTime.of(2024, 3, 31, 8, 0))).isTrue();
+        assertThat(rule.occursAt(jan31, LocalDateTime.of(2024, 2, 29, 8, 0))).isFalse();
+    }
+
+    @Test
+    void dtStartOutsideByDayIsNotAnOccurrence() {
+        LocalDateTime thursday = START.plusDays(3);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=3");
+
+        assertThat(rule.occurrencesBetween(thursday, thursday, thursday.plusMonths(1))).containsExactly(
+                START.plusDays(7), START.plusDays(9), START.plusDays(14));
+        assertThat(rule.occursAt(thursday, thursday)).isFalse();
+    }
+
+    @Test
+    void lateWindowsMatchExpandingFromTheStart() {
+        LocalDateTime jan31 = LocalDateTime.of(2024, 1, 31, 8, 0);
+        LocalDateTime from = LocalDateTime.of(2027, 3, 10, 0, 0);
+        LocalDateTime to = from.plusMonths(3);
+        for (String pattern : List.of("FREQ=DAILY;INTERVAL=3", "FREQ=DAILY;COUNT=1200", "FREQ=WEEKLY;INTERVAL=2",
+                "FREQ=WEEKLY;BYDAY=TU,SA;COUNT=400", "FREQ=WEEKLY;INTERVAL=3;BYDAY=MO,FR", "FREQ=MONTHLY;COUNT=50",
+                "FREQ=YEARLY;INTERVAL=2")) {
+            RecurrenceRule rule = RecurrenceRule.parse(pattern);
+            for (LocalDateTime dtStart : List.of(START, START.plusDays(3).plusHours(5), jan31)) {
+                List<LocalDateTime> expected = rule.occurrencesBetween(dtStart, dtStart, to).stream()
+                        .filter(occurrence -> !occurrence.isBefore(from))
+                        .toList();
+
+                assertThat(rule.occurrencesBetween(dtStart, from, to)).as(pattern + " from " + dtStart)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void rejectsUnsupportedRules() {
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=HOURLY")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RecurrenceRule.parse("FREQ=MONTHLY;BYDAY=MO")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(RecurrenceRule.parse("FREQ=DAILY").seriesEnd(START)).isNull();
+    }
+}
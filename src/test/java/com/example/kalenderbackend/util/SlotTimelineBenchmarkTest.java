@@ -0,0 +1,130 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Free-slot search for 60 participants over a month, six meetings a day each. The naive way checks
+// every candidate slot against every event of every participant; the bitmap way ORs one timeline
+// per participant and scans the words. Same answer required; the speed-up is measured with -Pbenchmark
+class SlotTimelineBenchmarkTest {
+
+    private static final int PARTICIPANTS = 60;
+    private static final int DAYS = 31;
+    private static final int EVENTS_PER_DAY = 6;
+    private static final int SLOT_MINUTES = 15;
+    private static final int LENGTH_SLOTS = 4; // one hour
+    private static final int RESULTS = 10;
+
+    private static final LocalTime DAY_START = LocalTime.of(9, 0);
+    private static final LocalTime DAY_END = LocalTime.of(17, 0);
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(DAYS);
+
+    private List<List<LocalDateTime[]>> calendars;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(7);
+        calendars = new ArrayList<>();
+        for (int p = 0; p < PARTICIPANTS; p++) {
+            List<LocalDateTime[]> events = new ArrayList<>();
+            for (int day = 0; day < DAYS; day++) {
+                for (int e = 0; e < EVENTS_PER_DAY; e++) {
+                    // Short meetings during the working day; nobody books over lunch (12-13)
+                    LocalDateTime start = FROM.plusDays(day).plusHours(7).plusMinutes(random.nextInt(12 * 60));
+                    if (start.getHour() == 11 || start.getHour() == 12) {
+                        start = start.plusHours(2);
+                    }
+                    events.add(new LocalDateTime[]{start, start.plusMinutes(5 + random.nextInt(55))});
+                }
+            }
+            calendars.add(events);
+        }
+    }
+
+    @Test
+    void bitmapsFindTheSameSlotsAsListComparison() {
+        List<Integer> expected = naive();
+        List<Integer> actual = bitmaps();
+
+        assertThat(actual).hasSize(RESULTS).isEqualTo(expected);
+    }
+
+    @Test
+    void workingHoursAreRespected() {
+        SlotTimeline timeline = new SlotTimeline(FROM, FROM.plusDays(2), SLOT_MINUTES);
+        timeline.markBusy(FROM.withHour(9), FROM.withHour(10).plusMinutes(20));
+        timeline.markBusyOutside(LocalTime.of(9, 0), LocalTime.of(17, 0));
+
+        List<Integer> runs = timeline.firstFreeRuns(8, 4);
+
+        assertThat(runs).extracting(timeline::slotStart).containsExactly(
+                FROM.withHour(10).plusMinutes(30), FROM.withHour(12).plusMinutes(30), FROM.withHour(14).plusMinutes(30),
+                FROM.plusDays(1).withHour(9));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void bitmapsAreFasterThanListComparison() {
+        double lists = MicroBenchmark.nanosPerOp(20, 5, 20, this::naive);
+        double bits = MicroBenchmark.nanosPerOp(200, 5, 200, this::bitmaps);
+        MicroBenchmark.report("event list comparison", lists);
+        MicroBenchmark.report("OR-ed slot bitmaps", bits);
+
+        assertThat(bits).isLessThan(lists);
+    }
+
+    private List<Integer> bitmaps() {
+        SlotTimeline combined = new SlotTimeline(FROM, TO, SLOT_MINUTES);
+        for (List<LocalDateTime[]> events : calendars) {
+            SlotTimeline timeline = new SlotTimeline(FROM, TO, SLOT_MINUTES);
+            for (LocalDateTime[] event : events) {
+                timeline.markBusy(event[0], event[1]);
+            }
+            combined.or(timeline);
+        }
+        combined.markBusyOutside(DAY_START, DAY_END);
+        return combined.firstFreeRuns(LENGTH_SLOTS, RESULTS);
+    }
+
+    // Step through candidate slots in working hours and check every event of every participant
+    private List<Integer> naive() {
+        List<Integer> result = new ArrayList<>();
+        int slots = DAYS * 24 * 60 / SLOT_MINUTES;
+        int slot = 0;
+        while (slot + LENGTH_SLOTS <= slots && result.size() < RESULTS) {
+            LocalDateTime start = FROM.plusMinutes((long) slot * SLOT_MINUTES);
+            LocalDateTime end = start.plusMinutes((long) LENGTH_SLOTS * SLOT_MINUTES);
+            boolean inWorkingHours = !start.toLocalTime().isBefore(DAY_START)
+                    && !end.isAfter(start.toLocalDate().atTime(DAY_END));
+            if (inWorkingHours && isFreeForAll(start, end)) {
+                result.add(slot);
+                slot += LENGTH_SLOTS;
+            } else {
+                slot++;
+            }
+        }
+        return result;
+    }
+
+    private boolean isFreeForAll(LocalDateTime start, LocalDateTime end) {
+        for (List<LocalDateTime[]> events : calendars) {
+            for (LocalDateTime[] event : events) {
+                if (event[0].isBefore(end) && event[1].isAfter(start)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.kalenderbackend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIndexCacheTest {
+
+    // Stand-in for the events table and users.events_version
+    private final Map<Long, List<String>> rows = new HashMap<>();
+    private final Map<Long, Long> versions = new HashMap<>();
+    private int loads;
+
+    private UserIndexCache<List<String>> cache(int maxUsers) {
+        return new UserIndexCache<>(maxUsers, ArrayList::new, (userId, index) -> {
+            loads++;
+            index.addAll(rows.getOrDefault(userId, List.of()));
+        }, userId -> versions.getOrDefault(userId, 0L));
+    }
+
+    // A write committed with the next version
+    private void write(long userId, String row) {
+        rows.computeIfAbsent(userId, id -> new ArrayList<>()).add(row);
+        versions.merge(userId, 1L, Long::sum);
+    }
+
+    private static List<String> copy(List<String> index) {
+        return List.copyOf(index);
+    }
+
+    @Test
+    void loadsOnFirstReadAndAppliesLocalChanges() {
+        UserIndexCache<List<String>> cache = cache(10);
+        write(1, "a");
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a");
+        write(1, "b");
+        cache.apply(1L, 2, index -> index.add("b"));
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a", "b");
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test
+    void changesOfOneBatchShareAVersion() {
+        UserIndexCache<List<String>> cache = cache(10);
+        cache.read(1L, UserIndexCacheTest::copy);
+        write(1, "a");
+        rows.get(1L).add("b");
+        cache.apply(1L, 1, index -> index.add("a"));
+        cache.apply(1L, 1, index -> index.add("b"));
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a", "b");
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test
+    void reloadsAfterAWriteItWasNotTold() {
+        UserIndexCache<List<String>> cache = cache(10);
+        cache.read(1L, UserIndexCacheTest::copy);
+        // e.g. written by another instance
+        write(1, "a");
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a");
+        assertThat(loads).isEqualTo(2);
+    }
+
+    @Test
+    void skippedVersionDropsTheIndex() {
+        UserIndexCache<List<String>> cache = cache(10);
+        cache.read(1L, UserIndexCacheTest::copy);
+        write(1, "a");
+        write(1, "b");
+        cache.apply(1L, 2, index -> index.add("b"));
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a", "b");
+        assertThat(loads).isEqualTo(2);
+    }
+
+    @Test
+    void changeAlreadyReadByTheLoadIsNotAppliedTwice() {
+        UserIndexCache<List<String>> cache = cache(10);
+        write(1, "a");
+        cache.read(1L, UserIndexCacheTest::copy);
+        // After-commit callback of the write arrives late
+        cache.apply(1L, 1, index -> index.add("a"));
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a");
+    }
+
+    @Test
+    void changesForUnloadedUsersAreSkipped() {
+        UserIndexCache<List<String>> cache = cache(10);
+        write(1, "a");
+        cache.apply(1L, 1, index -> index.add("a"));
+
+        assertThat(cache.read(1L, UserIndexCacheTest::copy)).containsExactly("a");
+        assertThat(loads).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedUser() {
+        UserIndexCache<List<String>> cache = cache(2);
+        cache.read(1L, UserIndexCacheTest::copy);
+        cache.read(2L, UserIndexCacheTest::copy);
+        cache.read(1L, UserIndexCacheTest::copy);
+        cache.read(3L, UserIndexCacheTest::copy);
+        assertThat(loads).isEqualTo(3);
+
+        cache.read(1L, UserIndexCacheTest::copy);
+        assertThat(loads).isEqualTo(3);
+        cache.read(2L, UserIndexCacheTest::copy);
+        assertThat(loads).isEqualTo(4);
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        UserIndexCache<List<String>> cache = cache(10);
+        cache.read(1L, UserIndexCacheTest::copy);
+        cache.invalidate(1L);
+        cache.read(1L, UserIndexCacheTest::copy);
+
+        assertThat(loads).isEqualTo(2);
+    }
+}